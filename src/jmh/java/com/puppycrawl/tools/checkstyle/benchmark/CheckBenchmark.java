@@ -0,0 +1,169 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.DefaultContext;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Measures a single check on ASTs which are parsed beforehand, so that time
+ * of the check is not hidden by time of parsing. The AST is walked the same
+ * way as {@code TreeWalker} does, with the default tokens of the check.
+ * Contents of the file are created for each run, as {@code TreeWalker} does,
+ * so models of analysis passes are not reused between runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CheckBenchmark {
+
+    /** Directory with files to check. */
+    @Param(InputFiles.DEFAULT_DIRECTORY)
+    public String inputDirectory;
+
+    /** Name of the check, as in configuration. */
+    @Param({
+        "AbbreviationAsWordInName",
+        "CyclomaticComplexity",
+        "DeclarationOrder",
+        "FinalLocalVariable",
+        "HiddenField",
+        "Indentation",
+        "JavadocMethod",
+        "JavadocStyle",
+        "MagicNumber",
+        "RequireThis",
+        "UnusedImports",
+        "VariableDeclarationUsageDistance",
+        "WhitespaceAround"
+    })
+    public String check;
+
+    /** The check to run. */
+    private AbstractCheck module;
+
+    /** Types of tokens the check is registered for. */
+    private BitSet tokens;
+
+    /** Texts of the files. */
+    private List<FileText> texts;
+
+    /** ASTs of the files. */
+    private List<DetailAST> trees;
+
+    /** Index of the next file. */
+    private int index;
+
+    /**
+     * Creates the check and parses files.
+     *
+     * @throws IOException if a file can not be read
+     * @throws CheckstyleException if the check can not be created or a file can not be parsed
+     */
+    @Setup
+    public void setUp() throws IOException, CheckstyleException {
+        final PackageObjectFactory factory = new PackageObjectFactory(
+                Checker.class.getPackage().getName(), Checker.class.getClassLoader());
+        module = (AbstractCheck) factory.createModule(check);
+        final DefaultContext context = new DefaultContext();
+        context.add("severity", "warning");
+        context.add("tabWidth", "8");
+        module.contextualize(context);
+        module.configure(new DefaultConfiguration(check));
+        module.init();
+
+        tokens = new BitSet();
+        for (int token : module.getDefaultTokens()) {
+            tokens.set(token);
+        }
+
+        final JavaParser.Options options;
+        if (module.isCommentNodesRequired()) {
+            options = JavaParser.Options.WITH_COMMENTS;
+        }
+        else {
+            options = JavaParser.Options.WITHOUT_COMMENTS;
+        }
+        final InputFiles files = InputFiles.read(inputDirectory);
+        texts = new ArrayList<>();
+        trees = new ArrayList<>();
+        for (int count = files.size(); count > 0; count--) {
+            final FileText text = files.next();
+            texts.add(text);
+            trees.add(JavaParser.parseFileText(text, options));
+        }
+    }
+
+    /**
+     * Runs the check on a file.
+     *
+     * @return number of violations
+     */
+    @Benchmark
+    public int runCheck() {
+        final DetailAST root = trees.get(index);
+        module.clearViolations();
+        module.setFileContents(new FileContents(texts.get(index)));
+        index = (index + 1) % trees.size();
+
+        module.beginTree(root);
+        DetailAST curNode = root;
+        while (curNode != null) {
+            if (tokens.get(curNode.getType())) {
+                module.visitToken(curNode);
+            }
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                if (tokens.get(curNode.getType())) {
+                    module.leaveToken(curNode);
+                }
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+            curNode = toVisit;
+        }
+        module.finishTree(root);
+        return module.getViolations().size();
+    }
+
+}
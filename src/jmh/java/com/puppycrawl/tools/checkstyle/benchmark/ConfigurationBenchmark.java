@@ -0,0 +1,100 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * Measures the whole processing of a file by {@code Checker} with one of
+ * the bundled configurations: reading, parsing, all checks and filters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConfigurationBenchmark {
+
+    /** Directory with files to check. */
+    @Param(InputFiles.DEFAULT_DIRECTORY)
+    public String inputDirectory;
+
+    /** Location of the configuration, can be either a URL, a file name or a resource. */
+    @Param({"/google_checks.xml", "/sun_checks.xml"})
+    public String configuration;
+
+    /** Files to check. */
+    private InputFiles files;
+
+    /** The checker to process files with. */
+    private Checker checker;
+
+    /**
+     * Reads files to check and configures the checker.
+     *
+     * @throws IOException if a file can not be read
+     * @throws CheckstyleException if the configuration is invalid
+     */
+    @Setup
+    public void setUp() throws IOException, CheckstyleException {
+        files = InputFiles.read(inputDirectory);
+        final Configuration config = ConfigurationLoader.loadConfiguration(configuration,
+                new PropertiesExpander(System.getProperties()));
+        checker = new Checker();
+        checker.setModuleClassLoader(Checker.class.getClassLoader());
+        checker.configure(config);
+    }
+
+    /**
+     * Destroys the checker.
+     */
+    @TearDown
+    public void tearDown() {
+        checker.destroy();
+    }
+
+    /**
+     * Processes a file.
+     *
+     * @return number of violations
+     * @throws CheckstyleException if an error occurs
+     */
+    @Benchmark
+    public int process() throws CheckstyleException {
+        return checker.process(Collections.singletonList(files.next().getFile()));
+    }
+
+}
@@ -0,0 +1,130 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Java files to run benchmarks on. Benchmarks process one file per operation,
+ * so throughput is reported in files per time unit, and take files in turn
+ * to cover all of them.
+ */
+public final class InputFiles {
+
+    /** Directory with inputs of integration tests, which contain most of Java syntax. */
+    public static final String DEFAULT_DIRECTORY = "src/it/resources";
+
+    /** Texts of the files. */
+    private final List<FileText> texts;
+
+    /** Index of the next file. */
+    private int index;
+
+    /**
+     * Creates a new {@code InputFiles} instance.
+     *
+     * @param texts texts of the files
+     */
+    private InputFiles(List<FileText> texts) {
+        this.texts = texts;
+    }
+
+    /**
+     * Reads all Java files in a directory and its subdirectories.
+     * Files which can not be parsed are skipped, so that they do not
+     * interrupt measurements.
+     *
+     * @param directory the directory to read files from
+     * @return files sorted by path
+     * @throws IOException if a file can not be read
+     * @throws IllegalArgumentException if there are no Java files in the directory
+     */
+    public static InputFiles read(String directory) throws IOException {
+        final List<Path> paths;
+        try (Stream<Path> stream = Files.walk(Paths.get(directory))) {
+            paths = stream
+                .filter(path -> path.toString().endsWith(".java"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        final List<FileText> texts = new ArrayList<>();
+        for (Path path : paths) {
+            final FileText text = new FileText(path.toFile().getAbsoluteFile(),
+                    StandardCharsets.UTF_8.name());
+            if (isParseable(text)) {
+                texts.add(text);
+            }
+        }
+        if (texts.isEmpty()) {
+            throw new IllegalArgumentException("No Java files in " + directory);
+        }
+        return new InputFiles(texts);
+    }
+
+    /**
+     * Gets the next file, starting over when all files are taken.
+     *
+     * @return the text of the file
+     */
+    public FileText next() {
+        final FileText text = texts.get(index);
+        index = (index + 1) % texts.size();
+        return text;
+    }
+
+    /**
+     * Gets the number of files.
+     *
+     * @return the number of files
+     */
+    public int size() {
+        return texts.size();
+    }
+
+    /**
+     * Checks whether a file is a valid Java source.
+     *
+     * @param text the text of the file
+     * @return {@code true} if the file can be parsed
+     */
+    private static boolean isParseable(FileText text) {
+        boolean result = true;
+        try {
+            JavaParser.parseFileText(text, JavaParser.Options.WITH_COMMENTS);
+        }
+        catch (CheckstyleException ignored) {
+            result = false;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,87 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+
+/**
+ * Measures parsing of Java files to AST by {@code JavaParser},
+ * which includes lexing, parsing and building of AST by {@code JavaAstVisitor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JavaParserBenchmark {
+
+    /** Directory with files to parse. */
+    @Param(InputFiles.DEFAULT_DIRECTORY)
+    public String inputDirectory;
+
+    /** Files to parse. */
+    private InputFiles files;
+
+    /**
+     * Reads files to parse.
+     *
+     * @throws IOException if a file can not be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        files = InputFiles.read(inputDirectory);
+    }
+
+    /**
+     * Parses a file without comment nodes, as for checks which do not need them.
+     *
+     * @return the root of the AST
+     * @throws CheckstyleException if the file can not be parsed
+     */
+    @Benchmark
+    public DetailAST parse() throws CheckstyleException {
+        return JavaParser.parse(new FileContents(files.next()));
+    }
+
+    /**
+     * Parses a file with comment nodes, as for checks which need them.
+     *
+     * @return the root of the AST
+     * @throws CheckstyleException if the file can not be parsed
+     */
+    @Benchmark
+    public DetailAST parseWithComments() throws CheckstyleException {
+        return JavaParser.parseFileText(files.next(), JavaParser.Options.WITH_COMMENTS);
+    }
+
+}
@@ -0,0 +1,331 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+
+/**
+ * Filter which accepts only violations on lines added or changed by a unified diff,
+ * for example to check only changes of a pull request.
+ *
+ * <p>Lines are taken from the new version of each file in the diff. Violations
+ * without a line, like violations of the whole file, are accepted in changed files.
+ * Deleted files and files with only removed lines are not considered changed.
+ * Relative file names of audit events are resolved against the current directory.</p>
+ */
+public final class ChangedLinesFilter implements Filter {
+
+    /**
+     * Pattern of a hunk header, captures the number of old lines, the first new line
+     * and the number of new lines.
+     */
+    private static final Pattern HUNK_HEADER =
+            Pattern.compile("^@@ -\\d+(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@");
+
+    /** Group of the number of old lines in a hunk header. */
+    private static final int OLD_COUNT_GROUP = 1;
+
+    /** Group of the first new line in a hunk header. */
+    private static final int NEW_START_GROUP = 2;
+
+    /** Group of the number of new lines in a hunk header. */
+    private static final int NEW_COUNT_GROUP = 3;
+
+    /** Prefix of the line with the path of the new file. */
+    private static final String NEW_FILE_PREFIX = "+++ ";
+
+    /** Prefix of the first line of a file in git diffs. */
+    private static final String GIT_DIFF_PREFIX = "diff --git ";
+
+    /** Prefix of paths of new files in git diffs. */
+    private static final String GIT_NEW_FILE_PATH_PREFIX = "b/";
+
+    /** Path of the new file when the file is deleted. */
+    private static final String DEV_NULL = "/dev/null";
+
+    /** Changed lines of files by real paths of the files. */
+    private final Map<Path, BitSet> changedLines;
+
+    /** Changed lines by file names of audit events, filled on demand. */
+    private final Map<String, BitSet> changedLinesByFileName = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new {@code ChangedLinesFilter} instance.
+     *
+     * @param changedLines changed lines of files by real paths of the files
+     */
+    private ChangedLinesFilter(Map<Path, BitSet> changedLines) {
+        this.changedLines = changedLines;
+    }
+
+    /**
+     * Creates a filter from a unified diff file. Paths in the diff are resolved
+     * against the current directory.
+     *
+     * @param diffFile the diff file
+     * @return the filter
+     * @throws CheckstyleException if the file can not be read
+     */
+    public static ChangedLinesFilter fromDiffFile(File diffFile) throws CheckstyleException {
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(diffFile.toPath(), StandardCharsets.UTF_8);
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Unable to read diff file " + diffFile, ex);
+        }
+        return new ChangedLinesFilter(parse(lines.iterator(), Paths.get("")));
+    }
+
+    /**
+     * Creates a filter from the changes of the git working tree against a revision.
+     *
+     * @param revision the revision to compare the working tree with
+     * @param directory a directory in the git working tree
+     * @return the filter
+     * @throws CheckstyleException if git fails
+     */
+    public static ChangedLinesFilter fromGitDiff(String revision, File directory)
+            throws CheckstyleException {
+        final String topLevel = runGit(directory, "rev-parse", "--show-toplevel").trim();
+        final String diff = runGit(directory, "-c", "core.quotePath=false", "diff",
+                "--no-color", "--no-ext-diff", "--unified=0",
+                "--src-prefix=a/", "--dst-prefix=" + GIT_NEW_FILE_PATH_PREFIX,
+                revision, "--");
+        return new ChangedLinesFilter(
+                parse(Arrays.asList(diff.split("\\R")).iterator(), Paths.get(topLevel)));
+    }
+
+    /**
+     * Checks whether a file is changed.
+     *
+     * @param file the file to check
+     * @return {@code true} if lines are added or changed in the file
+     */
+    public boolean isChanged(File file) {
+        return changedLines.containsKey(getRealPath(file.toPath()));
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        boolean result = true;
+        if (event.getViolation() != null) {
+            final BitSet lines = changedLinesByFileName.computeIfAbsent(event.getFileName(),
+                    this::getChangedLines);
+            final int line = event.getLine();
+            result = !lines.isEmpty() && (line == 0 || lines.get(line));
+        }
+        return result;
+    }
+
+    /**
+     * Gets changed lines of a file.
+     *
+     * @param fileName the name of the file
+     * @return changed lines of the file, empty if the file is not changed
+     */
+    private BitSet getChangedLines(String fileName) {
+        return changedLines.getOrDefault(getRealPath(Paths.get(fileName)), new BitSet());
+    }
+
+    /**
+     * Parses a unified diff.
+     *
+     * @param diff the lines of the diff
+     * @param baseDirectory the directory to resolve paths of files against
+     * @return changed lines of files by real paths of the files
+     */
+    private static Map<Path, BitSet> parse(Iterator<String> diff, Path baseDirectory) {
+        final Map<Path, BitSet> result = new HashMap<>();
+        boolean gitDiff = false;
+        BitSet lines = null;
+        while (diff.hasNext()) {
+            final String line = diff.next();
+            final Matcher hunkHeader = HUNK_HEADER.matcher(line);
+            if (line.startsWith(GIT_DIFF_PREFIX)) {
+                gitDiff = true;
+            }
+            else if (line.startsWith(NEW_FILE_PREFIX)) {
+                lines = null;
+                final String path = getNewFilePath(line, gitDiff);
+                if (!DEV_NULL.equals(path)) {
+                    lines = new BitSet();
+                    result.put(getRealPath(baseDirectory.resolve(path)), lines);
+                }
+            }
+            else if (lines != null && hunkHeader.find()) {
+                readHunk(diff, hunkHeader, lines);
+            }
+        }
+        result.values().removeIf(BitSet::isEmpty);
+        return result;
+    }
+
+    /**
+     * Reads lines of a hunk and marks added lines.
+     *
+     * @param diff the lines of the diff after the hunk header
+     * @param hunkHeader the matched header of the hunk
+     * @param lines the changed lines of the file
+     */
+    private static void readHunk(Iterator<String> diff, Matcher hunkHeader, BitSet lines) {
+        int oldRemaining = getLineCount(hunkHeader.group(OLD_COUNT_GROUP));
+        int newRemaining = getLineCount(hunkHeader.group(NEW_COUNT_GROUP));
+        int lineNumber = Integer.parseInt(hunkHeader.group(NEW_START_GROUP));
+        while ((oldRemaining > 0 || newRemaining > 0) && diff.hasNext()) {
+            final String line = diff.next();
+            if (line.startsWith("+")) {
+                lines.set(lineNumber);
+                lineNumber++;
+                newRemaining--;
+            }
+            else if (line.startsWith("-")) {
+                oldRemaining--;
+            }
+            else if (!line.startsWith("\\")) {
+                lineNumber++;
+                oldRemaining--;
+                newRemaining--;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of lines of a hunk, which is 1 if it is not specified.
+     *
+     * @param count the number of lines from the hunk header or {@code null}
+     * @return the number of lines
+     */
+    private static int getLineCount(String count) {
+        int result = 1;
+        if (count != null) {
+            result = Integer.parseInt(count);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the path of the new file from the line of the diff header.
+     *
+     * @param line the line which starts with {@code +++}
+     * @param gitDiff whether the diff is made by git, which prefixes paths
+     * @return the path of the new file
+     */
+    private static String getNewFilePath(String line, boolean gitDiff) {
+        String path = line.substring(NEW_FILE_PREFIX.length());
+        final int timestampStart = path.indexOf('\t');
+        if (timestampStart >= 0) {
+            path = path.substring(0, timestampStart);
+        }
+        if (gitDiff && path.startsWith(GIT_NEW_FILE_PATH_PREFIX)) {
+            path = path.substring(GIT_NEW_FILE_PATH_PREFIX.length());
+        }
+        return path;
+    }
+
+    /**
+     * Gets the real path of a file, so that different paths of the same file match.
+     *
+     * @param path the path of the file
+     * @return the real path if the file exists, the absolute normalized path otherwise
+     */
+    private static Path getRealPath(Path path) {
+        Path result;
+        try {
+            result = path.toRealPath();
+        }
+        catch (IOException ignored) {
+            result = path.toAbsolutePath().normalize();
+        }
+        return result;
+    }
+
+    /**
+     * Runs git and gets its output.
+     *
+     * @param directory the directory to run git in
+     * @param arguments the arguments of git
+     * @return the standard output of git
+     * @throws CheckstyleException if git can not be run or fails
+     */
+    private static String runGit(File directory, String... arguments)
+            throws CheckstyleException {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        try {
+            final Process process = new ProcessBuilder(command).directory(directory).start();
+            // standard error is drained concurrently, git blocks when either pipe is full
+            final FutureTask<String> error =
+                    new FutureTask<>(() -> readAll(process.getErrorStream()));
+            new Thread(error, "git-stderr").start();
+            final String output = readAll(process.getInputStream());
+            final int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new CheckstyleException(String.format(Locale.ROOT,
+                        "Command '%s' failed with exit code %d: %s",
+                        String.join(" ", command), exitCode, error.get().trim()));
+            }
+            return output;
+        }
+        catch (IOException | ExecutionException ex) {
+            throw new CheckstyleException("Unable to run git", ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while waiting for git", ex);
+        }
+    }
+
+    /**
+     * Reads a stream to string.
+     *
+     * @param stream the stream to read
+     * @return the content of the stream in UTF-8
+     * @throws IOException if the stream can not be read
+     */
+    private static String readAll(InputStream stream) throws IOException {
+        return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+}
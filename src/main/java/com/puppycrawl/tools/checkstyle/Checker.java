@@ -21,23 +21,19 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
@@ -48,7 +44,6 @@ import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
 import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
-import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Filter;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
 import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
@@ -66,9 +61,6 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Message to use when an exception occurs and should be printed as a violation. */
     public static final String EXCEPTION_MSG = "general.exception";
 
-    /** Logger for Checker. */
-    private final Log log;
-
     /** Maintains error count. */
     private final SeverityLevelCounter counter = new SeverityLevelCounter(
             SeverityLevel.ERROR);
@@ -79,6 +71,9 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = new ArrayList<>();
 
+    /** Instances of fileset checks for additional threads in multi thread mode. */
+    private final Map<FileSetCheck, List<FileSetCheck>> fileSetCheckCopies = new HashMap<>();
+
     /** The audit event before execution file filters. */
     private final BeforeExecutionFileFilterSet beforeExecutionFileFilters =
             new BeforeExecutionFileFilterSet();
@@ -127,19 +122,31 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     @XdocsPropertyType(PropertyType.FILE)
     private PropertyCacheFile cacheFile;
 
+    /**
+     * Controls whether files are identified in the cache file by a hash of their
+     * content instead of the timestamp, violations of files are stored in the cache
+     * file and reported again without checking unchanged files.
+     */
+    private boolean cacheByContent;
+
     /** Controls whether exceptions should halt execution or not. */
     private boolean haltOnException = true;
 
     /** The tab width for column reporting. */
     private int tabWidth = CommonUtil.DEFAULT_TAB_WIDTH;
 
+    /** The number of threads to process files with. */
+    private int threadsNumber = 1;
+
+    /** Records time of modules, if profiling is enabled. */
+    private ModuleProfiler profiler;
+
     /**
      * Creates a new {@code Checker} instance.
      * The instance needs to be contextualized and configured.
      */
     public Checker() {
         addListener(counter);
-        log = LogFactory.getLog(Checker.class);
     }
 
     /**
@@ -154,6 +161,28 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         cacheFile.load();
     }
 
+    /**
+     * Setter to control whether files are identified in the cache file by a hash of
+     * their content instead of the timestamp, violations of files are stored in the
+     * cache file and reported again without checking unchanged files.
+     *
+     * @param cacheByContent whether to identify files by a hash of their content.
+     */
+    public void setCacheByContent(boolean cacheByContent) {
+        this.cacheByContent = cacheByContent;
+    }
+
+    /**
+     * Sets the profiler to record time of modules with. Profiling is disabled
+     * if it is not set. The profiler should also be added as a listener to
+     * print the report.
+     *
+     * @param profiler the profiler.
+     */
+    public void setProfiler(ModuleProfiler profiler) {
+        this.profiler = profiler;
+    }
+
     /**
      * Removes before execution file filter.
      *
@@ -170,12 +199,16 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     public void removeFilter(Filter filter) {
         filters.removeFilter(filter);
+        if (filter instanceof AuditListener) {
+            removeListener((AuditListener) filter);
+        }
     }
 
     @Override
     public void destroy() {
         listeners.clear();
         fileSetChecks.clear();
+        fileSetCheckCopies.clear();
         beforeExecutionFileFilters.clear();
         filters.clear();
         if (cacheFile != null) {
@@ -221,17 +254,46 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         final List<File> targetFiles = files.stream()
                 .filter(file -> CommonUtil.matchesFileExtension(file, fileExtensions))
                 .collect(Collectors.toList());
-        processFiles(targetFiles);
-
-        // Finish up
-        // It may also log!!!
-        fileSetChecks.forEach(FileSetCheck::finishProcessing);
+        ViolationCache violationCache = null;
+        if (cacheFile != null) {
+            ClassLoader classLoader = moduleClassLoader;
+            if (classLoader == null) {
+                classLoader = Checker.class.getClassLoader();
+            }
+            violationCache = new ViolationCache(cacheFile, cacheByContent,
+                    new Locale(localeLanguage, localeCountry), classLoader);
+        }
+        final FileChecker fileChecker = new FileChecker(this, filters, basedir, charset,
+                haltOnException, profiler, violationCache);
+        try {
+            if (threadsNumber > 1) {
+                processFilesInParallel(targetFiles, fileChecker);
+            }
+            else {
+                processFiles(targetFiles, fileChecker);
+            }
 
-        // It may also log!!!
-        fileSetChecks.forEach(FileSetCheck::destroy);
+            // Finish up
+            // It may also log!!!
+            fileSetChecks.forEach(FileSetCheck::finishProcessing);
+        }
+        finally {
+            // Threads of file set checks are stopped even if the audit fails
+            // It may also log!!!
+            fileSetChecks.forEach(FileSetCheck::destroy);
+        }
 
         final int errorCount = counter.getCount();
         fireAuditFinished();
+        if (cacheFile != null) {
+            // A long running process does not lose the results of its audits
+            try {
+                cacheFile.persist();
+            }
+            catch (IOException ex) {
+                throw new CheckstyleException("Unable to persist cache file after audit.", ex);
+            }
+        }
         return errorCount;
     }
 
@@ -270,6 +332,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      * Processes a list of files with all FileSetChecks.
      *
      * @param files a list of files to process.
+     * @param fileChecker checks a file.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
      * @throws Error wraps any java.lang.Error happened during execution
      * @noinspection ProhibitedExceptionThrown
@@ -277,22 +340,27 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      *      deliver filename that was under processing.
      */
     // -@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
-    private void processFiles(List<File> files) throws CheckstyleException {
+    private void processFiles(List<File> files, FileChecker fileChecker)
+            throws CheckstyleException {
         for (final File file : files) {
             String fileName = null;
             try {
                 fileName = file.getAbsolutePath();
                 final long timestamp = file.lastModified();
-                if (cacheFile != null && cacheFile.isInCache(fileName, timestamp)
+                if (cacheFile != null && !cacheByContent
+                        && cacheFile.isInCache(fileName, timestamp)
                         || !acceptFileStarted(fileName)) {
                     continue;
                 }
-                if (cacheFile != null) {
+                if (cacheFile != null && !cacheByContent) {
                     cacheFile.put(fileName, timestamp);
                 }
                 fireFileStarted(fileName);
-                final SortedSet<Violation> fileMessages = processFile(file);
-                fireErrors(fileName, fileMessages);
+                for (final AuditEvent event : fileChecker.process(file, fileSetChecks)) {
+                    for (final AuditListener listener : listeners) {
+                        listener.addError(event);
+                    }
+                }
                 fireFileFinished(fileName);
             }
             // -@cs[IllegalCatch] There is no other way to deliver filename that was under
@@ -318,48 +386,41 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     }
 
     /**
-     * Processes a file with all FileSetChecks.
+     * Processes a list of files with all FileSetChecks on several threads.
+     * Audit events are fired in the order of the list, the same way as in
+     * single thread mode.
      *
-     * @param file a file to process.
-     * @return a sorted set of violations to be logged.
+     * @param files a list of files to process.
+     * @param fileChecker checks a file.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
-     * @noinspection ProhibitedExceptionThrown
-     * @noinspectionreason ProhibitedExceptionThrown - there is no other way to obey
-     *      haltOnException field
      */
-    private SortedSet<Violation> processFile(File file) throws CheckstyleException {
-        final SortedSet<Violation> fileMessages = new TreeSet<>();
+    private void processFilesInParallel(List<File> files, FileChecker fileChecker)
+            throws CheckstyleException {
+        final ParallelFileProcessor processor = new ParallelFileProcessor(threadsNumber,
+                fileSetChecks, fileSetCheckCopies, fileChecker, listeners);
         try {
-            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
-            for (final FileSetCheck fsc : fileSetChecks) {
-                fileMessages.addAll(fsc.process(file, theText));
+            processor.start(charset);
+            for (final File file : files) {
+                final String fileName = file.getAbsolutePath();
+                final long timestamp = file.lastModified();
+                if (cacheFile != null && !cacheByContent
+                        && cacheFile.isInCache(fileName, timestamp)
+                        || !acceptFileStarted(fileName)) {
+                    continue;
+                }
+                if (cacheFile != null && !cacheByContent) {
+                    cacheFile.put(fileName, timestamp);
+                }
+                processor.submit(file, this);
             }
+            processor.finish(this);
         }
-        catch (final IOException ioe) {
-            log.debug("IOException occurred.", ioe);
-            fileMessages.add(new Violation(1,
-                    Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
-                    new String[] {ioe.getMessage()}, null, getClass(), null));
-        }
-        // -@cs[IllegalCatch] There is no other way to obey haltOnException field
-        catch (Exception ex) {
-            if (haltOnException) {
-                throw ex;
+        finally {
+            final List<File> unreportedFiles = processor.shutdown();
+            if (cacheFile != null) {
+                unreportedFiles.forEach(file -> cacheFile.remove(file.getAbsolutePath()));
             }
-
-            log.debug("Exception occurred.", ex);
-
-            final StringWriter sw = new StringWriter();
-            final PrintWriter pw = new PrintWriter(sw, true);
-
-            ex.printStackTrace(pw);
-
-            fileMessages.add(new Violation(1,
-                    Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
-                    new String[] {sw.getBuffer().toString()},
-                    null, getClass(), null));
         }
-        return fileMessages;
     }
 
     /**
@@ -401,7 +462,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         boolean hasNonFilteredViolations = false;
         for (final Violation element : errors) {
             final AuditEvent event = new AuditEvent(this, stripped, element);
-            if (filters.accept(event)) {
+            if (FileChecker.accept(filters, profiler, event)) {
                 hasNonFilteredViolations = true;
                 for (final AuditListener listener : listeners) {
                     listener.addError(event);
@@ -452,7 +513,16 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         context.add("severity", severity.getName());
         context.add("basedir", basedir);
         context.add("tabWidth", String.valueOf(tabWidth));
+        if (profiler != null) {
+            context.add("profiler", profiler);
+        }
         childContext = context;
+
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration).getThreadModeSettings()
+                    .getCheckerThreadsNumber();
+        }
     }
 
     /**
@@ -484,6 +554,10 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
             final FileSetCheck fsc = (FileSetCheck) child;
             fsc.init();
             addFileSetCheck(fsc);
+            if (threadsNumber > 1 && !ParallelFileProcessor.isSharedBetweenThreads(fsc)) {
+                fileSetCheckCopies.put(fsc, ParallelFileProcessor.createCopies(threadsNumber,
+                        childConf, moduleFactory, childContext, this));
+            }
         }
         else if (child instanceof BeforeExecutionFileFilter) {
             final BeforeExecutionFileFilter filter = (BeforeExecutionFileFilter) child;
@@ -525,11 +599,15 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
 
     /**
      * Adds a filter to the end of the audit event filter chain.
+     * A filter which is also an audit listener is notified of the audit events too.
      *
      * @param filter the additional filter
      */
     public void addFilter(Filter filter) {
         filters.addFilter(filter);
+        if (filter instanceof AuditListener) {
+            addListener((AuditListener) filter);
+        }
     }
 
     @Override
@@ -0,0 +1,277 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.RootModule;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Keeps a configured root module resident and checks files which clients
+ * send to a local socket, so that loading of modules and configuration,
+ * JIT compilation and caches of the parser are reused between audits.
+ *
+ * <p>A client sends the token of the daemon on the first line, then paths of files
+ * or directories, one per line, and an empty line or end of stream after them.
+ * The token is a random secret which the daemon writes to a file readable only
+ * by its user, so that other users of the machine can not make the daemon read
+ * files with its permissions. A client with a wrong token is disconnected.
+ * Relative paths are resolved against the working directory of the daemon.
+ * The daemon replies with the report in the configured output format, followed
+ * by the number of errors if there are any, and closes the connection. Clients
+ * are served one at a time, a client which sends nothing for 30 seconds is
+ * disconnected. The cache file, if it is configured, is written after each audit,
+ * as the daemon is usually stopped by a signal.</p>
+ */
+final class CheckstyleDaemon {
+
+    /** Logger for CheckstyleDaemon. */
+    private static final Log LOG = LogFactory.getLog(CheckstyleDaemon.class);
+
+    /** Timeout of reading from a client in milliseconds. */
+    private static final int CLIENT_TIMEOUT_MILLIS = 30_000;
+
+    /** The secret which a client sends to be served. */
+    private final byte[] token;
+
+    /** The root module to process files with. */
+    private final RootModule rootModule;
+
+    /** Format of the reports. */
+    private final Main.OutputFormat format;
+
+    /** Lists files to process in a file or directory sent by a client. */
+    private final Function<File, List<File>> filesLister;
+
+    /** Listener which passes events of the root module to the listener of an audit. */
+    private final DelegatingAuditListener listener = new DelegatingAuditListener();
+
+    /**
+     * Creates a new {@code CheckstyleDaemon} instance.
+     *
+     * @param rootModule the configured root module
+     * @param format format of the reports
+     * @param filesLister lists files to process in a file or directory
+     * @param token the secret which a client sends to be served
+     */
+    CheckstyleDaemon(RootModule rootModule, Main.OutputFormat format,
+            Function<File, List<File>> filesLister, String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.rootModule = rootModule;
+        this.format = format;
+        this.filesLister = filesLister;
+        rootModule.addListener(listener);
+    }
+
+    /**
+     * Creates a random token for clients of a daemon. The token is generated
+     * by a cryptographically strong random number generator.
+     *
+     * @return the token
+     */
+    public static String createToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Writes a token to a file which only the current user can read and write.
+     * An existing file is replaced. On file systems without POSIX permissions
+     * the file gets the permissions of its directory.
+     *
+     * @param file the file to write the token to
+     * @param token the token
+     * @throws IOException if the file can not be written
+     */
+    public static void writeToken(Path file, String token) throws IOException {
+        Files.deleteIfExists(file);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(
+                    EnumSet.of(PosixFilePermission.OWNER_READ,
+                            PosixFilePermission.OWNER_WRITE)));
+        }
+        else {
+            // Files in the home directory of a user are private by default on Windows
+            Files.createFile(file);
+        }
+        Files.write(file, (token + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Processes files with the root module and reports to the given listener.
+     *
+     * @param files the files to process
+     * @param auditListener the listener to report the audit to
+     * @return number of errors
+     * @throws CheckstyleException if an error occurs
+     */
+    public int process(List<File> files, AuditListener auditListener)
+            throws CheckstyleException {
+        listener.delegate = auditListener;
+        return rootModule.process(files);
+    }
+
+    /**
+     * Serves clients until the server socket is closed. Failures of a client,
+     * like a reset or a timed out connection, are logged and do not stop the daemon.
+     *
+     * @param serverSocket the socket to accept clients on
+     */
+    public void serve(ServerSocket serverSocket) {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(CLIENT_TIMEOUT_MILLIS);
+                serve(socket);
+            }
+            catch (IOException ex) {
+                if (!serverSocket.isClosed()) {
+                    LOG.warn("Failed to serve a client.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads files to process from a client and writes the report to it.
+     * Failures are reported to the client, so that the daemon keeps working.
+     * A client with a wrong token is told so and nothing is read from it.
+     *
+     * @param socket the socket of the client
+     * @throws IOException if the socket fails
+     */
+    private void serve(Socket socket) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        final OutputStream out = socket.getOutputStream();
+        final PrintWriter writer =
+                new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final String clientToken = reader.readLine();
+        if (clientToken != null && MessageDigest.isEqual(token,
+                clientToken.getBytes(StandardCharsets.UTF_8))) {
+            serveFiles(reader, out, writer);
+        }
+        else {
+            LOG.warn("A client sent a wrong token.");
+            writer.println("Invalid token.");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads files to process from a client and writes the report to it.
+     *
+     * @param reader the reader of the client
+     * @param out the output stream of the client
+     * @param writer the writer of the client
+     * @throws IOException if the socket fails
+     */
+    private void serveFiles(BufferedReader reader, OutputStream out, PrintWriter writer)
+            throws IOException {
+        final List<File> files = new ArrayList<>();
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()) {
+            files.addAll(filesLister.apply(new File(line)));
+            line = reader.readLine();
+        }
+
+        try {
+            final int errorCounter = process(files,
+                    format.createListener(out, AutomaticBean.OutputStreamOptions.NONE));
+            if (errorCounter > 0) {
+                final Violation errorCounterViolation = new Violation(1,
+                        Definitions.CHECKSTYLE_BUNDLE, Main.ERROR_COUNTER,
+                        new String[] {String.valueOf(errorCounter)}, null, Main.class, null);
+                writer.println(errorCounterViolation.getViolation());
+            }
+        }
+        catch (CheckstyleException ex) {
+            LOG.debug("Failed to process files of a client.", ex);
+            ex.printStackTrace(writer);
+        }
+    }
+
+    /**
+     * Passes events to the listener of the current audit.
+     */
+    private static final class DelegatingAuditListener implements AuditListener {
+
+        /** The listener of the current audit. */
+        private AuditListener delegate;
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            delegate.auditStarted(event);
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            delegate.auditFinished(event);
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            delegate.fileStarted(event);
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            delegate.fileFinished(event);
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            delegate.addError(event);
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            delegate.addException(event, throwable);
+        }
+
+    }
+
+}
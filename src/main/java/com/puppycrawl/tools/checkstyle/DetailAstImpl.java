@@ -187,13 +187,15 @@ public final class DetailAstImpl implements DetailAST {
     public int getChildCount() {
         // lazy init
         if (childCount == NOT_INITIALIZED) {
-            childCount = 0;
+            // counted in a local variable, as the tree may be read by several threads
+            int count = 0;
             DetailAST child = firstChild;
 
             while (child != null) {
-                childCount += 1;
+                count += 1;
                 child = child.getNextSibling();
             }
+            childCount = count;
         }
         return childCount;
     }
@@ -367,6 +369,15 @@ public final class DetailAstImpl implements DetailAST {
         return resultNo;
     }
 
+    /**
+     * Computes token types of the branch of this node and of all its descendants.
+     * The types are cached by nodes, so the tree may be read by checks on several
+     * threads once they are computed.
+     */
+    void computeBranchTokenTypes() {
+        getBranchTokenTypes();
+    }
+
     /**
      * Returns token type with branch.
      *
@@ -395,6 +406,16 @@ public final class DetailAstImpl implements DetailAST {
         return getBranchTokenTypes().get(tokenType);
     }
 
+    /**
+     * Checks whether the branch contains any of the given token types.
+     *
+     * @param tokenTypes the token types to look for
+     * @return true if any of the token types occurs in the branch
+     */
+    boolean branchContainsAny(BitSet tokenTypes) {
+        return getBranchTokenTypes().intersects(tokenTypes);
+    }
+
     @Override
     public DetailAST getPreviousSibling() {
         return previousSibling;
@@ -0,0 +1,228 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
+
+/**
+ * Manages the DFA cache, which all instances of {@link JavaLanguageParser} in the JVM
+ * share to speed up prediction. The cache grows with each parsed file, so it is cleared
+ * when the number of its states exceeds the limit, or when the heap is nearly full
+ * after garbage collection while the cache holds a noticeable number of states.
+ *
+ * <p>Files are parsed under a shared lock and the cache is cleared under an exclusive
+ * lock, so the cache is never cleared while a file is parsed on another thread.
+ * The cache is measured after every {@value #MEASURE_INTERVAL}th parse only, as
+ * counting of its states takes the locks of all its DFAs.</p>
+ */
+public final class DfaCacheManager {
+
+    /** Default number of DFA states to clear the cache after. */
+    public static final int DEFAULT_STATE_LIMIT = 25_000;
+
+    /** Number of parses to measure the cache after. */
+    private static final int MEASURE_INTERVAL = 16;
+
+    /** Minimum number of DFA states to clear the cache with when the heap is nearly full. */
+    private static final int MIN_STATES_ON_HEAP_PRESSURE = 2_500;
+
+    /** Share of the maximum heap size used after garbage collection, which is nearly full. */
+    private static final double HEAP_PRESSURE = 0.9;
+
+    /** Lock which is shared by parsing and exclusive for clearing of the cache. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Heap memory pools, which report their usage after garbage collection. */
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+            .stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .filter(MemoryPoolMXBean::isCollectionUsageThresholdSupported)
+            .collect(Collectors.toList());
+
+    /** Number of DFA states to clear the cache after, zero to clear only on heap pressure. */
+    private final AtomicInteger stateLimit = new AtomicInteger(DEFAULT_STATE_LIMIT);
+
+    /** Number of DFA states measured last. */
+    private final AtomicInteger stateCount = new AtomicInteger();
+
+    /** Number of parses. */
+    private final AtomicLong parseCount = new AtomicLong();
+
+    /** Number of times the cache was cleared. */
+    private final AtomicLong clearCount = new AtomicLong();
+
+    /**
+     * Sets the number of DFA states to clear the cache after.
+     *
+     * @param limit the number of states, zero to clear the cache only when the heap
+     *     is nearly full
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public void setStateLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("DFA state limit must not be negative: " + limit);
+        }
+        stateLimit.set(limit);
+    }
+
+    /**
+     * Gets the number of DFA states to clear the cache after.
+     *
+     * @return the number of states, zero if the cache is cleared only on heap pressure
+     */
+    public int getStateLimit() {
+        return stateLimit.get();
+    }
+
+    /**
+     * Gets the number of DFA states in the cache measured last.
+     *
+     * @return the number of states
+     */
+    public int getStateCount() {
+        return stateCount.get();
+    }
+
+    /**
+     * Gets the number of times the cache was cleared since the start of the JVM.
+     *
+     * @return the number of clears
+     */
+    public long getClearCount() {
+        return clearCount.get();
+    }
+
+    /**
+     * Parses with the parser under the shared lock and clears the cache afterwards,
+     * if needed.
+     *
+     * @param parser the parser
+     * @param rule the rule to parse with
+     * @param <T> the type of the parse tree
+     * @return the parse tree
+     */
+    <T> T parse(JavaLanguageParser parser, Function<JavaLanguageParser, T> rule) {
+        lock.readLock().lock();
+        try {
+            return rule.apply(parser);
+        }
+        finally {
+            lock.readLock().unlock();
+            afterParse(parser);
+        }
+    }
+
+    /**
+     * Counts a parse, and measures the cache and clears it if it is too large after
+     * every {@value #MEASURE_INTERVAL}th parse. The cache is measured outside of the
+     * locks.
+     *
+     * @param parser the parser, which shares the cache
+     */
+    public void afterParse(JavaLanguageParser parser) {
+        if (parseCount.getAndIncrement() % MEASURE_INTERVAL == 0) {
+            clearIfNeeded(parser.getInterpreter());
+        }
+    }
+
+    /**
+     * Measures the cache and clears it if it is too large.
+     *
+     * @param interpreter the interpreter of a parser, which shares the cache
+     */
+    private void clearIfNeeded(ParserATNSimulator interpreter) {
+        final long clears = clearCount.get();
+        final int states = countStates(interpreter.decisionToDFA);
+        stateCount.set(states);
+        if (isClearNeeded(states)) {
+            lock.writeLock().lock();
+            try {
+                // other thread may have cleared the cache while this one waited for the lock
+                if (clearCount.get() == clears) {
+                    interpreter.clearDFA();
+                    stateCount.set(0);
+                    clearCount.incrementAndGet();
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the cache with the given number of states should be cleared.
+     *
+     * @param states the number of states in the cache
+     * @return true if the cache should be cleared
+     */
+    private boolean isClearNeeded(int states) {
+        final int limit = stateLimit.get();
+        return limit > 0 && states > limit
+                || states > MIN_STATES_ON_HEAP_PRESSURE && isHeapNearlyFull();
+    }
+
+    /**
+     * Checks whether the heap is nearly full after the last garbage collection.
+     *
+     * @return true if the heap is nearly full
+     */
+    private boolean isHeapNearlyFull() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            final MemoryUsage usage = pool.getCollectionUsage();
+            used += usage.getUsed();
+        }
+        return used > Runtime.getRuntime().maxMemory() * HEAP_PRESSURE;
+    }
+
+    /**
+     * Counts states in the cache.
+     *
+     * @param decisionToDfa the cache, a DFA for each decision of the parser
+     * @return the number of states
+     */
+    private static int countStates(DFA... decisionToDfa) {
+        int result = 0;
+        for (DFA dfa : decisionToDfa) {
+            // states are added under the lock of the map
+            synchronized (dfa.states) {
+                result += dfa.states.size();
+            }
+        }
+        return result;
+    }
+
+}
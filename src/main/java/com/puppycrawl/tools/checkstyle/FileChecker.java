@@ -0,0 +1,237 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Checks a file for {@link Checker}: processes it with fileset checks and applies
+ * filters to its violations. Checks and filters are timed if profiling is enabled,
+ * violations of unchanged files are taken from the cache if files are identified
+ * in the cache by a hash of their content.
+ *
+ * <p>In multi thread mode it is called from the thread which processes the file,
+ * as some filters rely on the state which checks left on that thread.</p>
+ */
+final class FileChecker implements ParallelFileProcessor.FileProcessor {
+
+    /** Logger for FileChecker. */
+    private static final Log LOG = LogFactory.getLog(FileChecker.class);
+
+    /** The checker which is the source of audit events. */
+    private final Checker checker;
+
+    /** The audit event filters. */
+    private final FilterSet filters;
+
+    /** The basedir to strip off in file names. */
+    private final String basedir;
+
+    /** Name of a charset. */
+    private final String charset;
+
+    /** Controls whether exceptions should halt execution or not. */
+    private final boolean haltOnException;
+
+    /** Records time of modules, {@code null} if profiling is disabled. */
+    private final ModuleProfiler profiler;
+
+    /** Records results of checking files, {@code null} if there is no cache file. */
+    private final ViolationCache cache;
+
+    /**
+     * Creates a new {@code FileChecker} instance.
+     *
+     * @param checker the checker which is the source of audit events.
+     * @param filters the audit event filters.
+     * @param basedir the basedir to strip off in file names.
+     * @param charset name of a charset.
+     * @param haltOnException whether exceptions should halt execution.
+     * @param profiler records time of modules, {@code null} if profiling is disabled.
+     * @param cache records results of checking files, {@code null} if there is no cache file.
+     */
+    /* package */ FileChecker(Checker checker, FilterSet filters, String basedir,
+            String charset, boolean haltOnException, ModuleProfiler profiler,
+            ViolationCache cache) {
+        this.checker = checker;
+        this.filters = filters;
+        this.basedir = basedir;
+        this.charset = charset;
+        this.haltOnException = haltOnException;
+        this.profiler = profiler;
+        this.cache = cache;
+    }
+
+    /**
+     * Checks whether all filters accept the audit event.
+     * Each filter is timed separately if profiling is enabled.
+     *
+     * @param filters the audit event filters.
+     * @param profiler records time of modules, {@code null} if profiling is disabled.
+     * @param event the audit event.
+     * @return {@code true} if the event is accepted by all filters.
+     */
+    public static boolean accept(FilterSet filters, ModuleProfiler profiler, AuditEvent event) {
+        boolean accepted = true;
+        if (profiler == null) {
+            accepted = filters.accept(event);
+        }
+        else {
+            for (final Filter filter : filters.getFilters()) {
+                final long startTime = System.nanoTime();
+                accepted = filter.accept(event);
+                profiler.addTime(filter, startTime);
+                if (!accepted) {
+                    break;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Gets the filtered violations of a file. If files are identified in the cache
+     * by their content and the file is not changed, violations are taken from the
+     * cache, otherwise the file is processed and its violations are recorded in the cache.
+     *
+     * @param file a file to check.
+     * @param checks fileset checks to process the file with.
+     * @return audit events accepted by all filters.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    @Override
+    public List<AuditEvent> process(File file, List<FileSetCheck> checks)
+            throws CheckstyleException {
+        final String fileName = file.getAbsolutePath();
+        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        final List<AuditEvent> acceptedErrors = new ArrayList<>();
+        if (cache == null) {
+            addAcceptedErrors(acceptedErrors, stripped, processFile(file, checks));
+        }
+        else {
+            final String contentHash = cache.getContentHash(file);
+            final List<Violation> cachedViolations = cache.getViolations(fileName, contentHash);
+            if (cachedViolations == null) {
+                addAcceptedErrors(acceptedErrors, stripped, processFile(file, checks));
+                cache.put(fileName, contentHash, acceptedErrors.stream()
+                        .map(AuditEvent::getViolation)
+                        .collect(Collectors.toList()));
+            }
+            else {
+                for (final Violation violation : cachedViolations) {
+                    acceptedErrors.add(new AuditEvent(checker, stripped, violation));
+                }
+            }
+        }
+        return acceptedErrors;
+    }
+
+    /**
+     * Creates audit events for violations and adds the ones accepted by all filters.
+     *
+     * @param acceptedErrors the list to add accepted audit events to.
+     * @param stripped the file name with the basedir stripped off.
+     * @param violations the violations of the file.
+     */
+    private void addAcceptedErrors(List<AuditEvent> acceptedErrors, String stripped,
+            SortedSet<Violation> violations) {
+        for (final Violation violation : violations) {
+            final AuditEvent event = new AuditEvent(checker, stripped, violation);
+            if (accept(filters, profiler, event)) {
+                acceptedErrors.add(event);
+            }
+        }
+    }
+
+    /**
+     * Processes a file with fileset checks.
+     *
+     * @param file a file to process.
+     * @param checks fileset checks to process the file with.
+     * @return a sorted set of violations to be logged.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @noinspection ProhibitedExceptionThrown
+     * @noinspectionreason ProhibitedExceptionThrown - there is no other way to obey
+     *      haltOnException field
+     */
+    private SortedSet<Violation> processFile(File file, List<FileSetCheck> checks)
+            throws CheckstyleException {
+        final SortedSet<Violation> fileMessages = new TreeSet<>();
+        try {
+            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
+            for (final FileSetCheck fsc : checks) {
+                if (profiler == null) {
+                    fileMessages.addAll(fsc.process(file, theText));
+                }
+                else {
+                    final long startTime = System.nanoTime();
+                    fileMessages.addAll(fsc.process(file, theText));
+                    profiler.addTime(fsc, startTime);
+                }
+            }
+        }
+        catch (final IOException ioe) {
+            LOG.debug("IOException occurred.", ioe);
+            fileMessages.add(new Violation(1,
+                    Definitions.CHECKSTYLE_BUNDLE, Checker.EXCEPTION_MSG,
+                    new String[] {ioe.getMessage()}, null, Checker.class, null));
+        }
+        // -@cs[IllegalCatch] There is no other way to obey haltOnException field
+        catch (Exception ex) {
+            if (haltOnException) {
+                throw ex;
+            }
+
+            LOG.debug("Exception occurred.", ex);
+
+            final StringWriter sw = new StringWriter();
+            final PrintWriter pw = new PrintWriter(sw, true);
+
+            ex.printStackTrace(pw);
+
+            fileMessages.add(new Violation(1,
+                    Definitions.CHECKSTYLE_BUNDLE, Checker.EXCEPTION_MSG,
+                    new String[] {sw.getBuffer().toString()},
+                    null, Checker.class, null));
+        }
+        return fileMessages;
+    }
+
+}
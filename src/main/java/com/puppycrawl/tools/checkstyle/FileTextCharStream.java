@@ -0,0 +1,143 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Character stream which reads the decoded text of a file directly, without copying
+ * it to a buffer of code points like the streams created by {@link CharStreams}.
+ * Each character of the text is a code point only if the text has no surrogate
+ * characters, so texts with supplementary characters are copied as before.
+ */
+final class FileTextCharStream implements CharStream {
+
+    /** The text of the file. */
+    private final CharSequence text;
+
+    /** Index of the next character to read. */
+    private int position;
+
+    /**
+     * Creates a stream of the given text.
+     *
+     * @param text the text of the file
+     */
+    private FileTextCharStream(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Creates a stream of the text of the file.
+     *
+     * @param fileText the text of the file
+     * @return the stream of code points of the text
+     */
+    static CharStream of(FileText fileText) {
+        final CharSequence text = fileText.getFullText();
+        final CharStream result;
+        if (fileText.hasSurrogates()) {
+            result = CharStreams.fromString(text.toString());
+        }
+        else {
+            result = new FileTextCharStream(text);
+        }
+        return result;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        final int start = Math.min(interval.a, text.length());
+        final int stop = Math.min(interval.b + 1, text.length());
+        return text.subSequence(start, Math.max(start, stop)).toString();
+    }
+
+    @Override
+    public void consume() {
+        if (position >= text.length()) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        position++;
+    }
+
+    @Override
+    public int LA(int offset) {
+        final int index;
+        if (offset > 0) {
+            index = position + offset - 1;
+        }
+        else {
+            index = position + offset;
+        }
+
+        final int result;
+        if (offset == 0) {
+            result = 0;
+        }
+        else if (index < 0 || index >= text.length()) {
+            result = IntStream.EOF;
+        }
+        else {
+            result = text.charAt(index);
+        }
+        return result;
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // the whole text is always available, so there is nothing to release
+    }
+
+    @Override
+    public int index() {
+        return position;
+    }
+
+    @Override
+    public void seek(int index) {
+        position = Math.min(index, text.length());
+    }
+
+    @Override
+    public int size() {
+        return text.length();
+    }
+
+    @Override
+    public String getSourceName() {
+        return IntStream.UNKNOWN_SOURCE_NAME;
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+}
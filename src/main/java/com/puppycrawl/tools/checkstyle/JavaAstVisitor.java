@@ -21,8 +21,10 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -106,6 +108,12 @@ public final class JavaAstVisitor extends JavaLanguageParserBaseVisitor<DetailAs
     /** Token stream to check for hidden tokens. */
     private final BufferedTokenStream tokens;
 
+    /**
+     * Texts of tokens of the file, so nodes with equal text share one string,
+     * as identifiers, keywords and separators repeat throughout a file.
+     */
+    private final Map<String, String> texts = new HashMap<>();
+
     /**
      * Constructs a JavaAstVisitor with given token stream.
      *
@@ -2088,6 +2096,7 @@ public final class JavaAstVisitor extends JavaLanguageParserBaseVisitor<DetailAs
 
         final DetailAstImpl detailAst = new DetailAstImpl();
         detailAst.initialize(token);
+        detailAst.setText(texts.computeIfAbsent(detailAst.getText(), text -> text));
         if (tokensToLeft != null) {
             detailAst.setHiddenBefore(tokensToLeft);
         }
@@ -25,15 +25,18 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonToken;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -68,12 +71,64 @@ public final class JavaParser {
 
     }
 
+    /** Number of files to always try SLL prediction mode on, before its hit rate is known. */
+    private static final int SLL_WARM_UP_FILES = 100;
+
+    /** SLL prediction mode is tried at least on each file with this number of files. */
+    private static final int SLL_SAMPLE_INTERVAL = 16;
+
+    /** Manager of the DFA cache shared by all parsers. */
+    private static final DfaCacheManager DFA_CACHE_MANAGER = new DfaCacheManager();
+
+    /** Number of parsed files. */
+    private static final LongAdder PARSES = new LongAdder();
+
+    /** Number of files parsed in SLL prediction mode. */
+    private static final LongAdder SLL_HITS = new LongAdder();
+
+    /** Number of files SLL prediction mode failed on, so they were parsed in LL mode. */
+    private static final LongAdder SLL_MISSES = new LongAdder();
+
     /** Stop instances being created. **/
     private JavaParser() {
     }
 
     /**
-     * Static helper method to parses a Java source file.
+     * Gets the manager of the DFA cache, which is shared by all parsers in the JVM.
+     *
+     * @return the manager of the DFA cache
+     */
+    public static DfaCacheManager getDfaCacheManager() {
+        return DFA_CACHE_MANAGER;
+    }
+
+    /**
+     * Gets the number of files parsed successfully in the fast SLL prediction mode
+     * since the start of the JVM.
+     *
+     * @return the number of files parsed in SLL mode
+     */
+    public static long getSllHitCount() {
+        return SLL_HITS.sum();
+    }
+
+    /**
+     * Gets the number of files SLL prediction mode was tried on and failed, so they
+     * were parsed again in the full LL mode, since the start of the JVM. Files with
+     * syntax errors are counted here too.
+     *
+     * @return the number of files SLL mode failed on
+     */
+    public static long getSllMissCount() {
+        return SLL_MISSES.sum();
+    }
+
+    /**
+     * Static helper method to parses a Java source file. The file is parsed in
+     * the fast SLL prediction mode first, and only if it fails, the file is parsed
+     * again in the full LL mode, which reports syntax errors. SLL mode fails on some
+     * valid sources too, so it is tried first only while it succeeds on at least half
+     * of the files, or on a sample of files to keep its hit rate up to date.
      *
      * @param contents contains the contents of the file
      * @return the root of the AST
@@ -81,31 +136,89 @@ public final class JavaParser {
      */
     public static DetailAST parse(FileContents contents)
             throws CheckstyleException {
-        final String fullText = contents.getText().getFullText().toString();
-        final CharStream codePointCharStream = CharStreams.fromString(fullText);
+        final CharStream codePointCharStream = FileTextCharStream.of(contents.getText());
         final JavaLanguageLexer lexer = new JavaLanguageLexer(codePointCharStream, true);
         lexer.setCommentListener(contents);
         lexer.removeErrorListeners();
 
         final CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-        final JavaLanguageParser parser =
-                new JavaLanguageParser(tokenStream, JavaLanguageParser.CLEAR_DFA_LIMIT);
+        PARSES.increment();
+        JavaLanguageParser.CompilationUnitContext compilationUnit = null;
+        if (isSllModeWorthTrying(SLL_HITS.sum(), SLL_MISSES.sum(), PARSES.sum())) {
+            try {
+                compilationUnit = parseInSllMode(tokenStream);
+                SLL_HITS.increment();
+            }
+            catch (ParseCancellationException ignored) {
+                // tokens are buffered by the stream, so the file is not lexed again
+                tokenStream.seek(0);
+                SLL_MISSES.increment();
+            }
+        }
+        if (compilationUnit == null) {
+            compilationUnit = parseInLlMode(tokenStream, contents.getFileName());
+        }
+
+        return new JavaAstVisitor(tokenStream).visit(compilationUnit);
+    }
+
+    /**
+     * Checks whether to try SLL prediction mode first. A failed SLL parse makes
+     * parsing of the file slower, so it is tried during warm up, while at least half
+     * of the tries succeed, and on a sample of other files.
+     *
+     * @param hits the number of files parsed in SLL mode
+     * @param misses the number of files SLL mode failed on
+     * @param parses the number of parsed files including the current one
+     * @return true if SLL mode should be tried
+     */
+    private static boolean isSllModeWorthTrying(long hits, long misses, long parses) {
+        return hits + misses < SLL_WARM_UP_FILES
+                || hits >= misses
+                || parses % SLL_SAMPLE_INTERVAL == 0;
+    }
+
+    /**
+     * Parses tokens in SLL prediction mode, which bails out on the first error
+     * without reporting it.
+     *
+     * @param tokenStream the tokens to parse
+     * @return the parse tree
+     * @throws ParseCancellationException if SLL mode fails
+     */
+    private static JavaLanguageParser.CompilationUnitContext parseInSllMode(
+            CommonTokenStream tokenStream) {
+        final JavaLanguageParser parser = new JavaLanguageParser(tokenStream);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.removeErrorListeners();
+        return DFA_CACHE_MANAGER.parse(parser, JavaLanguageParser::compilationUnit);
+    }
+
+    /**
+     * Parses tokens in full LL prediction mode, which reports syntax errors.
+     *
+     * @param tokenStream the tokens to parse
+     * @param fileName the name of the file to report errors for
+     * @return the parse tree
+     * @throws CheckstyleException if the tokens are not a valid Java source
+     */
+    private static JavaLanguageParser.CompilationUnitContext parseInLlMode(
+            CommonTokenStream tokenStream, String fileName) throws CheckstyleException {
+        final JavaLanguageParser parser = new JavaLanguageParser(tokenStream);
         parser.setErrorHandler(new CheckstyleParserErrorStrategy());
         parser.removeErrorListeners();
         parser.addErrorListener(new CheckstyleErrorListener());
 
-        final JavaLanguageParser.CompilationUnitContext compilationUnit;
         try {
-            compilationUnit = parser.compilationUnit();
+            return DFA_CACHE_MANAGER.parse(parser, JavaLanguageParser::compilationUnit);
         }
         catch (IllegalStateException ex) {
             final String exceptionMsg = String.format(Locale.ROOT,
                 "%s occurred while parsing file %s.",
-                ex.getClass().getSimpleName(), contents.getFileName());
+                ex.getClass().getSimpleName(), fileName);
             throw new CheckstyleException(exceptionMsg, ex);
         }
-
-        return new JavaAstVisitor(tokenStream).visit(compilationUnit);
     }
 
     /**
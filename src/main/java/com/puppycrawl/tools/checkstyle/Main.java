@@ -23,8 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -51,6 +54,7 @@ import com.puppycrawl.tools.checkstyle.api.RootModule;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.utils.ChainedPropertyUtil;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.ShardUtil;
 import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -192,7 +196,12 @@ public final class Main {
             messages.forEach(System.out::println);
             exitStatus = EXIT_WITH_INVALID_USER_INPUT_CODE;
         }
+        else if (options.mergeReports) {
+            exitStatus = ReportMerger.merge(filesToProcess, getOutputStream(options.outputPath),
+                    getOutputStreamOptions(options.outputPath));
+        }
         else {
+            JavaParser.getDfaCacheManager().setStateLimit(options.dfaStateLimit);
             exitStatus = runCli(options, filesToProcess);
         }
         return exitStatus;
@@ -336,7 +345,7 @@ public final class Main {
             }
 
             // run Checker
-            result = runCheckstyle(options, filesToProcess);
+            result = runCheckstyle(options, getShard(options, filesToProcess));
         }
 
         return result;
@@ -367,8 +376,8 @@ public final class Main {
 
         // create a configuration
         final ThreadModeSettings multiThreadModeSettings =
-                new ThreadModeSettings(CliOptions.CHECKER_THREADS_NUMBER,
-                        CliOptions.TREE_WALKER_THREADS_NUMBER);
+                new ThreadModeSettings(options.checkerThreadsNumber,
+                        options.treeWalkerThreadsNumber);
 
         final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
         if (options.executeIgnoredModules) {
@@ -388,32 +397,25 @@ public final class Main {
         final RootModule rootModule = getRootModule(config.getName(), moduleClassLoader);
 
         try {
-            final AuditListener listener;
-            if (options.generateXpathSuppressionsFile) {
-                // create filter to print generated xpath suppressions file
-                final Configuration treeWalkerConfig = getTreeWalkerConfig(config);
-                if (treeWalkerConfig != null) {
-                    final DefaultConfiguration moduleConfig =
-                            new DefaultConfiguration(
-                                    XpathFileGeneratorAstFilter.class.getName());
-                    moduleConfig.addProperty(CliOptions.ATTRIB_TAB_WIDTH_NAME,
-                            String.valueOf(options.tabWidth));
-                    ((DefaultConfiguration) treeWalkerConfig).addChild(moduleConfig);
-                }
-
-                listener = new XpathFileGeneratorAuditListener(getOutputStream(options.outputPath),
-                        getOutputStreamOptions(options.outputPath));
-            }
-            else {
-                listener = createListener(options.format, options.outputPath);
-            }
+            final AuditListener listener = createListener(options, config);
+            final ModuleProfiler profiler = createProfiler(options, rootModule);
 
             rootModule.setModuleClassLoader(moduleClassLoader);
             rootModule.configure(config);
-            rootModule.addListener(listener);
+            if (profiler != null) {
+                rootModule.addListener(profiler);
+            }
+            addChangedLinesFilter(options, rootModule, filesToProcess);
+
+            if (options.daemonPort == null) {
+                rootModule.addListener(listener);
 
-            // run RootModule
-            errorCounter = rootModule.process(filesToProcess);
+                // run RootModule
+                errorCounter = rootModule.process(filesToProcess);
+            }
+            else {
+                errorCounter = runDaemon(options, rootModule, listener, filesToProcess);
+            }
         }
         finally {
             rootModule.destroy();
@@ -422,6 +424,110 @@ public final class Main {
         return errorCounter;
     }
 
+    /**
+     * Gets the files of the shard to check, if sharding is requested.
+     *
+     * @param options user-specified options
+     * @param filesToProcess all files to check
+     * @return files of the shard, or all files if sharding is not requested
+     */
+    private static List<File> getShard(CliOptions options, List<File> filesToProcess) {
+        final List<File> result;
+        if (options.shardCount == null) {
+            result = filesToProcess;
+        }
+        else {
+            result = ShardUtil.getShard(filesToProcess, options.shardIndex, options.shardCount);
+        }
+        return result;
+    }
+
+    /**
+     * Checks the specified files, which also warms up the JVM, and then serves
+     * clients of the daemon on the local port until the process is stopped.
+     * Clients authenticate with a token which is written to a file in the home
+     * directory of the user, the file is deleted when the process is stopped.
+     *
+     * @param options user-specified options
+     * @param rootModule the configured root module
+     * @param listener the listener to report the specified files to
+     * @param filesToProcess the specified files to check on start
+     * @return number of violations of ERROR level in the specified files
+     * @throws IOException if the socket fails
+     * @throws CheckstyleException if an error occurs while checking the specified files
+     * @noinspection UseOfSystemOutOrSystemErr
+     * @noinspectionreason UseOfSystemOutOrSystemErr - driver class for Checkstyle requires
+     *      usage of System.out and System.err
+     */
+    private static int runDaemon(CliOptions options, RootModule rootModule,
+            AuditListener listener, List<File> filesToProcess)
+            throws IOException, CheckstyleException {
+        final List<Pattern> patternsToExclude = options.getExclusions();
+        final String token = CheckstyleDaemon.createToken();
+        final CheckstyleDaemon daemon = new CheckstyleDaemon(rootModule, options.format,
+                file -> listFiles(file.getAbsoluteFile(), patternsToExclude), token);
+        final int errorCounter = daemon.process(filesToProcess, listener);
+        try (ServerSocket serverSocket = new ServerSocket(options.daemonPort, 0,
+                InetAddress.getLoopbackAddress())) {
+            final Path tokenFile = Paths.get(System.getProperty("user.home"),
+                    ".checkstyle-daemon-" + serverSocket.getLocalPort() + ".token");
+            CheckstyleDaemon.writeToken(tokenFile, token);
+            tokenFile.toFile().deleteOnExit();
+            System.err.println("Checkstyle daemon is listening on port "
+                    + serverSocket.getLocalPort() + ", the token is in " + tokenFile + ".");
+            daemon.serve(serverSocket);
+        }
+        return errorCounter;
+    }
+
+    /**
+     * Limits the audit to files and lines changed by a diff, if a diff is specified.
+     * Unchanged files are removed from the files to process, violations on unchanged
+     * lines are filtered out when the root module is {@link Checker}.
+     *
+     * @param options user-specified options
+     * @param rootModule the configured root module
+     * @param filesToProcess the files to process, unchanged files are removed from it
+     * @throws CheckstyleException if the diff can not be read
+     */
+    private static void addChangedLinesFilter(CliOptions options, RootModule rootModule,
+            List<File> filesToProcess) throws CheckstyleException {
+        final ChangedLinesFilter filter;
+        if (options.diffFile != null) {
+            filter = ChangedLinesFilter.fromDiffFile(options.diffFile);
+        }
+        else if (options.diffBase != null) {
+            filter = ChangedLinesFilter.fromGitDiff(options.diffBase,
+                    new File("").getAbsoluteFile());
+        }
+        else {
+            filter = null;
+        }
+        if (filter != null) {
+            filesToProcess.removeIf(file -> !filter.isChanged(file));
+            if (rootModule instanceof Checker) {
+                ((Checker) rootModule).addFilter(filter);
+            }
+        }
+    }
+
+    /**
+     * Creates a profiler and sets it to the root module, if profiling is requested.
+     * Only {@link Checker} supports profiling.
+     *
+     * @param options user-specified options
+     * @param rootModule the root module to profile
+     * @return the profiler or {@code null} if profiling is not requested
+     */
+    private static ModuleProfiler createProfiler(CliOptions options, RootModule rootModule) {
+        ModuleProfiler profiler = null;
+        if (options.profile && rootModule instanceof Checker) {
+            profiler = new ModuleProfiler(System.err, AutomaticBean.OutputStreamOptions.NONE);
+            ((Checker) rootModule).setProfiler(profiler);
+        }
+        return profiler;
+    }
+
     /**
      * Loads properties from a File.
      *
@@ -485,6 +591,39 @@ public final class Main {
         return result;
     }
 
+    /**
+     * Creates the listener to report the audit to. To generate xpath suppressions file,
+     * also adds the filter which collects violations to the configuration.
+     *
+     * @param options user-specified options
+     * @param config the configuration of the root module
+     * @return a fresh new {@code AuditListener}
+     * @throws IOException when provided output location is not found
+     */
+    private static AuditListener createListener(CliOptions options, Configuration config)
+            throws IOException {
+        final AuditListener listener;
+        if (options.generateXpathSuppressionsFile) {
+            // create filter to print generated xpath suppressions file
+            final Configuration treeWalkerConfig = getTreeWalkerConfig(config);
+            if (treeWalkerConfig != null) {
+                final DefaultConfiguration moduleConfig =
+                        new DefaultConfiguration(
+                                XpathFileGeneratorAstFilter.class.getName());
+                moduleConfig.addProperty(CliOptions.ATTRIB_TAB_WIDTH_NAME,
+                        String.valueOf(options.tabWidth));
+                ((DefaultConfiguration) treeWalkerConfig).addChild(moduleConfig);
+            }
+
+            listener = new XpathFileGeneratorAuditListener(getOutputStream(options.outputPath),
+                    getOutputStreamOptions(options.outputPath));
+        }
+        else {
+            listener = createListener(options.format, options.outputPath);
+        }
+        return listener;
+    }
+
     /**
      * This method creates in AuditListener an open stream for validation data, it must be
      * closed by {@link RootModule} (default implementation is {@link Checker}) by calling
@@ -635,6 +774,9 @@ public final class Main {
         /** The default number of threads to use for checker and the tree walker. */
         private static final int DEFAULT_THREAD_COUNT = 1;
 
+        /** The largest number of a port. */
+        private static final int MAX_PORT = 65_535;
+
         /** Name for the moduleConfig attribute 'tabWidth'. */
         private static final String ATTRIB_TAB_WIDTH_NAME = "tabWidth";
 
@@ -644,19 +786,6 @@ public final class Main {
         /** Option name for output format. */
         private static final String OUTPUT_FORMAT_OPTION = "-f";
 
-        /**
-         * The checker threads number.
-         * This option has been skipped for CLI options intentionally.
-         *
-         */
-        private static final int CHECKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
-        /**
-         * The tree walker threads number.
-         *
-         */
-        private static final int TREE_WALKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
         /** List of file to validate. */
         @Parameters(arity = "1..*", description = "One or more source files to verify")
         private List<File> files;
@@ -790,6 +919,88 @@ public final class Main {
                 description = "Allows ignored modules to be run.")
         private boolean executeIgnoredModules;
 
+        /**
+         * The checker threads number.
+         *
+         * @noinspection CanBeFinal
+         * @noinspectionreason CanBeFinal - we use picocli, and it uses
+         *      reflection to manage such fields
+         */
+        @Option(names = {"-C", "--checker-threads-number"},
+                description = "Sets the number of threads to process files with. "
+                        + "Default value is ${DEFAULT-VALUE}.")
+        private int checkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /**
+         * The tree walker threads number.
+         *
+         * @noinspection CanBeFinal
+         * @noinspectionreason CanBeFinal - we use picocli, and it uses
+         *      reflection to manage such fields
+         */
+        @Option(names = {"-W", "--tree-walker-threads-number"},
+                description = "Sets the number of threads to walk the AST of a file with. "
+                        + "Default value is ${DEFAULT-VALUE}.")
+        private int treeWalkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /** Option that controls whether to print time spent in modules. */
+        @Option(names = {"-P", "--profile"},
+                description = "Prints to standard error a table of modules ranked by the time "
+                        + "spent in them, with the number of calls.")
+        private boolean profile;
+
+        /** Option that controls whether to serve clients on the local port after the audit. */
+        @Option(names = {"-l", "--daemon"}, paramLabel = "<port>",
+                description = "After checking the specified files, keeps Checkstyle running and "
+                        + "checks files which clients send to the given local port, one path "
+                        + "per line ended by an empty line. The report is sent back to the "
+                        + "client. Port 0 means any free port.")
+        private Integer daemonPort;
+
+        /** Zero-based index of the shard of files to check. */
+        @Option(names = {"-i", "--shard-index"}, paramLabel = "<index>",
+                description = "Checks only the shard with the given zero-based index of the "
+                        + "files split into the number of shards given by -n option. Files "
+                        + "are split deterministically and balanced by size, so that shards "
+                        + "can be checked on different machines.")
+        private Integer shardIndex;
+
+        /** Number of shards to split files to check into. */
+        @Option(names = {"-n", "--shard-count"}, paramLabel = "<count>",
+                description = "Sets the number of shards to split files to check into. "
+                        + "Used only with -i option.")
+        private Integer shardCount;
+
+        /** Option that controls whether to merge reports instead of checking files. */
+        @Option(names = {"-m", "--merge-reports"},
+                description = "Merges the specified reports of xml or sarif format, for example "
+                        + "of shards, into one report of the same format, instead of checking "
+                        + "files. The number of errors in the reports is reported as errors "
+                        + "of Checkstyle. Output location can be specified with -o option.")
+        private boolean mergeReports;
+
+        /** Unified diff file which limits the audit to changed files and lines. */
+        @Option(names = {"-u", "--diff"}, paramLabel = "<diffFile>",
+                description = "Checks only files changed by the given unified diff file and "
+                        + "reports only violations on added or changed lines. Paths in the "
+                        + "diff are resolved against the current directory.")
+        private File diffFile;
+
+        /** Git revision which limits the audit to files and lines changed since it. */
+        @Option(names = {"-r", "--diff-base"}, paramLabel = "<revision>",
+                description = "Checks only files changed in the git working tree of the "
+                        + "current directory since the given revision and reports only "
+                        + "violations on added or changed lines.")
+        private String diffBase;
+
+        /** Number of DFA states of the Java parser to clear its cache after. */
+        @Option(names = {"-S", "--dfa-state-limit"}, paramLabel = "<limit>",
+                description = "Sets the number of states of the DFA cache of the Java parser "
+                        + "to clear the cache after. The cache speeds up parsing and is shared "
+                        + "by all files, zero means that it is cleared only when the heap is "
+                        + "nearly full. Default value is ${DEFAULT-VALUE}.")
+        private int dfaStateLimit = DfaCacheManager.DEFAULT_STATE_LIMIT;
+
         /** Show AST branches that match xpath. */
         @Option(names = {"-b", "--branch-matching-xpath"},
             description = "Shows Abstract Syntax Tree(AST) branches that match given XPath query.")
@@ -848,6 +1059,12 @@ public final class Main {
                     result.add("Printing xpath suppressions is allowed for only one file.");
                 }
             }
+            else if (mergeReports) {
+                if (configurationFile != null || propertiesFile != null
+                        || parseResult.hasMatchedOption(OUTPUT_FORMAT_OPTION)) {
+                    result.add("Option '-m' cannot be used with options '-c', '-p' and '-f'.");
+                }
+            }
             else if (hasConfigurationFile) {
                 try {
                     // test location only
@@ -877,6 +1094,70 @@ public final class Main {
                 result.add(String.format(Locale.ROOT,
                         "Could not find file '%s'.", propertiesFile));
             }
+            if (checkerThreadsNumber < 1) {
+                result.add("Checker threads number must be greater than zero.");
+            }
+            if (treeWalkerThreadsNumber < 1) {
+                result.add("TreeWalker threads number must be greater than zero.");
+            }
+            if (dfaStateLimit < 0) {
+                result.add("DFA state limit must not be negative.");
+            }
+            if (daemonPort != null) {
+                if (daemonPort < 0 || daemonPort > MAX_PORT) {
+                    result.add(String.format(Locale.ROOT,
+                            "Daemon port must be between 0 and %d.", MAX_PORT));
+                }
+                if (generateXpathSuppressionsFile) {
+                    result.add("Option '-l' cannot be used with option '-g'.");
+                }
+            }
+            result.addAll(validateDiffOptions());
+            result.addAll(validateShardOptions());
+            return result;
+        }
+
+        /**
+         * Validates options which split files to check into shards.
+         *
+         * @return list of violations
+         */
+        private List<String> validateShardOptions() {
+            final List<String> result = new ArrayList<>();
+            if (shardIndex == null ^ shardCount == null) {
+                result.add("Options '-i' and '-n' must be used together.");
+            }
+            else if (shardCount != null) {
+                if (shardCount < 1) {
+                    result.add("Shard count must be greater than zero.");
+                }
+                else if (shardIndex < 0 || shardIndex >= shardCount) {
+                    result.add(String.format(Locale.ROOT,
+                            "Shard index must be between 0 and %d.", shardCount - 1));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Validates options which limit the audit to changes.
+         *
+         * @return list of violations
+         */
+        private List<String> validateDiffOptions() {
+            final List<String> result = new ArrayList<>();
+            if (diffFile != null) {
+                if (!diffFile.exists()) {
+                    result.add(String.format(Locale.ROOT,
+                            "Could not find diff file '%s'.", diffFile));
+                }
+                if (diffBase != null) {
+                    result.add("Option '-u' cannot be used with option '-r'.");
+                }
+            }
+            if ((diffFile != null || diffBase != null) && daemonPort != null) {
+                result.add("Options '-u' and '-r' cannot be used with option '-l'.");
+            }
             return result;
         }
     }
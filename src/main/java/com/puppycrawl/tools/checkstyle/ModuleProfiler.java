@@ -0,0 +1,254 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractViolationReporter;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+
+/**
+ * Collects cumulative wall time and number of calls of modules and prints
+ * them as a table ranked by time when the audit is finished.
+ *
+ * <p>{@link Checker} and {@link TreeWalker} record calls of fileset checks, checks,
+ * filters and the parser when a profiler is set, otherwise they do not measure
+ * anything. Modules are identified by their name and id, so all instances of
+ * a module in multi thread mode are reported together. Time of a module includes
+ * time of its children, for example time of {@code TreeWalker} includes time of
+ * parsing and of all its checks. The share is calculated from the wall time of
+ * the whole audit, in multi thread mode shares may add up to more than 100%.</p>
+ *
+ * <p>If Java files were parsed, the report ends with the share of files parsed in
+ * the fast SLL mode of the files it was tried on, see {@link JavaParser#parse}, and
+ * with the size of the DFA cache of the parser and the number of its clears, see
+ * {@link DfaCacheManager}. They are counted for all audits running in the JVM during
+ * the audit.</p>
+ */
+public class ModuleProfiler extends AutomaticBean implements AuditListener {
+
+    /** Name to report time of parsing of Java files with. */
+    public static final String PARSE = "JavaParser.parse";
+
+    /** Name to report time of adding comment nodes to the AST with. */
+    public static final String APPEND_COMMENT_NODES = "JavaParser.appendHiddenCommentNodes";
+
+    /** Percentage multiplier. */
+    private static final double PERCENT = 100.0;
+
+    /** Timings of modules, may be recorded concurrently. */
+    private final Map<Object, Timing> timings = new ConcurrentHashMap<>();
+
+    /**
+     * Helper writer that allows easy encoding and printing.
+     */
+    private final PrintWriter writer;
+
+    /** Close output stream in auditFinished. */
+    private final boolean closeStream;
+
+    /** Time when the audit was started, in nanoseconds. */
+    private long auditStartTime;
+
+    /** Number of files parsed in SLL mode when the audit was started. */
+    private long sllHitsAtStart;
+
+    /** Number of files SLL mode failed on when the audit was started. */
+    private long sllMissesAtStart;
+
+    /** Number of clears of the DFA cache when the audit was started. */
+    private long dfaClearsAtStart;
+
+    /**
+     * Creates a new {@code ModuleProfiler} instance.
+     *
+     * @param out the output stream to print the report to
+     * @param outputStreamOptions if {@code CLOSE} stream should be closed in auditFinished()
+     */
+    public ModuleProfiler(OutputStream out, OutputStreamOptions outputStreamOptions) {
+        writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        closeStream = outputStreamOptions == OutputStreamOptions.CLOSE;
+    }
+
+    /**
+     * Adds time of a call of a module.
+     *
+     * @param module the module which was called, or a name of an operation like {@link #PARSE}
+     * @param startTime the value of {@link System#nanoTime()} before the call
+     */
+    public void addTime(Object module, long startTime) {
+        final long duration = System.nanoTime() - startTime;
+        final Timing timing = timings.computeIfAbsent(module, key -> new Timing());
+        timing.calls.increment();
+        timing.nanos.add(duration);
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        timings.clear();
+        auditStartTime = System.nanoTime();
+        sllHitsAtStart = JavaParser.getSllHitCount();
+        sllMissesAtStart = JavaParser.getSllMissCount();
+        dfaClearsAtStart = JavaParser.getDfaCacheManager().getClearCount();
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        final long auditTime = System.nanoTime() - auditStartTime;
+        final Map<String, Timing> modules = new TreeMap<>();
+        timings.forEach((module, timing) -> {
+            final Timing total = modules.computeIfAbsent(getModuleName(module),
+                    name -> new Timing());
+            total.calls.add(timing.calls.sum());
+            total.nanos.add(timing.nanos.sum());
+        });
+        final List<Map.Entry<String, Timing>> ranking = new ArrayList<>(modules.entrySet());
+        ranking.sort(Comparator.comparingLong(
+                (Map.Entry<String, Timing> entry) -> entry.getValue().nanos.sum()).reversed());
+
+        writer.printf(Locale.ROOT, "Audit time: %.3f ms%n", toMillis(auditTime));
+        writer.printf(Locale.ROOT, "%12s %7s %12s  %s%n", "Time, ms", "Share", "Calls", "Module");
+        for (Map.Entry<String, Timing> entry : ranking) {
+            final long nanos = entry.getValue().nanos.sum();
+            writer.printf(Locale.ROOT, "%12.3f %6.1f%% %12d  %s%n", toMillis(nanos),
+                    nanos * PERCENT / Math.max(auditTime, 1), entry.getValue().calls.sum(),
+                    entry.getKey());
+        }
+        if (modules.containsKey(PARSE)) {
+            printParseStatistics();
+        }
+
+        writer.flush();
+        if (closeStream) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Prints the share of Java files parsed in SLL mode of the files it was tried on
+     * during the audit, if any, and the state of the DFA cache of the parser.
+     */
+    private void printParseStatistics() {
+        final long hits = JavaParser.getSllHitCount() - sllHitsAtStart;
+        final long tries = hits + JavaParser.getSllMissCount() - sllMissesAtStart;
+        if (tries > 0) {
+            writer.printf(Locale.ROOT, "SLL parse hit rate: %.1f%% (%d of %d files)%n",
+                    hits * PERCENT / tries, hits, tries);
+        }
+        final DfaCacheManager dfaCacheManager = JavaParser.getDfaCacheManager();
+        writer.printf(Locale.ROOT, "Parser DFA cache: %d states, cleared %d times%n",
+                dfaCacheManager.getStateCount(),
+                dfaCacheManager.getClearCount() - dfaClearsAtStart);
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        // No code by default
+    }
+
+    @Override
+    protected void finishLocalSetup() {
+        // No code by default
+    }
+
+    /**
+     * Gets the name to report a module with. Modules are named the same way
+     * as in configuration, without the package of standard modules and the
+     * {@code Check} suffix, with the id appended if it is set.
+     *
+     * @param module the module or a name of an operation
+     * @return the name of the module
+     */
+    private static String getModuleName(Object module) {
+        final String name;
+        if (module instanceof String) {
+            name = (String) module;
+        }
+        else {
+            String moduleName = PackageObjectFactory.getShortFromFullModuleNames(
+                    module.getClass().getName());
+            if (moduleName.endsWith(PackageObjectFactory.CHECK_SUFFIX)) {
+                moduleName = moduleName.substring(0,
+                        moduleName.length() - PackageObjectFactory.CHECK_SUFFIX.length());
+            }
+            if (module instanceof AbstractViolationReporter
+                    && ((AbstractViolationReporter) module).getId() != null) {
+                name = moduleName + "[" + ((AbstractViolationReporter) module).getId() + "]";
+            }
+            else {
+                name = moduleName;
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds keeping the fraction.
+     *
+     * @param nanos time in nanoseconds
+     * @return time in milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Cumulative time and number of calls of a module.
+     */
+    private static final class Timing {
+
+        /** Number of calls. */
+        private final LongAdder calls = new LongAdder();
+
+        /** Cumulative time of calls in nanoseconds. */
+        private final LongAdder nanos = new LongAdder();
+
+    }
+
+}
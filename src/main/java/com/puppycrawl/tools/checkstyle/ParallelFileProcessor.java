@@ -0,0 +1,415 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Processes files with fileset checks on several threads for the multi thread mode
+ * of {@link Checker}.
+ *
+ * <p>Each thread uses its own instances of checks which keep the state of a file.
+ * Checks annotated with {@link StatelessCheck} or {@link GlobalStatefulCheck} are
+ * shared by all threads, processing of files by global stateful checks is serialized.
+ * Files are processed and their violations are filtered concurrently, the same thread
+ * does both for a file, but results are reported from the calling thread in the order
+ * the files were submitted, so audit listeners observe the same sequence of events as
+ * in single thread mode.</p>
+ */
+final class ParallelFileProcessor {
+
+    /**
+     * Number of files per thread which may be processed ahead of the file
+     * whose results are reported next.
+     */
+    private static final int PENDING_FILES_PER_THREAD = 4;
+
+    /** The number of threads to process files with. */
+    private final int threadsNumber;
+
+    /** Fileset checks of the first thread. */
+    private final List<FileSetCheck> fileSetChecks;
+
+    /** Instances of fileset checks for additional threads. */
+    private final Map<FileSetCheck, List<FileSetCheck>> fileSetCheckCopies;
+
+    /** Processes a file with a list of fileset checks. */
+    private final FileProcessor fileProcessor;
+
+    /** Listeners to report audit events of files to. */
+    private final List<AuditListener> listeners;
+
+    /** Files which are submitted, but not reported yet, in the order of submission. */
+    private final Deque<PendingFile> pendingFiles = new ArrayDeque<>();
+
+    /** Fileset checks of threads which are not processing a file right now. */
+    private BlockingQueue<List<FileSetCheck>> idleChecks;
+
+    /** The executor which runs processing of files. */
+    private ExecutorService executor;
+
+    /**
+     * Creates a new {@code ParallelFileProcessor} instance.
+     *
+     * @param threadsNumber the number of threads to process files with.
+     * @param fileSetChecks fileset checks of the first thread.
+     * @param fileSetCheckCopies instances of fileset checks for additional threads.
+     * @param fileProcessor processes a file with a list of fileset checks.
+     * @param listeners listeners to report audit events of files to.
+     */
+    /* package */ ParallelFileProcessor(int threadsNumber, List<FileSetCheck> fileSetChecks,
+            Map<FileSetCheck, List<FileSetCheck>> fileSetCheckCopies,
+            FileProcessor fileProcessor, List<AuditListener> listeners) {
+        this.threadsNumber = threadsNumber;
+        this.fileSetChecks = fileSetChecks;
+        this.fileSetCheckCopies = fileSetCheckCopies;
+        this.fileProcessor = fileProcessor;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Checks whether the same instance of a fileset check may be used by all threads.
+     *
+     * @param fileSetCheck the fileset check.
+     * @return {@code true} if the check is stateless or keeps global state.
+     */
+    public static boolean isSharedBetweenThreads(FileSetCheck fileSetCheck) {
+        final Class<?> checkClass = fileSetCheck.getClass();
+        return checkClass.isAnnotationPresent(StatelessCheck.class)
+                || checkClass.isAnnotationPresent(GlobalStatefulCheck.class);
+    }
+
+    /**
+     * Creates instances of a fileset check for additional threads.
+     *
+     * @param threadsNumber the number of threads to process files with.
+     * @param configuration the configuration of the fileset check.
+     * @param moduleFactory the factory to create the fileset check with.
+     * @param context the context of the fileset check.
+     * @param dispatcher the message dispatcher of the fileset check.
+     * @return instances of the fileset check for additional threads.
+     * @throws CheckstyleException if the fileset check can not be created or configured.
+     */
+    public static List<FileSetCheck> createCopies(int threadsNumber,
+            Configuration configuration, ModuleFactory moduleFactory, Context context,
+            MessageDispatcher dispatcher) throws CheckstyleException {
+        final List<FileSetCheck> copies = new ArrayList<>();
+        for (int thread = 1; thread < threadsNumber; thread++) {
+            final FileSetCheck copy =
+                    (FileSetCheck) moduleFactory.createModule(configuration.getName());
+            copy.contextualize(context);
+            copy.configure(configuration);
+            copy.init();
+            copy.setMessageDispatcher(dispatcher);
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Prepares fileset checks of all threads and starts the threads.
+     *
+     * @param charset the name of a charset.
+     * @throws CheckstyleException if a fileset check which is not thread safe
+     *     has no instances for additional threads.
+     */
+    public void start(String charset) throws CheckstyleException {
+        final List<List<FileSetCheck>> threadChecks = new ArrayList<>();
+        for (int thread = 0; thread < threadsNumber; thread++) {
+            threadChecks.add(new ArrayList<>());
+        }
+        for (final FileSetCheck fileSetCheck : fileSetChecks) {
+            if (isSharedBetweenThreads(fileSetCheck)) {
+                final FileSetCheck sharedCheck;
+                if (fileSetCheck.getClass().isAnnotationPresent(GlobalStatefulCheck.class)) {
+                    sharedCheck = new SynchronizedFileSetCheck(fileSetCheck);
+                }
+                else {
+                    sharedCheck = fileSetCheck;
+                }
+                threadChecks.forEach(checks -> checks.add(sharedCheck));
+            }
+            else {
+                final List<FileSetCheck> copies = getCopies(fileSetCheck);
+                copies.forEach(copy -> copy.beginProcessing(charset));
+                threadChecks.get(0).add(fileSetCheck);
+                for (int thread = 1; thread < threadsNumber; thread++) {
+                    threadChecks.get(thread).add(copies.get(thread - 1));
+                }
+            }
+        }
+        idleChecks = new ArrayBlockingQueue<>(threadsNumber, false, threadChecks);
+        executor = Executors.newFixedThreadPool(threadsNumber);
+    }
+
+    /**
+     * Submits a file for processing. Reports results of previously submitted files
+     * if too many files are waiting to be reported.
+     *
+     * @param file the file to process.
+     * @param checker the checker to report results with.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    public void submit(File file, Checker checker) throws CheckstyleException {
+        pendingFiles.add(new PendingFile(file, executor.submit(() -> process(file))));
+        if (pendingFiles.size() >= threadsNumber * PENDING_FILES_PER_THREAD) {
+            reportNextFile(checker);
+        }
+    }
+
+    /**
+     * Waits for all submitted files to be processed and reports their results.
+     *
+     * @param checker the checker to report results with.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    public void finish(Checker checker) throws CheckstyleException {
+        while (!pendingFiles.isEmpty()) {
+            reportNextFile(checker);
+        }
+        fileSetCheckCopies.values().stream()
+                .flatMap(List::stream)
+                .forEach(FileSetCheck::finishProcessing);
+    }
+
+    /**
+     * Stops all threads and destroys instances of fileset checks of additional threads.
+     *
+     * @return files which were submitted, but were not reported.
+     */
+    public List<File> shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        fileSetCheckCopies.values().stream()
+                .flatMap(List::stream)
+                .forEach(FileSetCheck::destroy);
+        return pendingFiles.stream()
+                .map(pendingFile -> pendingFile.file)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets instances of a fileset check for additional threads.
+     *
+     * @param fileSetCheck the fileset check.
+     * @return instances of a fileset check for additional threads.
+     * @throws CheckstyleException if there are no instances.
+     */
+    private List<FileSetCheck> getCopies(FileSetCheck fileSetCheck)
+            throws CheckstyleException {
+        final List<FileSetCheck> copies = fileSetCheckCopies.get(fileSetCheck);
+        if (copies == null) {
+            throw new CheckstyleException(fileSetCheck.getClass().getName()
+                    + " is not thread safe and can not be used in multi thread mode, as it"
+                    + " is not created from a configuration");
+        }
+        return copies;
+    }
+
+    /**
+     * Processes a file with fileset checks of an idle thread.
+     *
+     * @param file the file to process.
+     * @return audit events of the file accepted by filters.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @throws InterruptedException if interrupted while waiting for idle checks.
+     */
+    private List<AuditEvent> process(File file)
+            throws CheckstyleException, InterruptedException {
+        final List<FileSetCheck> checks = idleChecks.take();
+        try {
+            return fileProcessor.process(file, checks);
+        }
+        finally {
+            idleChecks.add(checks);
+        }
+    }
+
+    /**
+     * Waits for the first pending file to be processed and reports its results.
+     *
+     * @param checker the checker to report results with.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @throws Error wraps any java.lang.Error happened during execution
+     * @noinspection ProhibitedExceptionThrown
+     * @noinspectionreason ProhibitedExceptionThrown - There is no other way to
+     *      deliver filename that was under processing.
+     */
+    private void reportNextFile(Checker checker) throws CheckstyleException {
+        final File file = pendingFiles.element().file;
+        final List<AuditEvent> acceptedErrors;
+        try {
+            acceptedErrors = pendingFiles.element().result.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while processing " + file.getPath(), ex);
+        }
+        catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw new Error("Error was thrown while processing " + file.getPath(), cause);
+            }
+            throw new CheckstyleException("Exception was thrown while processing "
+                    + file.getPath(), cause);
+        }
+        pendingFiles.remove();
+        final String fileName = file.getAbsolutePath();
+        checker.fireFileStarted(fileName);
+        for (final AuditEvent event : acceptedErrors) {
+            for (final AuditListener listener : listeners) {
+                listener.addError(event);
+            }
+        }
+        checker.fireFileFinished(fileName);
+    }
+
+    /**
+     * Processes a file with a list of fileset checks and filters its violations.
+     */
+    @FunctionalInterface
+    /* package */ interface FileProcessor {
+
+        /**
+         * Processes a file with a list of fileset checks and filters its violations.
+         *
+         * @param file the file to process.
+         * @param checks the fileset checks to process the file with.
+         * @return audit events of the file accepted by filters.
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         */
+        List<AuditEvent> process(File file, List<FileSetCheck> checks)
+                throws CheckstyleException;
+
+    }
+
+    /**
+     * A file which is submitted for processing.
+     */
+    private static final class PendingFile {
+
+        /** The file being processed. */
+        private final File file;
+
+        /** Audit events of the file accepted by filters. */
+        private final Future<List<AuditEvent>> result;
+
+        /**
+         * Creates a new {@code PendingFile} instance.
+         *
+         * @param file the file being processed.
+         * @param result audit events of the file accepted by filters.
+         */
+        private PendingFile(File file, Future<List<AuditEvent>> result) {
+            this.file = file;
+            this.result = result;
+        }
+
+    }
+
+    /**
+     * Serializes processing of files by a fileset check which keeps global state.
+     */
+    private static final class SynchronizedFileSetCheck implements FileSetCheck {
+
+        /** The fileset check. */
+        private final FileSetCheck fileSetCheck;
+
+        /**
+         * Creates a new {@code SynchronizedFileSetCheck} instance.
+         *
+         * @param fileSetCheck the fileset check.
+         */
+        private SynchronizedFileSetCheck(FileSetCheck fileSetCheck) {
+            this.fileSetCheck = fileSetCheck;
+        }
+
+        @Override
+        public void setMessageDispatcher(MessageDispatcher dispatcher) {
+            fileSetCheck.setMessageDispatcher(dispatcher);
+        }
+
+        @Override
+        public void init() {
+            fileSetCheck.init();
+        }
+
+        @Override
+        public void destroy() {
+            fileSetCheck.destroy();
+        }
+
+        @Override
+        public void beginProcessing(String charset) {
+            fileSetCheck.beginProcessing(charset);
+        }
+
+        @Override
+        public SortedSet<Violation> process(File file, FileText fileText)
+                throws CheckstyleException {
+            synchronized (fileSetCheck) {
+                return fileSetCheck.process(file, fileText);
+            }
+        }
+
+        @Override
+        public void finishProcessing() {
+            fileSetCheck.finishProcessing();
+        }
+
+        @Override
+        public void configure(Configuration configuration)
+                throws CheckstyleException {
+            fileSetCheck.configure(configuration);
+        }
+
+        @Override
+        public void contextualize(Context context)
+                throws CheckstyleException {
+            fileSetCheck.contextualize(context);
+        }
+
+    }
+
+}
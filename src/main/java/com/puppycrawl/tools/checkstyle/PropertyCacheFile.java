@@ -19,7 +19,10 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
@@ -27,12 +30,17 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Properties;
@@ -40,6 +48,8 @@ import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
@@ -52,6 +62,11 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * cache file to ensure the cache is invalidated when the
  * configuration has changed.
  *
+ * <p>Files can also be identified by a hash of their content instead of
+ * a timestamp. In that case the violations reported for a file are stored
+ * along with its hash, so they can be reported again without checking
+ * the unchanged file.</p>
+ *
  */
 public final class PropertyCacheFile {
 
@@ -71,6 +86,13 @@ public final class PropertyCacheFile {
      */
     public static final String EXTERNAL_RESOURCE_KEY_PREFIX = "module-resource*?:";
 
+    /**
+     * The property prefix to use for storing the violations of a file
+     * which is identified by the hash of its content. The prefix is chosen
+     * in such a way that it cannot be a valid file name.
+     */
+    public static final String VIOLATIONS_KEY_PREFIX = "violations*?:";
+
     /** Size of default byte array for buffer. */
     private static final int BUFFER_SIZE = 1024;
 
@@ -80,6 +102,9 @@ public final class PropertyCacheFile {
     /** Default number for base 16 encoding. */
     private static final int BASE_16 = 16;
 
+    /** Name of the algorithm to calculate hashes with. */
+    private static final String HASH_ALGORITHM = "SHA-1";
+
     /** The details on files. **/
     private final Properties details = new Properties();
 
@@ -172,6 +197,18 @@ public final class PropertyCacheFile {
         return Objects.equals(lastChecked, Long.toString(timestamp));
     }
 
+    /**
+     * Checks that file with the specified content hash is in cache.
+     *
+     * @param uncheckedFileName the file to check
+     * @param contentHash the hash of the file content, see {@link #getContentHash(Path)}
+     * @return whether the specified file has already been checked with the same content
+     */
+    public boolean isInCache(String uncheckedFileName, String contentHash) {
+        final String lastChecked = details.getProperty(uncheckedFileName);
+        return lastChecked != null && lastChecked.equals(contentHash);
+    }
+
     /**
      * Records that a file checked ok.
      *
@@ -182,6 +219,64 @@ public final class PropertyCacheFile {
         details.setProperty(checkedFileName, Long.toString(timestamp));
     }
 
+    /**
+     * Records that a file with the specified content hash is checked.
+     * Violations of the file should be recorded by
+     * {@link #putViolations(String, List)} after that.
+     *
+     * @param checkedFileName name of the file that is checked
+     * @param contentHash the hash of the file content
+     */
+    public void put(String checkedFileName, String contentHash) {
+        details.setProperty(checkedFileName, contentHash);
+        details.remove(VIOLATIONS_KEY_PREFIX + checkedFileName);
+    }
+
+    /**
+     * Records the violations reported for a checked file.
+     * Only data which is required to report the violations again is stored,
+     * arguments of the message are replaced by its formatted text.
+     *
+     * @param checkedFileName name of the checked file
+     * @param violations violations reported for the file
+     * @param locale locale of messages of the violations
+     */
+    public void putViolations(String checkedFileName, List<Violation> violations,
+            Locale locale) {
+        final String key = VIOLATIONS_KEY_PREFIX + checkedFileName;
+        if (violations.isEmpty()) {
+            details.remove(key);
+        }
+        else {
+            details.setProperty(key, ViolationsCodec.encode(violations, locale));
+        }
+    }
+
+    /**
+     * Retrieves violations recorded for a file.
+     * Messages of violations are stored as they were reported, so violations
+     * recorded with another locale can not be restored.
+     *
+     * @param checkedFileName name of the checked file
+     * @param locale locale of messages to report
+     * @param classLoader class loader to resolve sources of violations with
+     * @return violations of the file, or {@code null} if they can not be restored
+     */
+    public List<Violation> getViolations(String checkedFileName, Locale locale,
+            ClassLoader classLoader) {
+        final String encoded = details.getProperty(VIOLATIONS_KEY_PREFIX + checkedFileName);
+        List<Violation> violations = Collections.emptyList();
+        if (encoded != null) {
+            try {
+                violations = ViolationsCodec.decode(encoded, locale, classLoader);
+            }
+            catch (IOException | ClassNotFoundException | IllegalArgumentException ignored) {
+                violations = null;
+            }
+        }
+        return violations;
+    }
+
     /**
      * Retrieves the hash of a specific file.
      *
@@ -199,6 +294,25 @@ public final class PropertyCacheFile {
      */
     public void remove(String checkedFileName) {
         details.remove(checkedFileName);
+        details.remove(VIOLATIONS_KEY_PREFIX + checkedFileName);
+    }
+
+    /**
+     * Calculates the hash of the file content.
+     *
+     * @param file the file to calculate the hash for
+     * @return the hash of the file content
+     * @throws IOException if the file can not be read
+     * @throws IllegalStateException when some unexpected happened.
+     */
+    public static String getContentHash(Path file) throws IOException {
+        try {
+            return getHash(Files.readAllBytes(file));
+        }
+        catch (final NoSuchAlgorithmException ex) {
+            // rethrow as unchecked exception
+            throw new IllegalStateException("Unable to calculate hash of file content.", ex);
+        }
     }
 
     /**
@@ -217,10 +331,7 @@ public final class PropertyCacheFile {
             // use a message digest here to keep the length of the
             // hashcode reasonable
 
-            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
-            digest.update(outputStream.toByteArray());
-
-            return new BigInteger(1, digest.digest()).toString(BASE_16).toUpperCase(Locale.ROOT);
+            return getHash(outputStream.toByteArray());
         }
         catch (final IOException | NoSuchAlgorithmException ex) {
             // rethrow as unchecked exception
@@ -228,6 +339,20 @@ public final class PropertyCacheFile {
         }
     }
 
+    /**
+     * Calculates the hash of the bytes.
+     *
+     * @param bytes bytes to calculate the hash for.
+     * @return the hash of the bytes.
+     * @throws NoSuchAlgorithmException when hash algorithm is not available.
+     */
+    private static String getHash(byte[] bytes) throws NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        digest.update(bytes);
+
+        return new BigInteger(1, digest.digest()).toString(BASE_16).toUpperCase(Locale.ROOT);
+    }
+
     /**
      * Serializes object to output stream.
      *
@@ -376,6 +501,146 @@ public final class PropertyCacheFile {
         return cachedHashSum != null;
     }
 
+    /**
+     * Encodes violations of a file to a string which can be stored in the cache.
+     */
+    private static final class ViolationsCodec {
+
+        /** Length which is written instead of a {@code null} string. */
+        private static final int NULL_STRING_LENGTH = -1;
+
+        /** Prevent instantiation. */
+        private ViolationsCodec() {
+        }
+
+        /**
+         * Encodes violations to a string which can be stored in the cache.
+         *
+         * @param violations violations to encode.
+         * @param locale locale of messages of the violations.
+         * @return Base64 encoded violations.
+         * @throws IllegalStateException when some unexpected happened.
+         */
+        private static String encode(List<Violation> violations, Locale locale) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(outputStream)) {
+                writeString(out, locale.toLanguageTag());
+                out.writeInt(violations.size());
+                for (final Violation violation : violations) {
+                    out.writeInt(violation.getLineNo());
+                    out.writeInt(violation.getColumnNo());
+                    out.writeInt(violation.getColumnCharIndex());
+                    out.writeInt(violation.getTokenType());
+                    out.writeInt(violation.getSeverityLevel().ordinal());
+                    writeString(out, violation.getModuleId());
+                    writeString(out, violation.getKey());
+                    writeString(out, violation.getSourceName());
+                    writeString(out, violation.getViolation());
+                }
+            }
+            catch (final IOException ex) {
+                // rethrow as unchecked exception
+                throw new IllegalStateException("Unable to encode violations.", ex);
+            }
+            return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+        }
+
+        /**
+         * Decodes violations stored in the cache.
+         * The formatted message of a violation is restored as a custom message
+         * with escaped quotes and braces, so it is reported as is.
+         *
+         * @param encoded Base64 encoded violations.
+         * @param locale locale of messages to report.
+         * @param classLoader class loader to resolve sources of violations with.
+         * @return decoded violations, or {@code null} if they were encoded with
+         *     another locale.
+         * @throws IOException if encoded violations are broken.
+         * @throws ClassNotFoundException if source of a violation can not be resolved.
+         */
+        private static List<Violation> decode(String encoded, Locale locale,
+                ClassLoader classLoader) throws IOException, ClassNotFoundException {
+            final byte[] bytes = Base64.getDecoder().decode(encoded);
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                List<Violation> violations = null;
+                if (locale.toLanguageTag().equals(readString(input))) {
+                    violations = readViolations(input, classLoader);
+                }
+                return violations;
+            }
+        }
+
+        /**
+         * Reads violations written by {@link #encode(List, Locale)}.
+         *
+         * @param input stream to read from.
+         * @param classLoader class loader to resolve sources of violations with.
+         * @return read violations.
+         * @throws IOException if encoded violations are broken.
+         * @throws ClassNotFoundException if source of a violation can not be resolved.
+         */
+        private static List<Violation> readViolations(DataInputStream input,
+                ClassLoader classLoader) throws IOException, ClassNotFoundException {
+            final int count = input.readInt();
+            final List<Violation> violations = new ArrayList<>();
+            for (int index = 0; index < count; index++) {
+                final int lineNo = input.readInt();
+                final int columnNo = input.readInt();
+                final int columnCharIndex = input.readInt();
+                final int tokenType = input.readInt();
+                final SeverityLevel severityLevel = SeverityLevel.values()[input.readInt()];
+                final String moduleId = readString(input);
+                final String key = readString(input);
+                final Class<?> sourceClass =
+                        Class.forName(readString(input), false, classLoader);
+                final String message =
+                        readString(input).replace("'", "''").replace("{", "'{'");
+                violations.add(new Violation(lineNo, columnNo, columnCharIndex, tokenType,
+                        null, key, null, severityLevel, moduleId, sourceClass, message));
+            }
+            return violations;
+        }
+
+        /**
+         * Writes a string which may be {@code null} and longer than supported by
+         * {@link DataOutputStream#writeUTF(String)}.
+         *
+         * @param out stream to write to.
+         * @param value string to write.
+         * @throws IOException if an error occurs.
+         */
+        private static void writeString(DataOutputStream out, String value)
+                throws IOException {
+            if (value == null) {
+                out.writeInt(NULL_STRING_LENGTH);
+            }
+            else {
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        /**
+         * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+         *
+         * @param input stream to read from.
+         * @return read string.
+         * @throws IOException if an error occurs.
+         */
+        private static String readString(DataInputStream input) throws IOException {
+            final int length = input.readInt();
+            String value = null;
+            if (length != NULL_STRING_LENGTH) {
+                final byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+
+    }
+
     /**
      * Class which represents external resource.
      */
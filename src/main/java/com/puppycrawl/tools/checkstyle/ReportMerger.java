@@ -0,0 +1,546 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import net.sf.saxon.s9api.Processor;
+import net.sf.saxon.s9api.QName;
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XPathCompiler;
+import net.sf.saxon.s9api.XPathSelector;
+import net.sf.saxon.s9api.XdmAtomicValue;
+import net.sf.saxon.s9api.XdmItem;
+
+/**
+ * Merges reports of {@link XMLLogger} or {@link SarifLogger} from several runs of
+ * Checkstyle, for example from shards of files checked on different CI nodes,
+ * into one report of the same format.
+ *
+ * <p>The reports are parsed and their violations and exceptions are written again
+ * by the logger of the format. Violations and exceptions without a file come first,
+ * then files are ordered by name. The order within a file is kept, so the merged
+ * report does not depend on the order of the reports if each file is checked in
+ * one of them.</p>
+ */
+final class ReportMerger {
+
+    /** Name of the root element of reports of {@link XMLLogger}. */
+    private static final String XML_ROOT = "checkstyle";
+
+    /** Name of the element of a file in reports of {@link XMLLogger}. */
+    private static final String XML_FILE = "file";
+
+    /** Name of the element of a violation in reports of {@link XMLLogger}. */
+    private static final String XML_ERROR = "error";
+
+    /** Name of the element of an exception in reports of {@link XMLLogger}. */
+    private static final String XML_EXCEPTION = "exception";
+
+    /** Query of the results in reports of {@link SarifLogger}. */
+    private static final String SARIF_RESULTS = "parse-json($report)?runs?1?results?*";
+
+    /** Query of the file of a result of {@link SarifLogger}. */
+    private static final String SARIF_URI =
+            "?locations?1?physicalLocation?artifactLocation?uri";
+
+    /** Query of the line of a result of {@link SarifLogger}. */
+    private static final String SARIF_LINE =
+            "xs:integer((?locations?1?physicalLocation?region?startLine, 0)[1])";
+
+    /** Query of the column of a result of {@link SarifLogger}. */
+    private static final String SARIF_COLUMN =
+            "xs:integer((?locations?1?physicalLocation?region?startColumn, 0)[1])";
+
+    /** Query of the level of a result of {@link SarifLogger}. */
+    private static final String SARIF_LEVEL = "?level";
+
+    /** Query of the message of a result of {@link SarifLogger}. */
+    private static final String SARIF_MESSAGE = "?message?text";
+
+    /** Query of the rule of a result of {@link SarifLogger}, absent for exceptions. */
+    private static final String SARIF_RULE_ID = "?ruleId";
+
+    /** Message of the exception when a file is not a report. */
+    private static final String NOT_REPORT_MESSAGE =
+            "Report %s is not written by XMLLogger or SarifLogger.";
+
+    /** Stop instances being created. **/
+    private ReportMerger() {
+    }
+
+    /**
+     * Merges reports and writes the merged report.
+     *
+     * @param reports the reports to merge, all of the same format
+     * @param out the stream to write the merged report to
+     * @param outputStreamOptions if {@code CLOSE} the stream is closed after writing
+     * @return number of violations of error severity and exceptions in the reports
+     * @throws IOException if a report can not be read
+     * @throws CheckstyleException if a report is not written by {@link XMLLogger}
+     *     or {@link SarifLogger}, or reports are of different formats
+     */
+    public static int merge(List<File> reports, OutputStream out,
+            AutomaticBean.OutputStreamOptions outputStreamOptions)
+            throws IOException, CheckstyleException {
+        final List<Entry> entries = new ArrayList<>();
+        Main.OutputFormat format = null;
+        for (File file : reports) {
+            final String text = Files.readString(file.toPath(), StandardCharsets.UTF_8).trim();
+            final Main.OutputFormat reportFormat = getFormat(file, text);
+            if (format == null) {
+                format = reportFormat;
+            }
+            else if (format != reportFormat) {
+                throw new CheckstyleException(String.format(Locale.ROOT,
+                        "Report %s is not in the format of the first report.", file));
+            }
+            if (reportFormat == Main.OutputFormat.XML) {
+                entries.addAll(parseXml(file, text));
+            }
+            else {
+                entries.addAll(parseSarif(file, text));
+            }
+        }
+        entries.sort(Comparator.comparing(entry -> entry.fileName,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        final AuditListener logger = format.createListener(out, outputStreamOptions);
+        logger.auditStarted(null);
+        entries.forEach(entry -> entry.write(logger));
+        logger.auditFinished(null);
+        return entries.stream().mapToInt(Entry::getErrorCount).sum();
+    }
+
+    /**
+     * Gets the format of a report.
+     *
+     * @param file the file of the report
+     * @param text the text of the report without surrounding whitespace
+     * @return {@link Main.OutputFormat#XML} or {@link Main.OutputFormat#SARIF}
+     * @throws CheckstyleException if the report is neither XML nor JSON
+     */
+    private static Main.OutputFormat getFormat(File file, String text)
+            throws CheckstyleException {
+        final Main.OutputFormat result;
+        if (text.startsWith("<?xml")) {
+            result = Main.OutputFormat.XML;
+        }
+        else if (text.startsWith("{")) {
+            result = Main.OutputFormat.SARIF;
+        }
+        else {
+            throw createNotReportException(file, null);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a report of {@link XMLLogger}.
+     *
+     * @param file the file of the report
+     * @param text the text of the report
+     * @return entries of the report
+     * @throws IOException if the report can not be read
+     * @throws CheckstyleException if the report is not written by {@link XMLLogger}
+     */
+    private static List<Entry> parseXml(File file, String text)
+            throws IOException, CheckstyleException {
+        final Element root;
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            root = factory.newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(text)))
+                    .getDocumentElement();
+        }
+        catch (ParserConfigurationException | SAXException ex) {
+            throw createNotReportException(file, ex);
+        }
+        if (!XML_ROOT.equals(root.getTagName())) {
+            throw createNotReportException(file, null);
+        }
+
+        final List<Entry> entries = new ArrayList<>();
+        for (Element element : getChildElements(root)) {
+            if (XML_FILE.equals(element.getTagName())) {
+                final Entry entry = new Entry(element.getAttribute("name"));
+                getChildElements(element).forEach(child -> addXmlElement(entry, child));
+                entries.add(entry);
+            }
+            else {
+                final Entry entry = new Entry(null);
+                addXmlElement(entry, element);
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the child elements of an element.
+     *
+     * @param element the element
+     * @return the child elements in document order
+     */
+    private static List<Element> getChildElements(Element element) {
+        final List<Element> result = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null;
+                child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                result.add((Element) child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a violation or an exception of a report of {@link XMLLogger} to an entry.
+     * Other elements are ignored.
+     *
+     * @param entry the entry to add to
+     * @param element the element of the violation or exception
+     */
+    private static void addXmlElement(Entry entry, Element element) {
+        if (XML_ERROR.equals(element.getTagName())) {
+            final String column = element.getAttribute("column");
+            int columnNo = 0;
+            if (!column.isEmpty()) {
+                columnNo = Integer.parseInt(column);
+            }
+            entry.violations.add(createViolation(
+                    Integer.parseInt(element.getAttribute("line")), columnNo,
+                    SeverityLevel.getInstance(element.getAttribute("severity")),
+                    element.getAttribute("message"), null, element.getAttribute("source")));
+        }
+        else if (XML_EXCEPTION.equals(element.getTagName())) {
+            // XMLLogger writes the encoded stack trace in a CDATA section
+            entry.exceptions.add(decodeXml(element.getTextContent().trim()));
+        }
+    }
+
+    /**
+     * Reverts {@link XMLLogger#encode(String)}, except for removed carriage returns
+     * and escaped control characters, which are encoded in the same way again.
+     *
+     * @param value the encoded value
+     * @return the decoded value
+     */
+    private static String decodeXml(String value) {
+        return value.replace("&#10;", "\n")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&apos;", "'")
+                .replace("&quot;", "\"")
+                .replace("&amp;", "&");
+    }
+
+    /**
+     * Parses a report of {@link SarifLogger}.
+     *
+     * @param file the file of the report
+     * @param text the text of the report
+     * @return entries of the report, one for each result
+     * @throws CheckstyleException if the report is not written by {@link SarifLogger}
+     */
+    private static List<Entry> parseSarif(File file, String text) throws CheckstyleException {
+        try {
+            return new SarifParser().parse(text);
+        }
+        catch (SaxonApiException ex) {
+            throw createNotReportException(file, ex);
+        }
+    }
+
+    /**
+     * Creates a violation to write again.
+     *
+     * @param line the line of the violation
+     * @param column the column of the violation, 0 if there is none
+     * @param severityLevel the severity of the violation
+     * @param message the message of the violation
+     * @param key the key of the message, which is the rule id of {@link SarifLogger}
+     * @param moduleId the id of the module, which is the source of {@link XMLLogger}
+     * @return the violation
+     */
+    private static Violation createViolation(int line, int column, SeverityLevel severityLevel,
+            String message, String key, String moduleId) {
+        // the message is passed as argument, so that it is not taken as a pattern
+        return new Violation(line, column, null, key, new Object[] {message}, severityLevel,
+                moduleId, ReportMerger.class, "{0}");
+    }
+
+    /**
+     * Creates the exception for a file which is not a report.
+     *
+     * @param file the file
+     * @param cause the cause of the failure to parse the file, or {@code null}
+     * @return the exception
+     */
+    private static CheckstyleException createNotReportException(File file, Exception cause) {
+        return new CheckstyleException(String.format(Locale.ROOT, NOT_REPORT_MESSAGE, file),
+                cause);
+    }
+
+    /**
+     * Parser of reports of {@link SarifLogger}, which queries the parsed JSON with XPath.
+     */
+    private static final class SarifParser {
+
+        /** Name of the variable with the text of the report. */
+        private static final QName REPORT = new QName("report");
+
+        /** Compiler of the queries. */
+        private final XPathCompiler compiler = new Processor(false).newXPathCompiler();
+
+        /** Query of the file. */
+        private final XPathSelector uri;
+
+        /** Query of the line. */
+        private final XPathSelector line;
+
+        /** Query of the column. */
+        private final XPathSelector column;
+
+        /** Query of the level. */
+        private final XPathSelector level;
+
+        /** Query of the message. */
+        private final XPathSelector message;
+
+        /** Query of the rule id. */
+        private final XPathSelector ruleId;
+
+        /**
+         * Creates a new {@code SarifParser} instance.
+         *
+         * @throws SaxonApiException if a query can not be compiled
+         */
+        private SarifParser() throws SaxonApiException {
+            uri = compiler.compile(SARIF_URI).load();
+            line = compiler.compile(SARIF_LINE).load();
+            column = compiler.compile(SARIF_COLUMN).load();
+            level = compiler.compile(SARIF_LEVEL).load();
+            message = compiler.compile(SARIF_MESSAGE).load();
+            ruleId = compiler.compile(SARIF_RULE_ID).load();
+            compiler.declareVariable(REPORT);
+        }
+
+        /**
+         * Parses a report.
+         *
+         * @param text the text of the report
+         * @return entries of the report, one for each result
+         * @throws SaxonApiException if the report is not JSON
+         */
+        private List<Entry> parse(String text) throws SaxonApiException {
+            final XPathSelector results = compiler.compile(SARIF_RESULTS).load();
+            results.setVariable(REPORT, new XdmAtomicValue(text));
+            final List<Entry> entries = new ArrayList<>();
+            for (XdmItem result : results.evaluate()) {
+                entries.add(createEntry(result));
+            }
+            return entries;
+        }
+
+        /**
+         * Creates the entry of a result.
+         *
+         * @param result the result
+         * @return the entry with the violation or exception of the result
+         * @throws SaxonApiException if a query fails
+         */
+        private Entry createEntry(XdmItem result) throws SaxonApiException {
+            final Entry entry = new Entry(evaluate(uri, result));
+            final String rule = evaluate(ruleId, result);
+            // only exceptions are reported without rule
+            if (rule == null) {
+                entry.exceptions.add(evaluate(message, result));
+            }
+            else {
+                entry.violations.add(createViolation(
+                        Integer.parseInt(evaluate(line, result)),
+                        Integer.parseInt(evaluate(column, result)),
+                        getSeverityLevel(evaluate(level, result)),
+                        evaluate(message, result), rule, null));
+            }
+            return entry;
+        }
+
+        /**
+         * Evaluates a query on a result.
+         *
+         * @param query the query
+         * @param result the result
+         * @return the string value of the query, or {@code null} if it is empty
+         * @throws SaxonApiException if the query fails
+         */
+        private static String evaluate(XPathSelector query, XdmItem result)
+                throws SaxonApiException {
+            query.setContextItem(result);
+            final XdmItem value = query.evaluateSingle();
+            String text = null;
+            if (value != null) {
+                text = value.getStringValue();
+            }
+            return text;
+        }
+
+        /**
+         * Reverts the rendering of a severity level by {@link SarifLogger}.
+         *
+         * @param level the SARIF level
+         * @return the severity level
+         */
+        private static SeverityLevel getSeverityLevel(String level) {
+            final SeverityLevel result;
+            switch (level) {
+                case "none":
+                    result = SeverityLevel.IGNORE;
+                    break;
+                case "note":
+                    result = SeverityLevel.INFO;
+                    break;
+                case "warning":
+                    result = SeverityLevel.WARNING;
+                    break;
+                default:
+                    result = SeverityLevel.ERROR;
+                    break;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Entry of a report, which is a file with its violations and exceptions, or
+     * a violation or exception without a file.
+     */
+    private static final class Entry {
+
+        /** Name of the file of the entry, {@code null} if the entry has no file. */
+        private final String fileName;
+
+        /** Violations of the entry. */
+        private final List<Violation> violations = new ArrayList<>();
+
+        /** Stack traces of the exceptions of the entry. */
+        private final List<String> exceptions = new ArrayList<>();
+
+        /**
+         * Creates a new {@code Entry} instance.
+         *
+         * @param fileName name of the file of the entry, {@code null} if there is none
+         */
+        private Entry(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Gets the number of violations of error severity and exceptions in the entry.
+         *
+         * @return number of errors
+         */
+        private int getErrorCount() {
+            final long errorViolations = violations.stream()
+                    .filter(violation -> violation.getSeverityLevel() == SeverityLevel.ERROR)
+                    .count();
+            return (int) errorViolations + exceptions.size();
+        }
+
+        /**
+         * Writes the entry in the same way as the audit which has reported it.
+         *
+         * @param logger the logger to write to
+         */
+        private void write(AuditListener logger) {
+            if (fileName != null) {
+                logger.fileStarted(new AuditEvent(this, fileName));
+            }
+            for (Violation violation : violations) {
+                logger.addError(new AuditEvent(this, fileName, violation));
+            }
+            for (String stackTrace : exceptions) {
+                logger.addException(new AuditEvent(this, fileName),
+                        new ReportedException(stackTrace));
+            }
+            if (fileName != null) {
+                logger.fileFinished(new AuditEvent(this, fileName));
+            }
+        }
+
+    }
+
+    /**
+     * Exception of a report, which prints the stack trace from the report.
+     */
+    private static final class ReportedException extends Exception {
+
+        /** A unique serial version identifier. */
+        private static final long serialVersionUID = 1L;
+
+        /** The stack trace from the report. */
+        private final String stackTrace;
+
+        /**
+         * Creates a new {@code ReportedException} instance.
+         *
+         * @param stackTrace the stack trace from the report
+         */
+        private ReportedException(String stackTrace) {
+            super(null, null, false, false);
+            this.stackTrace = stackTrace;
+        }
+
+        @Override
+        public void printStackTrace(PrintWriter writer) {
+            writer.print(stackTrace);
+        }
+
+    }
+
+}
@@ -20,16 +20,23 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,12 +51,21 @@ import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
  * Responsible for walking an abstract syntax tree and notifying interested
  * checks at each node.
  *
+ * <p>In multi thread mode checks are split into groups, which walk the same
+ * tree concurrently. Each check belongs to one group only, so a check is never
+ * used by two threads at once.</p>
+ *
+ * <p>When subtrees are skipped, a group of checks does not descend into a node
+ * whose branch contains no token the checks of the group are registered for, so
+ * the checks are notified exactly as if the whole tree was walked.</p>
+ *
  */
 @FileStatefulCheck
 public final class TreeWalker extends AbstractFileSetCheck implements ExternalResourceHolder {
@@ -80,6 +96,24 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     /** A factory for creating submodules (i.e. the Checks) */
     private ModuleFactory moduleFactory;
 
+    /** The number of threads to walk an AST with. */
+    private int threadsNumber = 1;
+
+    /** Groups of ordinary checks, which walk an AST concurrently. */
+    private List<CheckGroup> ordinaryCheckGroups;
+
+    /** Groups of comment checks, which walk an AST concurrently. */
+    private List<CheckGroup> commentCheckGroups;
+
+    /** Control whether to skip subtrees without tokens the checks are registered for. */
+    private boolean skipSubtrees;
+
+    /** The executor which walks an AST with all groups of checks except the first one. */
+    private ExecutorService executor;
+
+    /** Records time of checks, filters and parsing, if profiling is enabled. */
+    private ModuleProfiler profiler;
+
     /**
      * Creates a new {@code TreeWalker} instance.
      */
@@ -96,12 +130,36 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         this.moduleFactory = moduleFactory;
     }
 
+    /**
+     * Setter to control whether to skip subtrees without tokens the checks are
+     * registered for.
+     *
+     * @param skipSubtrees whether to skip subtrees
+     */
+    public void setSkipSubtrees(boolean skipSubtrees) {
+        this.skipSubtrees = skipSubtrees;
+    }
+
+    /**
+     * Sets the profiler to record time of checks, filters and parsing with.
+     *
+     * @param profiler the profiler
+     */
+    public void setProfiler(ModuleProfiler profiler) {
+        this.profiler = profiler;
+    }
+
     @Override
     public void finishLocalSetup() {
         final DefaultContext checkContext = new DefaultContext();
         checkContext.add("severity", getSeverity());
         checkContext.add("tabWidth", String.valueOf(getTabWidth()));
         childContext = checkContext;
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration).getThreadModeSettings()
+                    .getTreeWalkerThreadsNumber();
+        }
     }
 
     /**
@@ -150,13 +208,17 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         // check if already checked and passed the file
         if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
             final FileContents contents = getFileContents();
-            final DetailAST rootAST = JavaParser.parse(contents);
+            final DetailAST rootAST = parse(contents);
+            if (ordinaryCheckGroups == null) {
+                ordinaryCheckGroups = createCheckGroups(ordinaryChecks, tokenToOrdinaryChecks);
+                commentCheckGroups = createCheckGroups(commentChecks, tokenToCommentChecks);
+            }
             if (!ordinaryChecks.isEmpty()) {
-                walk(rootAST, contents, AstState.ORDINARY);
+                walk(rootAST, contents, ordinaryCheckGroups);
             }
             if (!commentChecks.isEmpty()) {
-                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
-                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+                final DetailAST astWithComments = appendHiddenCommentNodes(rootAST);
+                walk(astWithComments, contents, commentCheckGroups);
             }
             if (filters.isEmpty()) {
                 addViolations(violations);
@@ -170,6 +232,45 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         }
     }
 
+    /**
+     * Parses the file contents, records time of parsing if profiling is enabled.
+     *
+     * @param contents the contents of the file
+     * @return the root of the AST
+     * @throws CheckstyleException if the contents is not a valid Java source
+     */
+    private DetailAST parse(FileContents contents) throws CheckstyleException {
+        final DetailAST rootAST;
+        if (profiler == null) {
+            rootAST = JavaParser.parse(contents);
+        }
+        else {
+            final long startTime = System.nanoTime();
+            rootAST = JavaParser.parse(contents);
+            profiler.addTime(ModuleProfiler.PARSE, startTime);
+        }
+        return rootAST;
+    }
+
+    /**
+     * Appends comment nodes to the AST, records time of it if profiling is enabled.
+     *
+     * @param rootAST the root of the AST
+     * @return the root of the AST with comment nodes
+     */
+    private DetailAST appendHiddenCommentNodes(DetailAST rootAST) {
+        final DetailAST astWithComments;
+        if (profiler == null) {
+            astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
+        }
+        else {
+            final long startTime = System.nanoTime();
+            astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
+            profiler.addTime(ModuleProfiler.APPEND_COMMENT_NODES, startTime);
+        }
+        return astWithComments;
+    }
+
     /**
      * Returns filtered set of {@link Violation}.
      *
@@ -185,7 +286,16 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             final TreeWalkerAuditEvent event =
                     new TreeWalkerAuditEvent(fileContents, fileName, element, rootAST);
             for (TreeWalkerFilter filter : filters) {
-                if (!filter.accept(event)) {
+                final boolean accepted;
+                if (profiler == null) {
+                    accepted = filter.accept(event);
+                }
+                else {
+                    final long startTime = System.nanoTime();
+                    accepted = filter.accept(event);
+                    profiler.addTime(filter, startTime);
+                }
+                if (!accepted) {
                     result.remove(element);
                     break;
                 }
@@ -228,6 +338,8 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         for (int element : tokens) {
             registerCheck(element, check);
         }
+        ordinaryCheckGroups = null;
+        commentCheckGroups = null;
         if (check.isCommentNodesRequired()) {
             commentChecks.add(check);
         }
@@ -262,128 +374,147 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     }
 
     /**
-     * Initiates the walk of an AST.
-     *
-     * @param ast the root AST
-     * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
-     */
-    private void walk(DetailAST ast, FileContents contents,
-            AstState astState) {
-        notifyBegin(ast, contents, astState);
-        processIter(ast, astState);
-        notifyEnd(ast, astState);
-    }
-
-    /**
-     * Notify checks that we are about to begin walking a tree.
+     * Splits checks into groups, which walk an AST concurrently. Checks are
+     * distributed between groups in turn, but {@link SuppressWarningsHolder} always
+     * belongs to the first group, which walks an AST on the calling thread, as it shares
+     * suppressions with filters through a thread local.
      *
-     * @param rootAST the root of the tree.
-     * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
+     * @param checks the checks to split.
+     * @param tokenToChecks maps from token id to the checks.
+     * @return groups of checks.
      */
-    private void notifyBegin(DetailAST rootAST, FileContents contents,
-            AstState astState) {
-        final Set<AbstractCheck> checks;
-
-        if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+    private List<CheckGroup> createCheckGroups(Set<AbstractCheck> checks,
+            Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+        final List<CheckGroup> groups;
+        if (threadsNumber == 1 || checks.size() <= 1) {
+            groups = Collections.singletonList(
+                    new CheckGroup(checks, tokenToChecks, profiler, skipSubtrees));
         }
         else {
-            checks = ordinaryChecks;
-        }
-
-        for (AbstractCheck check : checks) {
-            check.setFileContents(contents);
-            check.clearViolations();
-            check.beginTree(rootAST);
+            final int groupsNumber = Math.min(threadsNumber, checks.size());
+            final List<Set<AbstractCheck>> groupChecks = new ArrayList<>();
+            for (int group = 0; group < groupsNumber; group++) {
+                groupChecks.add(createNewCheckSortedSet());
+            }
+            int nextGroup = 0;
+            for (AbstractCheck check : checks) {
+                if (check instanceof SuppressWarningsHolder) {
+                    groupChecks.get(0).add(check);
+                }
+                else {
+                    groupChecks.get(nextGroup).add(check);
+                    nextGroup = (nextGroup + 1) % groupsNumber;
+                }
+            }
+            groups = new ArrayList<>();
+            for (Set<AbstractCheck> group : groupChecks) {
+                final Map<Integer, Set<AbstractCheck>> tokenToGroupChecks = new HashMap<>();
+                tokenToChecks.forEach((tokenId, tokenChecks) -> {
+                    for (AbstractCheck check : tokenChecks) {
+                        if (group.contains(check)) {
+                            tokenToGroupChecks.computeIfAbsent(tokenId,
+                                    empty -> createNewCheckSortedSet()).add(check);
+                        }
+                    }
+                });
+                groups.add(new CheckGroup(group, tokenToGroupChecks, profiler, skipSubtrees));
+            }
         }
+        return groups;
     }
 
     /**
-     * Notify checks that we have finished walking a tree.
+     * Initiates the walk of an AST by all groups of checks. The first group walks
+     * the AST on the calling thread, others walk it on threads of the executor.
      *
-     * @param rootAST the root of the tree.
-     * @param astState state of AST.
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated from.
+     * @param groups groups of checks to walk the AST with.
+     * @throws CheckstyleException if interrupted while waiting for other threads.
      */
-    private void notifyEnd(DetailAST rootAST, AstState astState) {
-        final Set<AbstractCheck> checks;
-
-        if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
+    private void walk(DetailAST ast, FileContents contents, List<CheckGroup> groups)
+            throws CheckstyleException {
+        final List<Future<?>> walks = new ArrayList<>();
+        if (groups.size() > 1) {
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(threadsNumber - 1,
+                        CheckGroup::createDaemonThread);
+            }
+            CheckGroup.prepareConcurrentWalks(ast);
         }
-        else {
-            checks = ordinaryChecks;
+        for (CheckGroup group : groups.subList(1, groups.size())) {
+            walks.add(executor.submit(() -> group.walk(ast, contents)));
         }
-
-        for (AbstractCheck check : checks) {
-            check.finishTree(rootAST);
-            violations.addAll(check.getViolations());
+        try {
+            groups.get(0).walk(ast, contents);
         }
-    }
-
-    /**
-     * Notify checks that visiting a node.
-     *
-     * @param ast the node to notify for.
-     * @param astState state of AST.
-     */
-    private void notifyVisit(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
-
-        if (visitors != null) {
-            for (AbstractCheck check : visitors) {
-                check.visitToken(ast);
-            }
+        finally {
+            awaitWalks(walks);
+        }
+        for (CheckGroup group : groups) {
+            violations.addAll(group.violations);
         }
     }
 
     /**
-     * Notify checks that leaving a node.
+     * Waits for walks on other threads to finish, so checks are not used by two
+     * threads at once, and rethrows the first failure of them.
      *
-     * @param ast
-     *        the node to notify for
-     * @param astState state of AST.
+     * @param walks walks on other threads.
+     * @throws CheckstyleException if interrupted while waiting for other threads.
+     * @noinspection ProhibitedExceptionThrown
+     * @noinspectionreason ProhibitedExceptionThrown - failures of checks are rethrown
+     *      the same way as in single thread mode
      */
-    private void notifyLeave(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
-
-        if (visitors != null) {
-            for (AbstractCheck check : visitors) {
-                check.leaveToken(ast);
+    private static void awaitWalks(List<Future<?>> walks) throws CheckstyleException {
+        Throwable failure = null;
+        for (Future<?> walk : walks) {
+            try {
+                walk.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                walks.forEach(otherWalk -> otherWalk.cancel(true));
+                throw new CheckstyleException("Interrupted while walking AST", ex);
+            }
+            catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                }
             }
         }
-    }
-
-    /**
-     * Method returns list of checks.
-     *
-     * @param ast
-     *            the node to notify for
-     * @param astState
-     *            state of AST.
-     * @return list of visitors
-     */
-    private Collection<AbstractCheck> getListOfChecks(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors;
-        final int tokenId = ast.getType();
-
-        if (astState == AstState.WITH_COMMENTS) {
-            visitors = tokenToCommentChecks.get(tokenId);
+        if (failure instanceof Error) {
+            throw (Error) failure;
         }
-        else {
-            visitors = tokenToOrdinaryChecks.get(tokenId);
+        if (failure != null) {
+            // checks can not throw checked exceptions
+            throw (RuntimeException) failure;
         }
-        return visitors;
+    }
+
+    @Override
+    public void finishProcessing() {
+        shutdownExecutor();
     }
 
     @Override
     public void destroy() {
+        shutdownExecutor();
         ordinaryChecks.forEach(AbstractCheck::destroy);
         commentChecks.forEach(AbstractCheck::destroy);
         super.destroy();
     }
 
+    /**
+     * Stops threads of the executor, if any.
+     */
+    private void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
     @Override
     public Set<String> getExternalResourceLocations() {
         return Stream.concat(filters.stream(),
@@ -394,27 +525,6 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             .collect(Collectors.toSet());
     }
 
-    /**
-     * Processes a node calling interested checks at each node.
-     * Uses iterative algorithm.
-     *
-     * @param root the root of tree for process
-     * @param astState state of AST.
-     */
-    private void processIter(DetailAST root, AstState astState) {
-        DetailAST curNode = root;
-        while (curNode != null) {
-            notifyVisit(curNode, astState);
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                notifyLeave(curNode, astState);
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
-            }
-            curNode = toVisit;
-        }
-    }
-
     /**
      * Creates a new {@link SortedSet} with a deterministic order based on the
      * Check's name before the default ordering.
@@ -430,20 +540,231 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     }
 
     /**
-     * State of AST.
-     * Indicates whether tree contains certain nodes.
+     * A group of checks, which walk an AST on the same thread.
      */
-    private enum AstState {
+    private static final class CheckGroup {
+
+        /** Empty array of checks for tokens without checks. */
+        private static final AbstractCheck[] NO_CHECKS = new AbstractCheck[0];
+
+        /** Checks of the group, in the order of the sorted set of checks. */
+        private final AbstractCheck[] checks;
 
         /**
-         * Ordinary tree.
+         * Checks of the group by token id, in the order of the sorted sets of checks.
+         * It is dense, so visiting a node does not box the token id or iterate sets.
          */
-        ORDINARY,
+        private final AbstractCheck[][] tokenToChecks;
+
+        /** The sorted set of violations found by the group during the last walk. */
+        private final SortedSet<Violation> violations = new TreeSet<>();
+
+        /** Records time of checks, {@code null} if profiling is disabled. */
+        private final ModuleProfiler profiler;
 
         /**
-         * AST contains comment nodes.
+         * Token types the checks of the group are registered for, {@code null} if
+         * subtrees are not skipped.
          */
-        WITH_COMMENTS,
+        private final BitSet tokenTypes;
+
+        /**
+         * Creates a new {@code CheckGroup} instance.
+         *
+         * @param checks checks of the group.
+         * @param tokenToChecks maps from token id to checks of the group.
+         * @param profiler records time of checks, {@code null} if profiling is disabled.
+         * @param skipSubtrees whether to skip subtrees without tokens of the checks.
+         */
+        private CheckGroup(Set<AbstractCheck> checks,
+                Map<Integer, Set<AbstractCheck>> tokenToChecks, ModuleProfiler profiler,
+                boolean skipSubtrees) {
+            this.checks = checks.toArray(NO_CHECKS);
+            this.tokenToChecks = createTokenToChecks(tokenToChecks);
+            this.profiler = profiler;
+            if (skipSubtrees) {
+                tokenTypes = new BitSet();
+                tokenToChecks.keySet().forEach(tokenTypes::set);
+            }
+            else {
+                tokenTypes = null;
+            }
+        }
+
+        /**
+         * Creates a daemon thread to walk an AST with a group, so that threads of
+         * the executor never keep the JVM running after an audit.
+         *
+         * @param runnable the task of the thread.
+         * @return the thread.
+         */
+        private static Thread createDaemonThread(Runnable runnable) {
+            final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        }
+
+        /**
+         * Compiles the map from token id to checks into an array indexed by token id.
+         *
+         * @param tokenToChecks maps from token id to checks of the group.
+         * @return checks by token id, empty for tokens without checks.
+         */
+        private static AbstractCheck[][] createTokenToChecks(
+                Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+            final int length = tokenToChecks.keySet().stream()
+                    .mapToInt(Integer::intValue)
+                    .max()
+                    .orElse(-1) + 1;
+            final AbstractCheck[][] result = new AbstractCheck[length][];
+            Arrays.fill(result, NO_CHECKS);
+            tokenToChecks.forEach((tokenId, tokenChecks) -> {
+                result[tokenId] = tokenChecks.toArray(NO_CHECKS);
+            });
+            return result;
+        }
+
+        /**
+         * Gets checks of the group which are interested in a node.
+         *
+         * @param ast the node.
+         * @return checks registered for the type of the node.
+         */
+        private AbstractCheck[] getChecks(DetailAST ast) {
+            final int tokenId = ast.getType();
+            AbstractCheck[] result = NO_CHECKS;
+            if (tokenId < tokenToChecks.length) {
+                result = tokenToChecks[tokenId];
+            }
+            return result;
+        }
+
+        /**
+         * Initiates the walk of an AST.
+         *
+         * @param ast the root AST
+         * @param contents the contents of the file the AST was generated from.
+         */
+        private void walk(DetailAST ast, FileContents contents) {
+            violations.clear();
+            notifyBegin(ast, contents);
+            processIter(ast);
+            notifyEnd(ast);
+        }
+
+        /**
+         * Notify checks that we are about to begin walking a tree.
+         *
+         * @param rootAST the root of the tree.
+         * @param contents the contents of the file the AST was generated from.
+         */
+        private void notifyBegin(DetailAST rootAST, FileContents contents) {
+            for (AbstractCheck check : checks) {
+                check.setFileContents(contents);
+                check.clearViolations();
+                if (profiler == null) {
+                    check.beginTree(rootAST);
+                }
+                else {
+                    final long startTime = System.nanoTime();
+                    check.beginTree(rootAST);
+                    profiler.addTime(check, startTime);
+                }
+            }
+        }
+
+        /**
+         * Notify checks that we have finished walking a tree.
+         *
+         * @param rootAST the root of the tree.
+         */
+        private void notifyEnd(DetailAST rootAST) {
+            for (AbstractCheck check : checks) {
+                if (profiler == null) {
+                    check.finishTree(rootAST);
+                }
+                else {
+                    final long startTime = System.nanoTime();
+                    check.finishTree(rootAST);
+                    profiler.addTime(check, startTime);
+                }
+                violations.addAll(check.getViolations());
+            }
+        }
+
+        /**
+         * Notify checks that visiting a node.
+         *
+         * @param ast the node to notify for.
+         */
+        private void notifyVisit(DetailAST ast) {
+            for (AbstractCheck check : getChecks(ast)) {
+                if (profiler == null) {
+                    check.visitToken(ast);
+                }
+                else {
+                    final long startTime = System.nanoTime();
+                    check.visitToken(ast);
+                    profiler.addTime(check, startTime);
+                }
+            }
+        }
+
+        /**
+         * Notify checks that leaving a node.
+         *
+         * @param ast
+         *        the node to notify for
+         */
+        private void notifyLeave(DetailAST ast) {
+            for (AbstractCheck check : getChecks(ast)) {
+                if (profiler == null) {
+                    check.leaveToken(ast);
+                }
+                else {
+                    final long startTime = System.nanoTime();
+                    check.leaveToken(ast);
+                    profiler.addTime(check, startTime);
+                }
+            }
+        }
+
+        /**
+         * Prepares the AST to be walked by groups on several threads at once.
+         * Branch token types are cached lazily by nodes, so they are computed
+         * before other threads read them.
+         *
+         * @param ast the root AST
+         */
+        private static void prepareConcurrentWalks(DetailAST ast) {
+            for (DetailAST node = ast; node != null; node = node.getNextSibling()) {
+                ((DetailAstImpl) node).computeBranchTokenTypes();
+            }
+        }
+
+        /**
+         * Processes a node calling interested checks at each node.
+         * Uses iterative algorithm.
+         *
+         * @param root the root of tree for process
+         */
+        private void processIter(DetailAST root) {
+            DetailAST curNode = root;
+            while (curNode != null) {
+                notifyVisit(curNode);
+                DetailAST toVisit = null;
+                if (tokenTypes == null
+                        || ((DetailAstImpl) curNode).branchContainsAny(tokenTypes)) {
+                    toVisit = curNode.getFirstChild();
+                }
+                while (curNode != null && toVisit == null) {
+                    notifyLeave(curNode);
+                    toVisit = curNode.getNextSibling();
+                    curNode = curNode.getParent();
+                }
+                curNode = toVisit;
+            }
+        }
 
     }
 
@@ -0,0 +1,129 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Records results of checking files in the cache file of {@link Checker}.
+ *
+ * <p>If files are identified in the cache by their timestamp, only files without
+ * violations stay in the cache. If files are identified by a hash of their content,
+ * violations of files are stored in the cache too, so that they can be reported
+ * again without checking unchanged files.</p>
+ *
+ * <p>In multi thread mode it is used by all threads which process files.</p>
+ */
+final class ViolationCache {
+
+    /** Logger for ViolationCache. */
+    private static final Log LOG = LogFactory.getLog(ViolationCache.class);
+
+    /** The cache file. */
+    private final PropertyCacheFile cacheFile;
+
+    /** Whether files are identified in the cache by a hash of their content. */
+    private final boolean cacheByContent;
+
+    /** Locale of messages of the violations. */
+    private final Locale locale;
+
+    /** Class loader to resolve sources of the violations with. */
+    private final ClassLoader classLoader;
+
+    /**
+     * Creates a new {@code ViolationCache} instance.
+     *
+     * @param cacheFile the cache file.
+     * @param cacheByContent whether files are identified by a hash of their content.
+     * @param locale locale of messages of the violations.
+     * @param classLoader class loader to resolve sources of the violations with.
+     */
+    /* package */ ViolationCache(PropertyCacheFile cacheFile, boolean cacheByContent,
+            Locale locale, ClassLoader classLoader) {
+        this.cacheFile = cacheFile;
+        this.cacheByContent = cacheByContent;
+        this.locale = locale;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Calculates the hash of the file content, if files are identified by it.
+     *
+     * @param file the file.
+     * @return the hash of the file content or {@code null} if files are identified
+     *     by their timestamp or the file can not be read.
+     */
+    public String getContentHash(File file) {
+        String contentHash = null;
+        if (cacheByContent) {
+            try {
+                contentHash = PropertyCacheFile.getContentHash(file.toPath());
+            }
+            catch (final IOException ioe) {
+                LOG.debug("Unable to read file to calculate hash of its content.", ioe);
+            }
+        }
+        return contentHash;
+    }
+
+    /**
+     * Retrieves violations of an unchanged file.
+     *
+     * @param fileName the file.
+     * @param contentHash the hash of the file content, may be {@code null}.
+     * @return violations of the file or {@code null} if the file is changed
+     *     or its violations can not be restored.
+     */
+    public List<Violation> getViolations(String fileName, String contentHash) {
+        List<Violation> violations = null;
+        if (contentHash != null && cacheFile.isInCache(fileName, contentHash)) {
+            violations = cacheFile.getViolations(fileName, locale, classLoader);
+        }
+        return violations;
+    }
+
+    /**
+     * Records violations of a checked file. If files are identified by their
+     * timestamp, the file is removed from the cache if it has violations.
+     *
+     * @param fileName the file.
+     * @param contentHash the hash of the file content, may be {@code null}.
+     * @param violations violations accepted by all filters.
+     */
+    public void put(String fileName, String contentHash, List<Violation> violations) {
+        if (contentHash != null) {
+            cacheFile.put(fileName, contentHash);
+            cacheFile.putViolations(fileName, violations, locale);
+        }
+        else if (!violations.isEmpty()) {
+            cacheFile.remove(fileName);
+        }
+    }
+
+}
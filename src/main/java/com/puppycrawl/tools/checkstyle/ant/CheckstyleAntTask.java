@@ -59,6 +59,7 @@ import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.RootModule;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter;
+import com.puppycrawl.tools.checkstyle.utils.ShardUtil;
 
 /**
  * An implementation of an ANT task for calling checkstyle. See the documentation
@@ -119,6 +120,12 @@ public class CheckstyleAntTask extends Task {
      */
     private boolean executeIgnoredModules;
 
+    /** Zero-based index of the shard of files to check. */
+    private int shardIndex;
+
+    /** Number of shards to split files to check into. */
+    private int shardCount = 1;
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for ANT specific attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -264,6 +271,24 @@ public class CheckstyleAntTask extends Task {
         executeIgnoredModules = omit;
     }
 
+    /**
+     * Sets zero-based index of the shard of files to check.
+     *
+     * @param shardIndex index of the shard
+     */
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    /**
+     * Sets number of shards to split files to check into.
+     *
+     * @param shardCount number of shards
+     */
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for Root Module's configuration attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -302,6 +327,10 @@ public class CheckstyleAntTask extends Task {
             if (config == null) {
                 throw new BuildException("Must specify 'config'.", getLocation());
             }
+            if (shardIndex < 0 || shardIndex >= shardCount) {
+                throw new BuildException("Attribute 'shardIndex' must be between 0 and "
+                        + "'shardCount' - 1.", getLocation());
+            }
             realExecute(version);
         }
         finally {
@@ -352,7 +381,8 @@ public class CheckstyleAntTask extends Task {
     private void processFiles(RootModule rootModule, final SeverityLevelCounter warningCounter,
             final String checkstyleVersion) {
         final long startTime = System.currentTimeMillis();
-        final List<File> files = getFilesToCheck();
+        final List<File> files =
+                ShardUtil.getShard(getFilesToCheck(), shardIndex, shardCount);
         final long endTime = System.currentTimeMillis();
         log("To locate the files took " + (endTime - startTime) + TIME_SUFFIX,
             Project.MSG_VERBOSE);
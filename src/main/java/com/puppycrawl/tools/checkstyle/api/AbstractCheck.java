@@ -207,6 +207,20 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         return context.get().fileContents;
     }
 
+    /**
+     * Gets the model of the current file computed by the analysis pass.
+     * The model is computed once per file and shared by all checks, which
+     * request it with the same pass.
+     *
+     * @param pass the analysis pass
+     * @param rootAst the root of the AST of the file
+     * @param <T> the type of the model
+     * @return the model
+     */
+    protected final <T> T getAnalysis(AnalysisPass<T> pass, DetailAST rootAst) {
+        return context.get().fileContents.getAnalysis(pass, rootAst);
+    }
+
     /**
      * Get tab width to report audit events with.
      *
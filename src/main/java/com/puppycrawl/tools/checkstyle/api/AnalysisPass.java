@@ -0,0 +1,49 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+/**
+ * An analysis of a file, which computes a model derived from its AST, such as
+ * a table of imports. A model is computed once per file by the first check,
+ * which requests it with {@link AbstractCheck#getAnalysis(AnalysisPass, DetailAST)},
+ * and is shared by all other checks, which request it with the same pass.
+ *
+ * <p>Passes are identified by instance, so a pass should be a constant. A model
+ * may be used by checks on several threads at once, so it should not be changed
+ * after it is computed, unless it is thread-safe. {@code TreeWalker} adds comment
+ * nodes to the same AST in place after checks, which do not require them, walked
+ * it, so a model may be computed before or after the AST has comment nodes. A model
+ * should keep nodes of the AST, but not comment nodes or positions of nodes among
+ * their siblings.</p>
+ *
+ * @param <T> the type of the model
+ */
+@FunctionalInterface
+public interface AnalysisPass<T> {
+
+    /**
+     * Computes the model of the file.
+     *
+     * @param rootAst the root of the AST of the file
+     * @return the model, not {@code null}
+     */
+    T analyze(DetailAST rootAst);
+
+}
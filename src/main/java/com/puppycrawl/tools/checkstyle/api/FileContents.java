@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.grammar.CommentListener;
@@ -63,6 +64,9 @@ public final class FileContents implements CommentListener {
      */
     private final Map<Integer, List<TextBlock>> clangComments = new HashMap<>();
 
+    /** Models of the file by the analysis pass, which computed them. */
+    private final Map<AnalysisPass<?>, Object> analyses = new ConcurrentHashMap<>();
+
     /**
      * Creates a new {@code FileContents} instance.
      *
@@ -109,6 +113,33 @@ public final class FileContents implements CommentListener {
         return text.getFile().toString();
     }
 
+    /**
+     * Gets the model of the file computed by the analysis pass. The model is
+     * computed on the first request and the same model is returned afterwards.
+     *
+     * @param pass the analysis pass
+     * @param rootAst the root of the AST of the file
+     * @param <T> the type of the model
+     * @return the model
+     */
+    public <T> T getAnalysis(AnalysisPass<T> pass, DetailAST rootAst) {
+        @SuppressWarnings("unchecked")
+        T result = (T) analyses.get(pass);
+        if (result == null) {
+            // the pass may request other passes, so it is not computed under the lock of the map
+            final T model = pass.analyze(rootAst);
+            @SuppressWarnings("unchecked")
+            final T existing = (T) analyses.putIfAbsent(pass, model);
+            if (existing == null) {
+                result = model;
+            }
+            else {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
     @Override
     public void reportSingleLineComment(String type, int startLineNo,
             int startColNo) {
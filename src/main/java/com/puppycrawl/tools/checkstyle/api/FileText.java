@@ -19,24 +19,19 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -51,19 +46,30 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 public final class FileText {
 
     /**
-     * The number of characters to read in one go.
+     * Charsets which encode ASCII characters as the same single bytes as ASCII.
      */
-    private static final int READ_BUFFER_SIZE = 1024;
+    private static final Set<Charset> ASCII_COMPATIBLE_CHARSETS = Set.of(
+            StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8);
 
     /**
-     * Regular expression pattern matching all line terminators.
+     * Mask of the high bits of a byte, which start a sequence of four bytes in UTF-8.
      */
-    private static final Pattern LINE_TERMINATOR = Pattern.compile("\\n|\\r\\n?");
+    private static final int UTF8_FOUR_BYTES_MASK = 0xF8;
 
-    // For now, we always keep both full text and lines array.
-    // In the long run, however, the one passed at initialization might be
-    // enough, while the other could be lazily created when requested.
-    // This would save memory but cost CPU cycles.
+    /**
+     * High bits of a byte, which starts a sequence of four bytes in UTF-8. Such a
+     * sequence encodes a supplementary code point, which is decoded to two surrogates.
+     */
+    private static final int UTF8_FOUR_BYTES_START = 0xF0;
+
+    /**
+     * Estimated average number of characters in a line, to size the index of lines.
+     */
+    private static final int AVERAGE_LINE_LENGTH = 32;
+
+    // The full text is always kept. Lines of a file read from disk are created
+    // from the full text and the positions of line breaks when first requested,
+    // as many checks never ask for most of the lines.
 
     /**
      * The name of the file.
@@ -79,6 +85,7 @@ public final class FileText {
 
     /**
      * The lines of the file, without terminators.
+     * An element is {@code null} until the line is first requested.
      */
     private final String[] lines;
 
@@ -96,6 +103,11 @@ public final class FileText {
      */
     private int[] lineBreaks;
 
+    /**
+     * Whether the full text has surrogate characters.
+     */
+    private boolean surrogates;
+
     /**
      * Copy constructor.
      *
@@ -105,6 +117,7 @@ public final class FileText {
         file = fileText.file;
         charset = fileText.charset;
         fullText = fileText.fullText;
+        surrogates = fileText.surrogates;
         lines = fileText.lines.clone();
         if (fileText.lineBreaks == null) {
             lineBreaks = null;
@@ -134,6 +147,7 @@ public final class FileText {
         this.file = file;
         charset = null;
         fullText = buf.toString();
+        surrogates = containsSurrogates(fullText);
         this.lines = lines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
     }
 
@@ -168,25 +182,15 @@ public final class FileText {
         }
 
         fullText = readFile(file, decoder);
-
-        // Use the BufferedReader to break down the lines as this
-        // is about 30% faster than using the
-        // LINE_TERMINATOR.split(fullText, -1) method
-        try (BufferedReader reader = new BufferedReader(new StringReader(fullText))) {
-            final ArrayList<String> textLines = new ArrayList<>();
-            while (true) {
-                final String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                textLines.add(line);
-            }
-            lines = textLines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
-        }
+        lineBreaks = indexLineBreaks(fullText);
+        lines = new String[lineBreaks.length - 1];
     }
 
     /**
      * Reads file using specific decoder and returns all its content as a String.
+     * The file is read in one go, and a file of ASCII characters in a charset
+     * compatible with ASCII is copied to the String without decoding. The same
+     * loop over the bytes finds out whether the text has surrogate characters.
      *
      * @param inputFile File to read
      * @param decoder Charset decoder
@@ -194,24 +198,49 @@ public final class FileText {
      * @throws IOException Unable to open or read the file
      * @throws FileNotFoundException when inputFile does not exist
      */
-    private static String readFile(final File inputFile, final CharsetDecoder decoder)
+    private String readFile(final File inputFile, final CharsetDecoder decoder)
             throws IOException {
         if (!inputFile.exists()) {
             throw new FileNotFoundException(inputFile.getPath() + " (No such file or directory)");
         }
-        final StringBuilder buf = new StringBuilder(1024);
-        final InputStream stream = Files.newInputStream(inputFile.toPath());
-        try (Reader reader = new InputStreamReader(stream, decoder)) {
-            final char[] chars = new char[READ_BUFFER_SIZE];
-            while (true) {
-                final int len = reader.read(chars);
-                if (len == -1) {
-                    break;
+        final byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        final String result;
+        if (ASCII_COMPATIBLE_CHARSETS.contains(decoder.charset())) {
+            boolean ascii = true;
+            boolean fourBytes = false;
+            for (byte value : bytes) {
+                if (value < 0) {
+                    ascii = false;
+                    if ((value & UTF8_FOUR_BYTES_MASK) == UTF8_FOUR_BYTES_START) {
+                        fourBytes = true;
+                        break;
+                    }
                 }
-                buf.append(chars, 0, len);
             }
+            if (ascii) {
+                result = new String(bytes, StandardCharsets.US_ASCII);
+            }
+            else {
+                result = decoder.decode(ByteBuffer.wrap(bytes)).toString();
+            }
+            // other charsets compatible with ASCII decode a byte to a single character
+            surrogates = fourBytes && decoder.charset() == StandardCharsets.UTF_8;
         }
-        return buf.toString();
+        else {
+            result = decoder.decode(ByteBuffer.wrap(bytes)).toString();
+            surrogates = containsSurrogates(result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the text has surrogate characters.
+     *
+     * @param text the text to check
+     * @return true if the text has surrogate characters
+     */
+    private static boolean containsSurrogates(String text) {
+        return text.chars().anyMatch(character -> Character.isSurrogate((char) character));
     }
 
     /**
@@ -222,7 +251,21 @@ public final class FileText {
      * @return the line with the given number
      */
     public String get(final int lineNo) {
-        return lines[lineNo];
+        String line = lines[lineNo];
+        if (line == null) {
+            // lines are only missing in texts read from files, which index line breaks
+            final int start = lineBreaks[lineNo];
+            int end = lineBreaks[lineNo + 1];
+            if (end > start && fullText.charAt(end - 1) == '\n') {
+                end--;
+            }
+            if (end > start && fullText.charAt(end - 1) == '\r') {
+                end--;
+            }
+            line = fullText.substring(start, end);
+            lines[lineNo] = line;
+        }
+        return line;
     }
 
     /**
@@ -253,6 +296,17 @@ public final class FileText {
         return fullText;
     }
 
+    /**
+     * Checks whether the full text may have surrogate characters, which encode
+     * supplementary code points as pairs. A text read as UTF-8 with malformed
+     * sequences of four bytes is reported to have them too.
+     *
+     * @return true if the text may have surrogate characters
+     */
+    public boolean hasSurrogates() {
+        return surrogates;
+    }
+
     /**
      * Returns an array of all lines.
      * {@code text.toLinesArray()} is equivalent to
@@ -261,7 +315,11 @@ public final class FileText {
      * @return an array of all lines of the text
      */
     public String[] toLinesArray() {
-        return lines.clone();
+        final String[] result = new String[lines.length];
+        for (int lineNo = 0; lineNo < result.length; lineNo++) {
+            result[lineNo] = get(lineNo);
+        }
+        return result;
     }
 
     /**
@@ -286,25 +344,45 @@ public final class FileText {
 
     /**
      * Find positions of line breaks in the full text.
+     * It is synchronized, as checks may access the text from several threads.
      *
      * @return an array giving the first positions of each line.
      */
-    private int[] findLineBreaks() {
+    private synchronized int[] findLineBreaks() {
         if (lineBreaks == null) {
-            final int[] lineBreakPositions = new int[size() + 1];
-            lineBreakPositions[0] = 0;
-            int lineNo = 1;
-            final Matcher matcher = LINE_TERMINATOR.matcher(fullText);
-            while (matcher.find()) {
-                lineBreakPositions[lineNo] = matcher.end();
-                lineNo++;
+            lineBreaks = indexLineBreaks(fullText);
+        }
+        return lineBreaks;
+    }
+
+    /**
+     * Finds the first position of each line in the text, splitting lines like
+     * {@link java.io.BufferedReader#readLine()} does at "\n", "\r" and "\r\n".
+     * The last element is the end of the last line including its terminator.
+     *
+     * @param text the text to index
+     * @return an array giving the first positions of each line and the end of the text
+     */
+    private static int[] indexLineBreaks(String text) {
+        final int length = text.length();
+        int[] positions = new int[length / AVERAGE_LINE_LENGTH + 2];
+        int count = 1;
+        int index = 0;
+        while (index < length) {
+            final char character = text.charAt(index);
+            index++;
+            if (character == '\r' && index < length && text.charAt(index) == '\n') {
+                index++;
             }
-            if (lineNo < lineBreakPositions.length) {
-                lineBreakPositions[lineNo] = fullText.length();
+            if (character == '\n' || character == '\r' || index == length) {
+                if (count == positions.length) {
+                    positions = Arrays.copyOf(positions, count * 2);
+                }
+                positions[count] = index;
+                count++;
             }
-            lineBreaks = lineBreakPositions;
         }
-        return lineBreaks;
+        return Arrays.copyOf(positions, count);
     }
 
     /**
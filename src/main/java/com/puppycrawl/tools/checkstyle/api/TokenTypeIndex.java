@@ -0,0 +1,270 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+/**
+ * Index of the nodes of an AST by token type, in document order. Descendants
+ * of a node follow it in document order, so the nodes of a type in a subtree
+ * are found by binary search, without walking the subtree.
+ *
+ * <p>Comment nodes are not indexed, so the index is the same for the AST with
+ * and without comment nodes. Checks get the index of the current file with
+ * {@code getAnalysis(TokenTypeIndex.PASS, rootAst)}.</p>
+ */
+public final class TokenTypeIndex {
+
+    /** Analysis pass, which indexes the AST of a file. */
+    public static final AnalysisPass<TokenTypeIndex> PASS = TokenTypeIndex::new;
+
+    /** Indexed nodes in document order. */
+    private final List<DetailAST> nodes = new ArrayList<>();
+
+    /** Positions of the indexed nodes in document order. */
+    private final Map<DetailAST, Integer> positions = new IdentityHashMap<>();
+
+    /** Positions of nodes of each type in document order. */
+    private final int[][] positionsByType;
+
+    /** Position after the last descendant of each node. */
+    private final int[] subtreeEnds;
+
+    /** Depth of each node, where top level nodes have depth zero. */
+    private final int[] depths;
+
+    /**
+     * Creates the index of the AST.
+     *
+     * @param rootAst the first top level node of the AST, may be {@code null}
+     */
+    public TokenTypeIndex(DetailAST rootAst) {
+        final List<Integer> parentPositions = new ArrayList<>();
+        int maxType = 0;
+        DetailAST node = rootAst;
+        while (node != null) {
+            if (!TokenUtil.isCommentType(node.getType())) {
+                positions.put(node, nodes.size());
+                nodes.add(node);
+                parentPositions.add(getPosition(node.getParent()));
+                maxType = Math.max(maxType, node.getType());
+            }
+            node = getNextInDocumentOrder(node);
+        }
+
+        final int size = nodes.size();
+        subtreeEnds = new int[size];
+        depths = new int[size];
+        final int[] typeCounts = new int[maxType + 1];
+        for (int position = size - 1; position >= 0; position--) {
+            if (subtreeEnds[position] == 0) {
+                subtreeEnds[position] = position + 1;
+            }
+            final int parent = parentPositions.get(position);
+            if (parent >= 0 && subtreeEnds[parent] == 0) {
+                // the last descendant of the parent is the last one of its last child
+                subtreeEnds[parent] = subtreeEnds[position];
+            }
+            typeCounts[nodes.get(position).getType()]++;
+        }
+        positionsByType = new int[maxType + 1][];
+        for (int type = 0; type <= maxType; type++) {
+            positionsByType[type] = new int[typeCounts[type]];
+        }
+        Arrays.fill(typeCounts, 0);
+        for (int position = 0; position < size; position++) {
+            final int parent = parentPositions.get(position);
+            if (parent >= 0) {
+                depths[position] = depths[parent] + 1;
+            }
+            final int type = nodes.get(position).getType();
+            positionsByType[type][typeCounts[type]] = position;
+            typeCounts[type]++;
+        }
+    }
+
+    /**
+     * Checks whether the node is indexed. Comment nodes and nodes of other
+     * files are not indexed.
+     *
+     * @param ast the node
+     * @return true if the node is indexed
+     */
+    public boolean contains(DetailAST ast) {
+        return positions.containsKey(ast);
+    }
+
+    /**
+     * Gets all nodes of the type in document order.
+     *
+     * @param type the token type
+     * @return the nodes
+     */
+    public List<DetailAST> getNodes(int type) {
+        final List<DetailAST> result;
+        if (type < 0 || type >= positionsByType.length) {
+            result = Collections.emptyList();
+        }
+        else {
+            result = toNodes(positionsByType[type], 0, positionsByType[type].length);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the node and its descendants of the type in document order.
+     *
+     * @param ast the indexed node
+     * @param type the token type
+     * @return the nodes
+     * @throws IllegalArgumentException if the node is not indexed
+     */
+    public List<DetailAST> getSubtreeNodes(DetailAST ast, int type) {
+        final int position = getIndexedPosition(ast);
+        final List<DetailAST> result;
+        if (type < 0 || type >= positionsByType.length) {
+            result = Collections.emptyList();
+        }
+        else {
+            final int[] typePositions = positionsByType[type];
+            result = toNodes(typePositions,
+                    findFirstNotBefore(typePositions, position),
+                    findFirstNotBefore(typePositions, subtreeEnds[position]));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the node and its descendants of the type, whose depth relative
+     * to the node is in the range.
+     *
+     * @param ast the indexed node
+     * @param type the token type
+     * @param minimumDepth the minimum relative depth, zero for the node itself
+     * @param maximumDepth the maximum relative depth
+     * @return the number of nodes
+     * @throws IllegalArgumentException if the node is not indexed
+     */
+    public int countSubtreeNodes(DetailAST ast, int type, int minimumDepth, int maximumDepth) {
+        final int position = getIndexedPosition(ast);
+        int result = 0;
+        if (type >= 0 && type < positionsByType.length) {
+            final int[] typePositions = positionsByType[type];
+            final int start = findFirstNotBefore(typePositions, position);
+            final int end = findFirstNotBefore(typePositions, subtreeEnds[position]);
+            if (minimumDepth <= 0 && maximumDepth == Integer.MAX_VALUE) {
+                result = end - start;
+            }
+            else {
+                for (int index = start; index < end; index++) {
+                    final int depth = depths[typePositions[index]] - depths[position];
+                    if (depth >= minimumDepth && depth <= maximumDepth) {
+                        result++;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the position of an indexed node.
+     *
+     * @param ast the node
+     * @return the position
+     * @throws IllegalArgumentException if the node is not indexed
+     */
+    private int getIndexedPosition(DetailAST ast) {
+        final Integer position = positions.get(ast);
+        if (position == null) {
+            throw new IllegalArgumentException("Node is not indexed: " + ast);
+        }
+        return position;
+    }
+
+    /**
+     * Gets the position of a node.
+     *
+     * @param ast the node, may be {@code null}
+     * @return the position, or -1 if the node is not indexed
+     */
+    private int getPosition(DetailAST ast) {
+        return positions.getOrDefault(ast, -1);
+    }
+
+    /**
+     * Gets nodes at the positions.
+     *
+     * @param nodePositions positions of nodes
+     * @param start the first index of positions
+     * @param end the index after the last index of positions
+     * @return the nodes
+     */
+    private List<DetailAST> toNodes(int[] nodePositions, int start, int end) {
+        final List<DetailAST> result = new ArrayList<>(end - start);
+        for (int index = start; index < end; index++) {
+            result.add(nodes.get(nodePositions[index]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Finds the first of the sorted positions, which is not before the position.
+     *
+     * @param sortedPositions the sorted positions
+     * @param position the position
+     * @return the index of the found position, or the length of positions
+     */
+    private static int findFirstNotBefore(int[] sortedPositions, int position) {
+        final int index = Arrays.binarySearch(sortedPositions, position);
+        final int result;
+        if (index < 0) {
+            result = -index - 1;
+        }
+        else {
+            result = index;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the next node in document order.
+     *
+     * @param ast the node
+     * @return the next node, or {@code null} if it is the last one
+     */
+    private static DetailAST getNextInDocumentOrder(DetailAST ast) {
+        DetailAST result = ast.getFirstChild();
+        DetailAST node = ast;
+        while (result == null && node != null) {
+            result = node.getNextSibling();
+            node = node.getParent();
+        }
+        return result;
+    }
+
+}
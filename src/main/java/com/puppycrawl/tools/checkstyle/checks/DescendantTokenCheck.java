@@ -26,6 +26,7 @@ import com.puppycrawl.tools.checkstyle.PropertyType;
 import com.puppycrawl.tools.checkstyle.XdocsPropertyType;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypeIndex;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
@@ -359,6 +360,12 @@ public class DescendantTokenCheck extends AbstractCheck {
      */
     private int[] counts = CommonUtil.EMPTY_INT_ARRAY;
 
+    /** Whether comment tokens are limited, which are not in the token type index. */
+    private boolean commentTokensLimited;
+
+    /** Index of the nodes of the current file by token type. */
+    private TokenTypeIndex tokenTypeIndex;
+
     @Override
     public int[] getAcceptableTokens() {
         return TokenUtil.getAllTokenIds();
@@ -374,11 +381,21 @@ public class DescendantTokenCheck extends AbstractCheck {
         return CommonUtil.EMPTY_INT_ARRAY;
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        tokenTypeIndex = getAnalysis(TokenTypeIndex.PASS, rootAST);
+    }
+
     @Override
     public void visitToken(DetailAST ast) {
         // reset counts
         Arrays.fill(counts, 0);
-        countTokens(ast, 0);
+        if (commentTokensLimited || !tokenTypeIndex.contains(ast)) {
+            countTokens(ast, 0);
+        }
+        else {
+            countTokensByIndex(ast);
+        }
 
         if (sumTokenCounts) {
             logAsTotal(ast);
@@ -485,6 +502,19 @@ public class DescendantTokenCheck extends AbstractCheck {
         }
     }
 
+    /**
+     * Counts the number of occurrences of descendant tokens with the token type index,
+     * without walking the subtree.
+     *
+     * @param ast the root token for descendants.
+     */
+    private void countTokensByIndex(DetailAST ast) {
+        for (int element : limitedTokens) {
+            counts[element - 1] = tokenTypeIndex.countSubtreeNodes(ast, element,
+                    minimumDepth, maximumDepth);
+        }
+    }
+
     /**
      * Setter to specify set of tokens with limited occurrences as descendants.
      *
@@ -501,6 +531,7 @@ public class DescendantTokenCheck extends AbstractCheck {
             }
         }
         counts = new int[maxToken];
+        commentTokensLimited = Arrays.stream(limitedTokens).anyMatch(TokenUtil::isCommentType);
     }
 
     /**
@@ -28,10 +28,9 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
-import net.sf.saxon.Configuration;
+import com.puppycrawl.tools.checkstyle.xpath.XpathEngine;
 import net.sf.saxon.om.Item;
 import net.sf.saxon.sxpath.XPathDynamicContext;
-import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trans.XPathException;
 
@@ -238,9 +237,7 @@ public class MatchXpathCheck extends AbstractCheck {
         this.query = query;
         if (!query.isEmpty()) {
             try {
-                final XPathEvaluator xpathEvaluator =
-                        new XPathEvaluator(Configuration.newConfiguration());
-                xpathExpression = xpathEvaluator.createExpression(query);
+                xpathExpression = XpathEngine.getExpression(query);
             }
             catch (XPathException ex) {
                 throw new IllegalStateException("Creating Xpath expression failed: " + query, ex);
@@ -828,6 +828,7 @@ public class CustomImportOrderCheck extends AbstractCheck {
 
     @Override
     public int[] getRequiredTokens() {
+        // imports are taken from the import table, the tokens are kept for configurations
         return new int[] {
             TokenTypes.IMPORT,
             TokenTypes.STATIC_IMPORT,
@@ -838,24 +839,18 @@ public class CustomImportOrderCheck extends AbstractCheck {
     @Override
     public void beginTree(DetailAST rootAST) {
         importToGroupList.clear();
-    }
-
-    @Override
-    public void visitToken(DetailAST ast) {
-        if (ast.getType() == TokenTypes.PACKAGE_DEF) {
+        final ImportTable table = getAnalysis(ImportTable.PASS, rootAST);
+        final DetailAST packageDef = table.getPackageDef();
+        if (packageDef != null) {
             samePackageDomainsRegExp = createSamePackageRegexp(
-                    samePackageMatchingDepth, ast);
+                    samePackageMatchingDepth, packageDef);
         }
-        else {
-            final String importFullPath = getFullImportIdent(ast);
-            final boolean isStatic = ast.getType() == TokenTypes.STATIC_IMPORT;
+        for (ImportTable.Entry entry : table.getImports()) {
+            final String importFullPath = entry.getName().getText();
+            final boolean isStatic = entry.isStatic();
             importToGroupList.add(new ImportDetails(importFullPath,
-                    getImportGroup(isStatic, importFullPath), isStatic, ast));
+                    getImportGroup(isStatic, importFullPath), isStatic, entry.getImportAst()));
         }
-    }
-
-    @Override
-    public void finishTree(DetailAST rootAST) {
         if (!importToGroupList.isEmpty()) {
             finishImportList();
         }
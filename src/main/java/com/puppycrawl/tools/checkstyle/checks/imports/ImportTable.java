@@ -0,0 +1,155 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.imports;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.AnalysisPass;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FullIdent;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * The package definition and the imports of a file in declaration order.
+ * Import checks, which need all imports of a file, get the table with
+ * {@link #PASS}, so the imports are collected once per file.
+ */
+final class ImportTable {
+
+    /** Analysis pass, which collects the imports of a file. */
+    /* package */ static final AnalysisPass<ImportTable> PASS = ImportTable::new;
+
+    /** Imports in declaration order. */
+    private final List<Entry> imports = new ArrayList<>();
+
+    /** Imports by their import statements. */
+    private final Map<DetailAST, Entry> entries = new IdentityHashMap<>();
+
+    /** Package definition of the file, {@code null} for the unnamed package. */
+    private DetailAST packageDef;
+
+    /**
+     * Collects the imports of the file.
+     *
+     * @param rootAst the root of the AST
+     */
+    private ImportTable(DetailAST rootAst) {
+        for (DetailAST node = rootAst.getFirstChild(); node != null;
+                node = node.getNextSibling()) {
+            final int type = node.getType();
+            if (type == TokenTypes.PACKAGE_DEF) {
+                packageDef = node;
+            }
+            else if (type == TokenTypes.IMPORT || type == TokenTypes.STATIC_IMPORT) {
+                final Entry entry = new Entry(node);
+                imports.add(entry);
+                entries.put(node, entry);
+            }
+        }
+    }
+
+    /**
+     * Gets the package definition of the file.
+     *
+     * @return the package definition, {@code null} for the unnamed package
+     */
+    public DetailAST getPackageDef() {
+        return packageDef;
+    }
+
+    /**
+     * Gets the imports of the file in declaration order.
+     *
+     * @return unmodifiable list of the imports
+     */
+    public List<Entry> getImports() {
+        return Collections.unmodifiableList(imports);
+    }
+
+    /**
+     * Gets the import of an import statement of the file.
+     *
+     * @param importAst the import statement
+     * @return the import
+     */
+    public Entry getEntry(DetailAST importAst) {
+        return entries.get(importAst);
+    }
+
+    /**
+     * An import statement of the file.
+     */
+    /* package */ static final class Entry {
+
+        /** The import statement. */
+        private final DetailAST importAst;
+
+        /** The imported name, including {@code .*} of on-demand imports. */
+        private final FullIdent name;
+
+        /**
+         * Creates the entry of the import statement.
+         *
+         * @param importAst the import statement
+         */
+        private Entry(DetailAST importAst) {
+            this.importAst = importAst;
+            if (importAst.getType() == TokenTypes.STATIC_IMPORT) {
+                name = FullIdent.createFullIdent(importAst.getFirstChild().getNextSibling());
+            }
+            else {
+                name = FullIdent.createFullIdentBelow(importAst);
+            }
+        }
+
+        /**
+         * Gets the import statement.
+         *
+         * @return the import statement
+         */
+        public DetailAST getImportAst() {
+            return importAst;
+        }
+
+        /**
+         * Gets the imported name.
+         *
+         * @return the imported name
+         */
+        public FullIdent getName() {
+            return name;
+        }
+
+        /**
+         * Checks whether it is a static import.
+         *
+         * @return true for a static import
+         */
+        public boolean isStatic() {
+            return importAst.getType() == TokenTypes.STATIC_IMPORT;
+        }
+
+    }
+
+}
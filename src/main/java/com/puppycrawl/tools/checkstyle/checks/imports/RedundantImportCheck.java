@@ -19,9 +19,6 @@
 
 package com.puppycrawl.tools.checkstyle.checks.imports;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -103,19 +100,16 @@ public class RedundantImportCheck
      */
     public static final String MSG_DUPLICATE = "import.duplicate";
 
-    /** Set of the imports. */
-    private final Set<FullIdent> imports = new HashSet<>();
-    /** Set of static imports. */
-    private final Set<FullIdent> staticImports = new HashSet<>();
+    /** Imports of the file. */
+    private ImportTable importTable;
 
     /** Name of package in file. */
     private String pkgName;
 
     @Override
     public void beginTree(DetailAST aRootAST) {
+        importTable = getAnalysis(ImportTable.PASS, aRootAST);
         pkgName = null;
-        imports.clear();
-        staticImports.clear();
     }
 
     @Override
@@ -141,32 +135,39 @@ public class RedundantImportCheck
             pkgName = FullIdent.createFullIdent(
                     ast.getLastChild().getPreviousSibling()).getText();
         }
-        else if (ast.getType() == TokenTypes.IMPORT) {
-            final FullIdent imp = FullIdent.createFullIdentBelow(ast);
-            final String importText = imp.getText();
-            if (isFromPackage(importText, "java.lang")) {
-                log(ast, MSG_LANG, importText);
-            }
-            // imports from unnamed package are not allowed,
-            // so we are checking SAME rule only for named packages
-            else if (pkgName != null && isFromPackage(importText, pkgName)) {
-                log(ast, MSG_SAME, importText);
+        else {
+            final ImportTable.Entry entry = importTable.getEntry(ast);
+            if (!entry.isStatic()) {
+                final String importText = entry.getName().getText();
+                if (isFromPackage(importText, "java.lang")) {
+                    log(ast, MSG_LANG, importText);
+                }
+                // imports from unnamed package are not allowed,
+                // so we are checking SAME rule only for named packages
+                else if (pkgName != null && isFromPackage(importText, pkgName)) {
+                    log(ast, MSG_SAME, importText);
+                }
             }
-            // Check for a duplicate import
-            imports.stream().filter(full -> importText.equals(full.getText()))
-                .forEach(full -> log(ast, MSG_DUPLICATE, full.getLineNo(), importText));
-
-            imports.add(imp);
+            checkDuplicate(entry);
         }
-        else {
-            // Check for a duplicate static import
-            final FullIdent imp =
-                FullIdent.createFullIdent(
-                    ast.getLastChild().getPreviousSibling());
-            staticImports.stream().filter(full -> imp.getText().equals(full.getText()))
-                .forEach(full -> log(ast, MSG_DUPLICATE, full.getLineNo(), imp.getText()));
-
-            staticImports.add(imp);
+    }
+
+    /**
+     * Checks that an import is not a duplicate of a preceding import of the same kind.
+     *
+     * @param entry the import
+     */
+    private void checkDuplicate(ImportTable.Entry entry) {
+        final String importText = entry.getName().getText();
+        for (ImportTable.Entry previous : importTable.getImports()) {
+            if (previous == entry) {
+                break;
+            }
+            if (previous.isStatic() == entry.isStatic()
+                    && importText.equals(previous.getName().getText())) {
+                log(entry.getImportAst(), MSG_DUPLICATE,
+                        previous.getName().getLineNo(), importText);
+            }
         }
     }
 
@@ -31,7 +31,6 @@ import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
-import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TextBlock;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocTag;
@@ -139,9 +138,6 @@ public class UnusedImportsCheck extends AbstractCheck {
     /** Suffix for the star import. */
     private static final String STAR_IMPORT_SUFFIX = ".*";
 
-    /** Set of the imports. */
-    private final Set<FullIdent> imports = new HashSet<>();
-
     /** Flag to indicate when time to start collecting references. */
     private boolean collect;
     /** Control whether to process Javadoc comments. */
@@ -166,14 +162,15 @@ public class UnusedImportsCheck extends AbstractCheck {
     public void beginTree(DetailAST rootAST) {
         collect = false;
         currentFrame = Frame.compilationUnit();
-        imports.clear();
     }
 
     @Override
     public void finishTree(DetailAST rootAST) {
         currentFrame.finish();
         // loop over all the imports to see if referenced.
-        imports.stream()
+        getAnalysis(ImportTable.PASS, rootAST).getImports().stream()
+            .map(ImportTable.Entry::getName)
+            .filter(imprt -> !imprt.getText().endsWith(STAR_IMPORT_SUFFIX))
             .filter(imprt -> isUnusedImport(imprt.getText()))
             .forEach(imprt -> log(imprt.getDetailAst(), MSG_KEY, imprt.getText()));
     }
@@ -222,10 +219,8 @@ public class UnusedImportsCheck extends AbstractCheck {
                 }
                 break;
             case TokenTypes.IMPORT:
-                processImport(ast);
-                break;
             case TokenTypes.STATIC_IMPORT:
-                processStaticImport(ast);
+                // imports are taken from the import table of the file in finishTree
                 break;
             case TokenTypes.OBJBLOCK:
             case TokenTypes.SLIST:
@@ -283,32 +278,6 @@ public class UnusedImportsCheck extends AbstractCheck {
         }
     }
 
-    /**
-     * Collects the details of imports.
-     *
-     * @param ast node containing the import details
-     */
-    private void processImport(DetailAST ast) {
-        final FullIdent name = FullIdent.createFullIdentBelow(ast);
-        if (!name.getText().endsWith(STAR_IMPORT_SUFFIX)) {
-            imports.add(name);
-        }
-    }
-
-    /**
-     * Collects the details of static imports.
-     *
-     * @param ast node containing the static import details
-     */
-    private void processStaticImport(DetailAST ast) {
-        final FullIdent name =
-            FullIdent.createFullIdent(
-                ast.getFirstChild().getNextSibling());
-        if (!name.getText().endsWith(STAR_IMPORT_SUFFIX)) {
-            imports.add(name);
-        }
-    }
-
     /**
      * Collects references made in Javadoc comments.
      *
@@ -20,17 +20,18 @@
 package com.puppycrawl.tools.checkstyle.checks.javadoc;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser;
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser.ParseErrorMessage;
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser.ParseStatus;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.AnalysisPass;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.DetailNode;
 import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
@@ -72,11 +73,12 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
             JavadocDetailNodeParser.MSG_JAVADOC_PARSE_RULE_ERROR;
 
     /**
-     * Key is "line:column". Value is {@link DetailNode} tree. Map is stored in {@link ThreadLocal}
-     * to guarantee basic thread safety and avoid shared, mutable state when not necessary.
+     * Analysis pass of parsed Javadoc comments of a file, shared by all Javadoc checks.
+     * Key is "line:column". Value is {@link DetailNode} tree. Comments are parsed on
+     * demand, possibly by checks on several threads, so the map is concurrent.
      */
-    private static final ThreadLocal<Map<LineColumn, ParseStatus>> TREE_CACHE =
-            ThreadLocal.withInitial(HashMap::new);
+    private static final AnalysisPass<Map<LineColumn, ParseStatus>> JAVADOC_TREES =
+            rootAst -> new ConcurrentHashMap<>();
 
     /**
      * The file context.
@@ -291,7 +293,7 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
 
     @Override
     public final void beginTree(DetailAST rootAST) {
-        TREE_CACHE.get().clear();
+        context.get().javadocTrees = getAnalysis(JAVADOC_TREES, rootAST);
     }
 
     @Override
@@ -308,9 +310,9 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
             final LineColumn treeCacheKey = new LineColumn(blockCommentNode.getLineNo(),
                     blockCommentNode.getColumnNo());
 
-            final ParseStatus result = TREE_CACHE.get().computeIfAbsent(treeCacheKey, key -> {
-                return context.get().parser.parseJavadocAsDetailNode(blockCommentNode);
-            });
+            final FileContext fileContext = context.get();
+            final ParseStatus result = fileContext.javadocTrees.computeIfAbsent(treeCacheKey,
+                    key -> fileContext.parser.parseJavadocAsDetailNode(blockCommentNode));
 
             if (result.getParseErrorMessage() == null) {
                 if (acceptJavadocWithNonTightHtml() || !result.isNonTight()) {
@@ -399,7 +401,6 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
     public void destroy() {
         super.destroy();
         context.remove();
-        TREE_CACHE.remove();
     }
 
     /**
@@ -418,6 +419,9 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
          */
         private DetailAST blockCommentAst;
 
+        /** Parsed Javadoc comments of the current file. */
+        private Map<LineColumn, ParseStatus> javadocTrees;
+
     }
 
 }
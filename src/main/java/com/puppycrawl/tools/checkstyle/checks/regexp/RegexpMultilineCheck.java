@@ -268,12 +268,15 @@ public class RegexpMultilineCheck extends AbstractFileSetCheck {
     /** Control whether to match expressions across multiple lines. */
     private boolean matchAcrossLines;
 
-    /** The detector to use. */
-    private MultilineDetector detector;
+    /**
+     * The detector options to use. A new detector is created for every file,
+     * as detectors keep the state of the file being processed.
+     */
+    private DetectorOptions detectorOptions;
 
     @Override
     public void beginProcessing(String charset) {
-        final DetectorOptions options = DetectorOptions.newBuilder()
+        detectorOptions = DetectorOptions.newBuilder()
             .reporter(this)
             .compileFlags(getRegexCompileFlags())
             .format(format)
@@ -282,11 +285,11 @@ public class RegexpMultilineCheck extends AbstractFileSetCheck {
             .maximum(maximum)
             .ignoreCase(ignoreCase)
             .build();
-        detector = new MultilineDetector(options);
     }
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
+        final MultilineDetector detector = new MultilineDetector(detectorOptions);
         detector.processLines(fileText);
     }
 
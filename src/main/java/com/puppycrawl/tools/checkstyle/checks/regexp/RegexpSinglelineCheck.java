@@ -211,12 +211,15 @@ public class RegexpSinglelineCheck extends AbstractFileSetCheck {
     /** Control whether to ignore case when searching. */
     private boolean ignoreCase;
 
-    /** The detector to use. */
-    private SinglelineDetector detector;
+    /**
+     * The detector options to use. A new detector is created for every file,
+     * as detectors keep the state of the file being processed.
+     */
+    private DetectorOptions detectorOptions;
 
     @Override
     public void beginProcessing(String charset) {
-        final DetectorOptions options = DetectorOptions.newBuilder()
+        detectorOptions = DetectorOptions.newBuilder()
             .reporter(this)
             .compileFlags(0)
             .format(format)
@@ -225,11 +228,11 @@ public class RegexpSinglelineCheck extends AbstractFileSetCheck {
             .maximum(maximum)
             .ignoreCase(ignoreCase)
             .build();
-        detector = new SinglelineDetector(options);
     }
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
+        final SinglelineDetector detector = new SinglelineDetector(detectorOptions);
         detector.processLines(fileText);
     }
 
@@ -179,6 +179,33 @@ public class SuppressFilterElement
         }
     }
 
+    /**
+     * Gets the regexp to match file names against.
+     *
+     * @return the regexp, or {@code null} if file names are not filtered
+     */
+    /* package */ Pattern getFileRegexp() {
+        return fileRegexp;
+    }
+
+    /**
+     * Gets the regexp to match check names against.
+     *
+     * @return the regexp, or {@code null} if check names are not filtered
+     */
+    /* package */ Pattern getCheckRegexp() {
+        return checkRegexp;
+    }
+
+    /**
+     * Gets the module id filter.
+     *
+     * @return the module id, or {@code null} if module ids are not filtered
+     */
+    /* package */ String getModuleId() {
+        return moduleId;
+    }
+
     @Override
     public boolean accept(AuditEvent event) {
         return !isFileNameAndModuleNameMatching(event)
@@ -0,0 +1,464 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+
+/**
+ * Set of filters, which indexes {@link SuppressFilterElement} filters, so that
+ * an event is tested only against the elements which can suppress it.
+ *
+ * <p>A regular expression without alternatives, groups and flags matches
+ * only strings containing its longest run of literal characters, which are
+ * not quantified. Each element is indexed by such a literal of its file name
+ * pattern, or, if there is none, of its check name pattern, or else by its
+ * module id. Elements without any of them and other filters are tested against
+ * every event. Elements indexed by literals are looked up by all substrings of
+ * the file name or check name of the event, which are as long as some literal.</p>
+ */
+final class SuppressFilterSet extends FilterSet {
+
+    /** Minimum length of a literal to index an element by. */
+    private static final int MIN_LITERAL_LENGTH = 3;
+
+    /** Escaped letters, which stand for a single non-literal character. */
+    private static final String ESCAPED_CHARACTER_CLASSES = "dDwWsSbBAzZGhHvVRXtnrfae";
+
+    /** Characters, which quantify the preceding character. */
+    private static final String QUANTIFIERS = "*?+{";
+
+    /** Index of the filters, {@code null} until the first event after a change. */
+    private final AtomicReference<Index> index = new AtomicReference<>();
+
+    @Override
+    public void addFilter(Filter filter) {
+        super.addFilter(filter);
+        index.set(null);
+    }
+
+    @Override
+    public void removeFilter(Filter filter) {
+        super.removeFilter(filter);
+        index.set(null);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        index.set(null);
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        Index current = index.get();
+        if (current == null) {
+            current = new Index(getFilters());
+            index.set(current);
+        }
+        return current.accept(event);
+    }
+
+    /**
+     * Finds the longest run of literal characters, which a string must contain
+     * to match the pattern.
+     *
+     * @param pattern the pattern
+     * @return the literal, empty if the pattern does not require any literal
+     */
+    /* package */ static String getRequiredLiteral(Pattern pattern) {
+        String result = "";
+        final String regex = pattern.pattern();
+        if (pattern.flags() == 0 && regex.indexOf('|') < 0 && regex.indexOf('(') < 0) {
+            result = new LiteralScanner(regex).scan();
+        }
+        return result;
+    }
+
+    /**
+     * Skips a character class, which may contain nested classes.
+     *
+     * @param regex the regular expression
+     * @param start the position of the opening bracket
+     * @return the position after the closing bracket
+     */
+    private static int skipCharacterClass(String regex, int start) {
+        int position = start + 1;
+        if (regex.charAt(position) == '^') {
+            position++;
+        }
+        // a closing bracket at the start of the class is literal
+        if (regex.charAt(position) == ']') {
+            position++;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            final char character = regex.charAt(position);
+            if (character == '\\') {
+                position++;
+            }
+            else if (character == '[') {
+                depth++;
+            }
+            else if (character == ']') {
+                depth--;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /** Index of filters, which is not changed after it is built. */
+    private static final class Index {
+
+        /** Filters, which are tested against every event. */
+        private final List<Filter> unindexedFilters = new ArrayList<>();
+
+        /** Elements by a literal of their file name pattern. */
+        private final LiteralIndex fileIndex = new LiteralIndex();
+
+        /** Elements by a literal of their check name pattern. */
+        private final LiteralIndex checkIndex = new LiteralIndex();
+
+        /** Elements by their module id. */
+        private final Map<String, List<Filter>> moduleIdIndex = new HashMap<>();
+
+        /** Elements found by the check name of events. */
+        private final Map<String, Collection<Filter>> checkCandidates =
+                new ConcurrentHashMap<>();
+
+        /** Elements found by the file name of the last event. */
+        private final AtomicReference<FileCandidates> lastFileCandidates =
+                new AtomicReference<>();
+
+        /**
+         * Creates the index of filters.
+         *
+         * @param filters the filters
+         */
+        private Index(Set<Filter> filters) {
+            for (Filter filter : filters) {
+                if (filter instanceof SuppressFilterElement) {
+                    add((SuppressFilterElement) filter);
+                }
+                else {
+                    unindexedFilters.add(filter);
+                }
+            }
+        }
+
+        /**
+         * Adds the element to the most selective index.
+         *
+         * @param element the element
+         */
+        private void add(SuppressFilterElement element) {
+            final String fileLiteral = getLiteral(element.getFileRegexp());
+            final String checkLiteral = getLiteral(element.getCheckRegexp());
+            if (fileLiteral.length() >= MIN_LITERAL_LENGTH) {
+                fileIndex.add(fileLiteral, element);
+            }
+            else if (checkLiteral.length() >= MIN_LITERAL_LENGTH) {
+                checkIndex.add(checkLiteral, element);
+            }
+            else if (element.getModuleId() == null) {
+                unindexedFilters.add(element);
+            }
+            else {
+                moduleIdIndex.computeIfAbsent(element.getModuleId(), id -> new ArrayList<>())
+                        .add(element);
+            }
+        }
+
+        /**
+         * Checks whether all filters, which can suppress the event, accept it.
+         *
+         * @param event the event
+         * @return true if the event is accepted
+         */
+        private boolean accept(AuditEvent event) {
+            boolean result = acceptAll(unindexedFilters, event);
+            // elements do not suppress events without file or violation
+            if (result && event.getFileName() != null && event.getViolation() != null) {
+                result = acceptAll(getFileCandidates(event.getFileName()), event)
+                        && acceptAll(getCheckCandidates(event.getSourceName()), event)
+                        && acceptAll(moduleIdIndex.getOrDefault(event.getModuleId(),
+                                Collections.emptyList()), event);
+            }
+            return result;
+        }
+
+        /**
+         * Gets elements indexed by literals of the file name. They are cached for
+         * the last file, as all events of a file are filtered together.
+         *
+         * @param fileName the file name
+         * @return elements, which can suppress events of the file
+         */
+        private Collection<Filter> getFileCandidates(String fileName) {
+            FileCandidates candidates = lastFileCandidates.get();
+            if (candidates == null || !candidates.fileName.equals(fileName)) {
+                candidates = new FileCandidates(fileName, fileIndex.find(fileName));
+                lastFileCandidates.set(candidates);
+            }
+            return candidates.filters;
+        }
+
+        /**
+         * Gets elements indexed by literals of the check name.
+         *
+         * @param sourceName the check name, may be {@code null}
+         * @return elements, which can suppress events of the check
+         */
+        private Collection<Filter> getCheckCandidates(String sourceName) {
+            Collection<Filter> result = Collections.emptyList();
+            if (sourceName != null) {
+                result = checkCandidates.computeIfAbsent(sourceName, checkIndex::find);
+            }
+            return result;
+        }
+
+        /**
+         * Gets the literal, which matching strings contain.
+         *
+         * @param pattern the pattern, may be {@code null}
+         * @return the literal, empty if there is none
+         */
+        private static String getLiteral(Pattern pattern) {
+            String result = "";
+            if (pattern != null) {
+                result = getRequiredLiteral(pattern);
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether all filters accept the event.
+         *
+         * @param filters the filters
+         * @param event the event
+         * @return true if all filters accept the event
+         */
+        private static boolean acceptAll(Collection<Filter> filters, AuditEvent event) {
+            boolean result = true;
+            for (Filter filter : filters) {
+                if (!filter.accept(event)) {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /** Filters by literals, which are looked up by substrings of a string. */
+    private static final class LiteralIndex {
+
+        /** Filters by literal. */
+        private final Map<String, List<Filter>> filters = new HashMap<>();
+
+        /** Distinct lengths of the literals. */
+        private final Set<Integer> lengths = new TreeSet<>();
+
+        /**
+         * Adds the filter by the literal.
+         *
+         * @param literal the literal
+         * @param filter the filter
+         */
+        private void add(String literal, Filter filter) {
+            filters.computeIfAbsent(literal, key -> new ArrayList<>()).add(filter);
+            lengths.add(literal.length());
+        }
+
+        /**
+         * Finds filters by the literals, which the string contains.
+         *
+         * @param value the string
+         * @return the filters
+         */
+        private Collection<Filter> find(String value) {
+            final Set<Filter> result = new LinkedHashSet<>();
+            for (int length : lengths) {
+                for (int start = 0; start + length <= value.length(); start++) {
+                    final List<Filter> found = filters.get(value.substring(start, start + length));
+                    if (found != null) {
+                        result.addAll(found);
+                    }
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /** Elements, which can suppress events of a file. */
+    private static final class FileCandidates {
+
+        /** The file name. */
+        private final String fileName;
+
+        /** The elements. */
+        private final Collection<Filter> filters;
+
+        /**
+         * Creates elements of the file.
+         *
+         * @param fileName the file name
+         * @param filters the elements
+         */
+        private FileCandidates(String fileName, Collection<Filter> filters) {
+            this.fileName = fileName;
+            this.filters = filters;
+        }
+
+    }
+
+    /**
+     * Scanner of a regular expression without alternatives and groups, which finds
+     * its longest run of literal characters, which are not quantified.
+     */
+    private static final class LiteralScanner {
+
+        /** The regular expression. */
+        private final String regex;
+
+        /** The current run of literal characters. */
+        private final StringBuilder run = new StringBuilder();
+
+        /** The longest run so far. */
+        private String longest = "";
+
+        /** Position of the next character to scan. */
+        private int position;
+
+        /** Whether all constructs of the expression so far are supported. */
+        private boolean supported = true;
+
+        /**
+         * Creates the scanner.
+         *
+         * @param regex the regular expression
+         */
+        private LiteralScanner(String regex) {
+            this.regex = regex;
+        }
+
+        /**
+         * Scans the expression.
+         *
+         * @return the literal, empty if there is none or the expression is not supported
+         */
+        private String scan() {
+            while (supported && position < regex.length()) {
+                final char character = regex.charAt(position);
+                if (character == '\\') {
+                    scanEscape(regex.charAt(position + 1));
+                }
+                else if (character == '[') {
+                    endRun();
+                    position = skipCharacterClass(regex, position);
+                }
+                else if (QUANTIFIERS.indexOf(character) >= 0) {
+                    scanQuantifier(character);
+                }
+                else {
+                    if (character == '.' || character == '^' || character == '$') {
+                        endRun();
+                    }
+                    else {
+                        run.append(character);
+                    }
+                    position++;
+                }
+            }
+            endRun();
+            String result = longest;
+            if (!supported) {
+                result = "";
+            }
+            return result;
+        }
+
+        /**
+         * Scans an escaped character.
+         *
+         * @param escaped the character after the backslash
+         */
+        private void scanEscape(char escaped) {
+            if (!Character.isLetterOrDigit(escaped)) {
+                run.append(escaped);
+            }
+            else if (ESCAPED_CHARACTER_CLASSES.indexOf(escaped) >= 0) {
+                endRun();
+            }
+            else {
+                // hexadecimal, unicode, octal characters, properties, quotes, references
+                supported = false;
+            }
+            position += 2;
+        }
+
+        /**
+         * Scans a quantifier.
+         *
+         * @param quantifier the first character of the quantifier
+         */
+        private void scanQuantifier(char quantifier) {
+            // the run ends before a quantifier, so its last character is quantified
+            if (run.length() > 0) {
+                run.setLength(run.length() - 1);
+            }
+            endRun();
+            if (quantifier == '{') {
+                position = regex.indexOf('}', position) + 1;
+                supported = position > 0;
+            }
+            else {
+                position++;
+            }
+        }
+
+        /** Ends the current run of literal characters. */
+        private void endRun() {
+            if (run.length() > longest.length()) {
+                longest = run.toString();
+            }
+            run.setLength(0);
+        }
+
+    }
+
+}
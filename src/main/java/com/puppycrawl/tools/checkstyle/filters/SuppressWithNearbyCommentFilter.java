@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.filters;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -273,9 +274,15 @@ public class SuppressWithNearbyCommentFilter
     /** Default regex for lines that should be suppressed. */
     private static final String DEFAULT_INFLUENCE_FORMAT = "0";
 
-    /** Tagged comments. */
+    /** Tagged comments, sorted by the first line of their suppression. */
     private final List<Tag> tags = new ArrayList<>();
 
+    /**
+     * The maximum last line of suppression of each tag and all tags before it.
+     * A tag and all tags before it can not suppress a line after this one.
+     */
+    private int[] maxLastLines = new int[0];
+
     /** Control whether to check C style comments ({@code &#47;* ... *&#47;}). */
     private boolean checkC = true;
 
@@ -427,21 +434,45 @@ public class SuppressWithNearbyCommentFilter
 
     /**
      * Whether current event matches any tag from {@link #tags}.
+     * Only tags, which start at or before the line of the event, are tested,
+     * from the nearest one back to the first one, whose preceding tags all end
+     * before the line.
      *
      * @param event TreeWalkerAuditEvent to test match on {@link #tags}.
      * @return true if event matches any tag from {@link #tags}, false otherwise.
      */
     private boolean matchesTag(TreeWalkerAuditEvent event) {
+        final int line = event.getLine();
         boolean result = false;
-        for (final Tag tag : tags) {
-            if (tag.isMatch(event)) {
-                result = true;
-                break;
-            }
+        int index = countTagsStartingBefore(line + 1);
+        while (!result && index > 0 && maxLastLines[index - 1] >= line) {
+            index--;
+            result = tags.get(index).isMatch(event);
         }
         return result;
     }
 
+    /**
+     * Counts tags, whose suppression starts before the line, by binary search.
+     *
+     * @param line the line number.
+     * @return the number of tags.
+     */
+    private int countTagsStartingBefore(int line) {
+        int low = 0;
+        int high = tags.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (tags.get(middle).firstLine < line) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     /**
      * Collects all the suppression tags for all comments into a list and
      * sorts the list.
@@ -457,6 +488,13 @@ public class SuppressWithNearbyCommentFilter
                 contents.getBlockComments().values();
             cComments.forEach(this::tagSuppressions);
         }
+        tags.sort(Comparator.comparingInt(tag -> tag.firstLine));
+        maxLastLines = new int[tags.size()];
+        int maxLastLine = Integer.MIN_VALUE;
+        for (int index = 0; index < maxLastLines.length; index++) {
+            maxLastLine = Math.max(maxLastLine, tags.get(index).lastLine);
+            maxLastLines[index] = maxLastLine;
+        }
     }
 
     /**
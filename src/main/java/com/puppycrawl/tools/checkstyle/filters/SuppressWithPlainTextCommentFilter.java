@@ -23,10 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -34,6 +35,7 @@ import java.util.regex.PatternSyntaxException;
 import com.puppycrawl.tools.checkstyle.PropertyType;
 import com.puppycrawl.tools.checkstyle.XdocsPropertyType;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Filter;
@@ -316,7 +318,8 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  *
  * @since 8.6
  */
-public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements Filter {
+public class SuppressWithPlainTextCommentFilter extends AutomaticBean
+        implements Filter, AuditListener {
 
     /** Comment format which turns checkstyle reporting off. */
     private static final String DEFAULT_OFF_FORMAT = "// CHECKSTYLE:OFF";
@@ -345,6 +348,18 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     @XdocsPropertyType(PropertyType.PATTERN)
     private String idFormat;
 
+    /**
+     * Suppressions of the file which was filtered last on the current thread.
+     *
+     * @noinspection ThreadLocalNotStaticFinal
+     * @noinspectionreason ThreadLocalNotStaticFinal - each filter instance has its own
+     *      suppressions, and filters are shared between threads in multi thread mode
+     */
+    private final ThreadLocal<FileSuppressions> fileSuppressions = new ThreadLocal<>();
+
+    /** Number of the current audit, suppressions of previous audits are not used. */
+    private final AtomicInteger auditNumber = new AtomicInteger();
+
     /**
      * Setter to specify comment pattern to trigger filter to begin suppression.
      *
@@ -394,10 +409,20 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     public boolean accept(AuditEvent event) {
         boolean accepted = true;
         if (event.getViolation() != null) {
-            final FileText fileText = getFileText(event.getFileName());
-            if (fileText != null) {
-                final List<Suppression> suppressions = getSuppressions(fileText);
-                accepted = getNearestSuppression(suppressions, event) == null;
+            final String fileName = event.getFileName();
+            final int audit = auditNumber.get();
+            FileSuppressions suppressions = fileSuppressions.get();
+            if (suppressions == null || !suppressions.isOf(fileName, audit)) {
+                suppressions = null;
+                // some violations can be on a directory, instead of a file
+                if (!new File(fileName).isDirectory()) {
+                    suppressions = new FileSuppressions(fileName, audit,
+                            getSuppressions(getFileText(fileName)));
+                    fileSuppressions.set(suppressions);
+                }
+            }
+            if (suppressions != null) {
+                accepted = suppressions.getNearestSuppression(event) == null;
             }
         }
         return accepted;
@@ -408,6 +433,42 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
         // No code by default
     }
 
+    /**
+     * Starts a new audit, so that files are read again when they are audited
+     * again, for example by the daemon after the files were changed.
+     *
+     * @param event the event details
+     */
+    @Override
+    public void auditStarted(AuditEvent event) {
+        auditNumber.incrementAndGet();
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        // No code by default
+    }
+
     /**
      * Returns {@link FileText} instance created based on the given file name.
      *
@@ -416,20 +477,12 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
      * @throws IllegalStateException if the file could not be read.
      */
     private static FileText getFileText(String fileName) {
-        final File file = new File(fileName);
-        FileText result = null;
-
-        // some violations can be on a directory, instead of a file
-        if (!file.isDirectory()) {
-            try {
-                result = new FileText(file, StandardCharsets.UTF_8.name());
-            }
-            catch (IOException ex) {
-                throw new IllegalStateException("Cannot read source file: " + fileName, ex);
-            }
+        try {
+            return new FileText(new File(fileName), StandardCharsets.UTF_8.name());
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Cannot read source file: " + fileName, ex);
         }
-
-        return result;
     }
 
     /**
@@ -472,25 +525,6 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
         return Optional.ofNullable(suppression);
     }
 
-    /**
-     * Finds the nearest {@link Suppression} instance which can suppress
-     * the given {@link AuditEvent}. The nearest suppression is the suppression which scope
-     * is before the line and column of the event.
-     *
-     * @param suppressions collection of {@link Suppression} instances.
-     * @param event {@link AuditEvent} instance.
-     * @return {@link Suppression} instance.
-     */
-    private static Suppression getNearestSuppression(Collection<Suppression> suppressions,
-                                                     AuditEvent event) {
-        return suppressions
-            .stream()
-            .filter(suppression -> suppression.isMatch(event))
-            .reduce((first, second) -> second)
-            .filter(suppression -> suppression.suppressionType != SuppressionType.ON)
-            .orElse(null);
-    }
-
     /** Enum which represents the type of the suppression. */
     private enum SuppressionType {
 
@@ -501,6 +535,77 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
 
     }
 
+    /**
+     * Suppressions of a file, ordered by line, which are looked up by the line
+     * of an event. They are created once per audit of a file, as a file usually
+     * has many events.
+     */
+    private static final class FileSuppressions {
+
+        /** Name of the file. */
+        private final String fileName;
+        /** Number of the audit in which the suppressions were created. */
+        private final int audit;
+        /** Suppressions of the file, ordered by line. */
+        private final List<Suppression> suppressions;
+        /** Lines of the suppressions, in the same order. */
+        private final int[] lines;
+
+        /**
+         * Creates suppressions of the file.
+         *
+         * @param fileName name of the file.
+         * @param audit number of the audit.
+         * @param suppressions suppressions of the file, ordered by line.
+         */
+        private FileSuppressions(String fileName, int audit, List<Suppression> suppressions) {
+            this.fileName = fileName;
+            this.audit = audit;
+            this.suppressions = suppressions;
+            lines = suppressions.stream().mapToInt(suppression -> suppression.lineNo).toArray();
+        }
+
+        /**
+         * Checks whether these are the suppressions of the file of an event in
+         * the same audit.
+         *
+         * @param name name of the file of an event.
+         * @param currentAudit number of the current audit.
+         * @return true if these are the suppressions of the file in the same audit.
+         */
+        private boolean isOf(String name, int currentAudit) {
+            return audit == currentAudit && fileName.equals(name);
+        }
+
+        /**
+         * Finds the nearest {@link Suppression} instance which can suppress
+         * the given {@link AuditEvent}. The nearest suppression is the suppression which scope
+         * is before the line and column of the event.
+         *
+         * @param event {@link AuditEvent} instance.
+         * @return {@link Suppression} instance.
+         */
+        private Suppression getNearestSuppression(AuditEvent event) {
+            int index = Arrays.binarySearch(lines, event.getLine());
+            if (index < 0) {
+                // index of the last suppression before the line
+                index = -index - 2;
+            }
+            Suppression result = null;
+            for (; index >= 0; index--) {
+                final Suppression suppression = suppressions.get(index);
+                if (suppression.isMatch(event)) {
+                    if (suppression.suppressionType != SuppressionType.ON) {
+                        result = suppression;
+                    }
+                    break;
+                }
+            }
+            return result;
+        }
+
+    }
+
     /** The class which represents the suppression. */
     private static final class Suppression {
 
@@ -507,19 +507,18 @@ public class SuppressionCommentFilter
     /**
      * Finds the nearest comment text tag that matches an audit event.
      * The nearest tag is before the line and column of the event.
+     * Tags are tested from the nearest one backwards, so the search usually
+     * ends with the first tested tag.
      *
      * @param event the {@code TreeWalkerAuditEvent} to match.
      * @return The {@code Tag} nearest event.
      */
     private Tag findNearestMatch(TreeWalkerAuditEvent event) {
         Tag result = null;
-        for (Tag tag : tags) {
-            final int eventLine = event.getLine();
-            if (tag.getLine() > eventLine
-                || tag.getLine() == eventLine
-                    && tag.getColumn() > event.getColumn()) {
-                break;
-            }
+        int index = countTagsNotAfter(event.getLine(), event.getColumn());
+        while (result == null && index > 0) {
+            index--;
+            final Tag tag = tags.get(index);
             if (tag.isMatch(event)) {
                 result = tag;
             }
@@ -527,6 +526,30 @@ public class SuppressionCommentFilter
         return result;
     }
 
+    /**
+     * Counts tags, which are not after the line and column, by binary search.
+     *
+     * @param line the line number.
+     * @param column the column number.
+     * @return the number of tags.
+     */
+    private int countTagsNotAfter(int line, int column) {
+        int low = 0;
+        int high = tags.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final Tag tag = tags.get(middle);
+            if (tag.getLine() < line
+                    || tag.getLine() == line && tag.getColumn() <= column) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     /**
      * Collects all the suppression tags for all comments into a list and
      * sorts the list.
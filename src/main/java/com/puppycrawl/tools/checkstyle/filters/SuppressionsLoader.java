@@ -113,7 +113,7 @@ public final class SuppressionsLoader
      * The filter chain to return in getAFilterChain(),
      * configured during parsing.
      */
-    private final FilterSet filterChain = new FilterSet();
+    private final FilterSet filterChain = new SuppressFilterSet();
 
     /**
      * The set of the {@code TreeWalkerFilter} filters. Being filled during parsing.
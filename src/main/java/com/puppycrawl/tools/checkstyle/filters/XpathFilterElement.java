@@ -19,27 +19,33 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
-import net.sf.saxon.Configuration;
+import com.puppycrawl.tools.checkstyle.xpath.XpathEngine;
 import net.sf.saxon.om.Item;
 import net.sf.saxon.sxpath.XPathDynamicContext;
-import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trans.XPathException;
 
 /**
  * This filter element is immutable and processes {@link TreeWalkerAuditEvent}
  * objects based on the criteria of file, check, module id, xpathQuery.
+ * The xpath query is evaluated once per file, when the first event of the file
+ * matches all other criteria, and the positions of matching nodes are cached
+ * for the other events of the file.
  *
  */
 public class XpathFilterElement implements TreeWalkerFilter {
@@ -74,6 +80,9 @@ public class XpathFilterElement implements TreeWalkerFilter {
     /** Indicates if all properties are set to null. */
     private final boolean isEmptyConfig;
 
+    /** Nodes matching the xpath query in the last file, which had a matching event. */
+    private final AtomicReference<FileMatches> lastFileMatches = new AtomicReference<>();
+
     /**
      * Creates a {@code XpathElement} instance.
      *
@@ -135,10 +144,8 @@ public class XpathFilterElement implements TreeWalkerFilter {
             xpathExpression = null;
         }
         else {
-            final XPathEvaluator xpathEvaluator = new XPathEvaluator(
-                    Configuration.newConfiguration());
             try {
-                xpathExpression = xpathEvaluator.createExpression(xpathQuery);
+                xpathExpression = XpathEngine.getExpression(xpathQuery);
             }
             catch (XPathException ex) {
                 throw new IllegalArgumentException("Incorrect xpath query: " + xpathQuery, ex);
@@ -190,22 +197,18 @@ public class XpathFilterElement implements TreeWalkerFilter {
      * @return true if it is matching or not set.
      */
     private boolean isXpathQueryMatching(TreeWalkerAuditEvent event) {
-        boolean isMatching;
+        final boolean isMatching;
         if (xpathExpression == null) {
             isMatching = true;
         }
         else {
-            isMatching = false;
-            final List<AbstractNode> nodes = getItems(event)
-                    .stream().map(AbstractNode.class::cast).collect(Collectors.toList());
-            for (AbstractNode abstractNode : nodes) {
-                isMatching = abstractNode.getTokenType() == event.getTokenType()
-                        && abstractNode.getLineNumber() == event.getLine()
-                        && abstractNode.getColumnNumber() == event.getColumnCharIndex();
-                if (isMatching) {
-                    break;
-                }
+            FileMatches fileMatches = lastFileMatches.get();
+            if (fileMatches == null || fileMatches.rootAst != event.getRootAst()) {
+                fileMatches = new FileMatches(event.getRootAst(), getItems(event));
+                lastFileMatches.set(fileMatches);
             }
+            isMatching = fileMatches.positions.contains(Arrays.asList(event.getTokenType(),
+                    event.getLine(), event.getColumnCharIndex()));
         }
         return isMatching;
     }
@@ -260,4 +263,42 @@ public class XpathFilterElement implements TreeWalkerFilter {
                 && Objects.equals(xpathQuery, xpathFilter.xpathQuery);
     }
 
+    /**
+     * Positions of nodes matching the xpath query in the AST of a file.
+     */
+    private static final class FileMatches {
+
+        /** The root of the AST of the file. */
+        private final DetailAST rootAst;
+
+        /** Token type, line and column of each matching node. */
+        private final Set<List<Integer>> positions;
+
+        /**
+         * Creates positions of matching nodes.
+         *
+         * @param rootAst the root of the AST of the file
+         * @param items nodes matching the xpath query
+         */
+        private FileMatches(DetailAST rootAst, List<Item> items) {
+            this.rootAst = rootAst;
+            positions = items.stream()
+                    .map(AbstractNode.class::cast)
+                    .map(FileMatches::getPosition)
+                    .collect(Collectors.toSet());
+        }
+
+        /**
+         * Gets the position of the node, which is compared with the position of an event.
+         *
+         * @param node the node
+         * @return token type, line and column of the node
+         */
+        private static List<Integer> getPosition(AbstractNode node) {
+            return Arrays.asList(node.getTokenType(), node.getLineNumber(),
+                    node.getColumnNumber());
+        }
+
+    }
+
 }
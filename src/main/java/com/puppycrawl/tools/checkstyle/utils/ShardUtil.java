@@ -0,0 +1,86 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Utility methods to split files to check between several runs of Checkstyle,
+ * for example on different CI nodes.
+ */
+public final class ShardUtil {
+
+    /** Stop instances being created. **/
+    private ShardUtil() {
+    }
+
+    /**
+     * Gets the files of a shard. Files are assigned to shards so that the total size
+     * of files in shards is balanced: from the largest to the smallest file, each file
+     * goes to the shard with the smallest total size so far. Files of the same size are
+     * ordered by path, so each run with the same files and paths gets the same shards.
+     *
+     * @param files all files to check
+     * @param shardIndex zero-based index of the shard
+     * @param shardCount number of shards
+     * @return files of the shard, in the order of the given files
+     * @throws IllegalArgumentException if the shard index is not between zero and
+     *     the number of shards
+     */
+    public static List<File> getShard(List<File> files, int shardIndex, int shardCount) {
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Shard index " + shardIndex
+                    + " is not between 0 and shard count " + shardCount);
+        }
+        // empty files still take time to check, so count at least one byte for each file
+        final long[] sizes = files.stream().mapToLong(file -> file.length() + 1).toArray();
+        final List<Integer> bySize = IntStream.range(0, files.size()).boxed()
+                .sorted(Comparator.<Integer>comparingLong(index -> sizes[index]).reversed()
+                        .thenComparing(index -> files.get(index).getPath()))
+                .collect(Collectors.toList());
+
+        final long[] shardSizes = new long[shardCount];
+        final int[] shards = new int[files.size()];
+        for (int index : bySize) {
+            int shard = 0;
+            for (int candidate = 1; candidate < shardCount; candidate++) {
+                if (shardSizes[candidate] < shardSizes[shard]) {
+                    shard = candidate;
+                }
+            }
+            shards[index] = shard;
+            shardSizes[shard] += sizes[index];
+        }
+
+        final List<File> result = new ArrayList<>();
+        for (int index = 0; index < shards.length; index++) {
+            if (shards[index] == shardIndex) {
+                result.add(files.get(index));
+            }
+        }
+        return result;
+    }
+
+}
@@ -36,11 +36,10 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.ElementNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
-import net.sf.saxon.Configuration;
+import com.puppycrawl.tools.checkstyle.xpath.XpathEngine;
 import net.sf.saxon.om.Item;
 import net.sf.saxon.om.NodeInfo;
 import net.sf.saxon.sxpath.XPathDynamicContext;
-import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trans.XPathException;
 
@@ -209,8 +208,7 @@ public final class XpathUtil {
      */
     public static List<NodeInfo> getXpathItems(String xpath, AbstractNode rootNode)
             throws XPathException {
-        final XPathEvaluator xpathEvaluator = new XPathEvaluator(Configuration.newConfiguration());
-        final XPathExpression xpathExpression = xpathEvaluator.createExpression(xpath);
+        final XPathExpression xpathExpression = XpathEngine.getExpression(xpath);
         final XPathDynamicContext xpathDynamicContext = xpathExpression
                 .createDynamicContext(rootNode);
         final List<Item> items = xpathExpression.evaluate(xpathDynamicContext);
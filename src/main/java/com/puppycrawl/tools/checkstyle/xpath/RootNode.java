@@ -25,7 +25,6 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
 import com.puppycrawl.tools.checkstyle.xpath.iterators.DescendantIterator;
-import net.sf.saxon.Configuration;
 import net.sf.saxon.om.AxisInfo;
 import net.sf.saxon.om.GenericTreeInfo;
 import net.sf.saxon.om.NodeInfo;
@@ -56,7 +55,7 @@ public class RootNode extends AbstractNode {
      * @param detailAst reference to {@code DetailAST}
      */
     public RootNode(DetailAST detailAst) {
-        super(new GenericTreeInfo(Configuration.newConfiguration()));
+        super(new GenericTreeInfo(XpathEngine.getConfiguration()));
         this.detailAst = detailAst;
     }
 
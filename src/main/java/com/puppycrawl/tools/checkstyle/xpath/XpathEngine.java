@@ -0,0 +1,129 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.sf.saxon.Configuration;
+import net.sf.saxon.sxpath.XPathEvaluator;
+import net.sf.saxon.sxpath.XPathExpression;
+import net.sf.saxon.trans.XPathException;
+
+/**
+ * Compiles xpath queries of all modules with one Saxon {@link Configuration},
+ * which is expensive to create, and caches compiled expressions by query.
+ * The cache keeps the most recently used expressions, so configurations with
+ * many distinct queries do not grow it without limit.
+ * Compiled expressions can be evaluated on several threads at once, each
+ * evaluation with its own dynamic context.
+ */
+public final class XpathEngine {
+
+    /** Configuration of all trees and expressions. */
+    private static final Configuration CONFIGURATION = Configuration.newConfiguration();
+
+    /** Maximum number of compiled expressions kept in the cache. */
+    private static final int MAX_EXPRESSIONS = 512;
+
+    /** Load factor of the cache, which never grows over its initial capacity. */
+    private static final float LOAD_FACTOR = 1.0f;
+
+    /**
+     * Compiled expressions by query in access order, which evicts the least recently
+     * used expression when it is full. Access is guarded by the map itself.
+     */
+    private static final Map<String, XPathExpression> EXPRESSIONS =
+            new LinkedHashMap<>(MAX_EXPRESSIONS + 1, LOAD_FACTOR, true) {
+                /** Serial ID. */
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > MAX_EXPRESSIONS;
+                }
+            };
+
+    /** Number of queries found in the cache. */
+    private static final LongAdder CACHE_HITS = new LongAdder();
+
+    /** Number of queries compiled, as they were not in the cache. */
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+
+    /** Prevent instantiation. */
+    private XpathEngine() {
+    }
+
+    /**
+     * Gets the configuration of all trees and expressions.
+     *
+     * @return the configuration
+     */
+    public static Configuration getConfiguration() {
+        return CONFIGURATION;
+    }
+
+    /**
+     * Gets the compiled expression of the query, compiling it if it is not cached yet.
+     *
+     * @param query the xpath query
+     * @return the compiled expression
+     * @throws XPathException if the query is not correct
+     */
+    public static XPathExpression getExpression(String query) throws XPathException {
+        XPathExpression expression;
+        synchronized (EXPRESSIONS) {
+            expression = EXPRESSIONS.get(query);
+        }
+        if (expression == null) {
+            CACHE_MISSES.increment();
+            // compiled without the lock, the evaluator keeps state while compiling,
+            // so each compilation has its own
+            expression = new XPathEvaluator(CONFIGURATION).createExpression(query);
+            synchronized (EXPRESSIONS) {
+                EXPRESSIONS.putIfAbsent(query, expression);
+            }
+        }
+        else {
+            CACHE_HITS.increment();
+        }
+        return expression;
+    }
+
+    /**
+     * Gets the number of queries found in the cache since the start of the JVM.
+     *
+     * @return the number of cache hits
+     */
+    public static long getCacheHitCount() {
+        return CACHE_HITS.sum();
+    }
+
+    /**
+     * Gets the number of queries compiled since the start of the JVM.
+     *
+     * @return the number of cache misses
+     */
+    public static long getCacheMissCount() {
+        return CACHE_MISSES.sum();
+    }
+
+}
@@ -25,12 +25,15 @@ options { tokenVocab=JavaLanguageLexer; }
 
     /**
      * This is the number of files to parse before clearing the parser's
-     * DFA states. This number can have a significant impact on performance;
-     * we have found 500 files to be a good balance between parser speed and
-     * memory usage. This field must be public in order to be accessed and
+     * DFA states. This field must be public in order to be accessed and
      * used for {@link JavaLanguageParser#JavaLanguageParser(TokenStream, int)}
      * generated constructor.
+     *
+     * @deprecated the DFA states are cleared by
+     *     {@link com.puppycrawl.tools.checkstyle.DfaCacheManager} by the number
+     *     of states, which is set with its state limit.
      */
+    @Deprecated
     public static final int CLEAR_DFA_LIMIT = 500;
 
     /**
@@ -51,29 +54,20 @@ options { tokenVocab=JavaLanguageLexer; }
         return _input.LT(1).getType() == JavaLanguageLexer.LITERAL_YIELD && switchBlockDepth > 0;
     }
 
-    static int fileCounter = 0;
-
     /**
-     * We create a custom constructor so that we can clear the DFA
-     * states upon instantiation of JavaLanguageParser.
+     * Creates a parser, and lets the DFA cache manager of
+     * {@link com.puppycrawl.tools.checkstyle.JavaParser} clear the parser's
+     * DFA states if there are too many of them.
      *
      * @param input the token stream to parse
-     * @param clearDfaLimit this is the number of files to parse before clearing
-     *         the parser's DFA states. This number can have a significant impact
-     *         on performance; more frequent clearing of DFA states can lead to
-     *         slower parsing but lower memory usage. Conversely, not clearing the
-     *         DFA states at all can lead to enormous memory usage, but may also
-     *         have a negative effect on memory usage from higher garbage collector
-     *         activity.
+     * @param clearDfaLimit ignored, the DFA states are cleared by the number of states
+     * @deprecated use {@link #JavaLanguageParser(TokenStream)}, the DFA states are
+     *     cleared by {@link com.puppycrawl.tools.checkstyle.DfaCacheManager}.
      */
+    @Deprecated
     public JavaLanguageParser(TokenStream input, int clearDfaLimit) {
-        super(input);
-        _interp = new ParserATNSimulator(this, _ATN , _decisionToDFA, _sharedContextCache);
-        fileCounter++;
-        if (fileCounter > clearDfaLimit) {
-            _interp.clearDFA();
-            fileCounter = 0;
-        }
+        this(input);
+        com.puppycrawl.tools.checkstyle.JavaParser.getDfaCacheManager().afterParse(this);
     }
 }
 
@@ -0,0 +1,206 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class ChangedLinesFilterTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testGitDiffFile() throws Exception {
+        final File changed = createFile("Changed.java");
+        final File deleted = createFile("Deleted.java");
+        final File unchanged = createFile("Unchanged.java");
+        final String root = Paths.get("").toAbsolutePath()
+                .relativize(temporaryFolder.toPath().toAbsolutePath()).toString();
+        final File diffFile = writeDiff(
+                "diff --git a/" + root + "/Changed.java b/" + root + "/Changed.java",
+                "--- a/" + root + "/Changed.java",
+                "+++ b/" + root + "/Changed.java",
+                "@@ -2 +2,2 @@ class Changed {",
+                "-    int a;",
+                "+    int b;",
+                "+    int c;",
+                "@@ -10,3 +11,3 @@",
+                "     int d;",
+                "-    int e;",
+                "\\ No newline at end of file",
+                "+    int f;",
+                "     int g;",
+                "diff --git a/" + root + "/Deleted.java b/" + root + "/Deleted.java",
+                "--- a/" + root + "/Deleted.java",
+                "+++ /dev/null",
+                "@@ -1 +0,0 @@",
+                "-class Deleted {}",
+                "diff --git a/" + root + "/Removed.java b/" + root + "/Removed.java",
+                "--- a/" + root + "/Removed.java",
+                "+++ b/" + root + "/Removed.java",
+                "@@ -3 +2,0 @@",
+                "-    int h;");
+
+        final ChangedLinesFilter filter = ChangedLinesFilter.fromDiffFile(diffFile);
+        assertWithMessage("File with added lines should be changed")
+                .that(filter.isChanged(changed))
+                .isTrue();
+        assertWithMessage("Deleted file should not be changed")
+                .that(filter.isChanged(deleted))
+                .isFalse();
+        assertWithMessage("File with only removed lines should not be changed")
+                .that(filter.isChanged(new File(temporaryFolder, "Removed.java")))
+                .isFalse();
+        assertWithMessage("File out of diff should not be changed")
+                .that(filter.isChanged(unchanged))
+                .isFalse();
+
+        assertAccepted(filter, changed, 1, false);
+        assertAccepted(filter, changed, 2, true);
+        assertAccepted(filter, changed, 3, true);
+        assertAccepted(filter, changed, 4, false);
+        assertAccepted(filter, changed, 11, false);
+        assertAccepted(filter, changed, 12, true);
+        assertAccepted(filter, changed, 13, false);
+        assertAccepted(filter, changed, 0, true);
+        assertAccepted(filter, unchanged, 0, false);
+        assertAccepted(filter, unchanged, 2, false);
+    }
+
+    @Test
+    public void testPlainDiffFile() throws Exception {
+        final File changed = createFile("Changed.java");
+        final String path = changed.getAbsolutePath();
+        final File diffFile = writeDiff(
+                "--- " + path + ".orig\t2024-01-01 00:00:00.000000000 +0000",
+                "+++ " + path + "\t2024-01-02 00:00:00.000000000 +0000",
+                "@@ -1,2 +1,3 @@",
+                " class Changed {",
+                "+    int a;",
+                " }");
+
+        final ChangedLinesFilter filter = ChangedLinesFilter.fromDiffFile(diffFile);
+        assertWithMessage("Timestamp should be removed from path")
+                .that(filter.isChanged(changed))
+                .isTrue();
+        assertAccepted(filter, changed, 1, false);
+        assertAccepted(filter, changed, 2, true);
+        assertAccepted(filter, changed, 3, false);
+    }
+
+    @Test
+    public void testEventWithoutViolation() throws Exception {
+        final ChangedLinesFilter filter = ChangedLinesFilter.fromDiffFile(writeDiff());
+        assertWithMessage("Event without violation should be accepted")
+                .that(filter.accept(new AuditEvent(this, "Unchanged.java")))
+                .isTrue();
+    }
+
+    @Test
+    public void testNonExistentDiffFile() {
+        final File diffFile = new File(temporaryFolder, "nonexistent.diff");
+        final CheckstyleException ex = assertThrows(CheckstyleException.class,
+                () -> ChangedLinesFilter.fromDiffFile(diffFile));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Unable to read diff file " + diffFile);
+    }
+
+    @Test
+    public void testGitDiff() throws Exception {
+        final File directory = new File(temporaryFolder, "sub");
+        assertWithMessage("Directory should be created")
+                .that(directory.mkdir())
+                .isTrue();
+        final File changed = new File(directory, "Changed.java");
+        Files.write(changed.toPath(), Arrays.asList("class Changed {", "}"),
+                StandardCharsets.UTF_8);
+        final File unchanged = new File(directory, "Unchanged.java");
+        Files.write(unchanged.toPath(), Arrays.asList("class Unchanged {", "}"),
+                StandardCharsets.UTF_8);
+        try (Git git = Git.init().setDirectory(temporaryFolder).call()) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Initial").setAuthor("author", "author@example.com")
+                    .setCommitter("author", "author@example.com").setSign(false).call();
+        }
+        Files.write(changed.toPath(), Arrays.asList("class Changed {", "    int a;", "}"),
+                StandardCharsets.UTF_8);
+
+        final ChangedLinesFilter filter = ChangedLinesFilter.fromGitDiff("HEAD", directory);
+        assertWithMessage("Modified file should be changed")
+                .that(filter.isChanged(changed))
+                .isTrue();
+        assertWithMessage("Committed file should not be changed")
+                .that(filter.isChanged(unchanged))
+                .isFalse();
+        assertAccepted(filter, changed, 1, false);
+        assertAccepted(filter, changed, 2, true);
+        assertAccepted(filter, changed, 3, false);
+    }
+
+    @Test
+    public void testGitDiffInvalidRevision() throws Exception {
+        try (Git git = Git.init().setDirectory(temporaryFolder).call()) {
+            final CheckstyleException ex = assertThrows(CheckstyleException.class,
+                    () -> ChangedLinesFilter.fromGitDiff("nonexistent", temporaryFolder));
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .startsWith("Command 'git -c core.quotePath=false diff");
+        }
+    }
+
+    private File createFile(String name) throws Exception {
+        final File file = new File(temporaryFolder, name);
+        Files.write(file.toPath(), new byte[0]);
+        return file;
+    }
+
+    private File writeDiff(String... lines) throws Exception {
+        final File diffFile = new File(temporaryFolder, "changes.diff");
+        Files.write(diffFile.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return diffFile;
+    }
+
+    private void assertAccepted(ChangedLinesFilter filter, File file, int line,
+            boolean expected) {
+        final Violation violation =
+                new Violation(line, 0, "", "", null, null, getClass(), null);
+        final AuditEvent event = new AuditEvent(this, file.getPath(), violation);
+        assertWithMessage("Invalid result for line " + line + " of " + file.getName())
+                .that(filter.accept(event))
+                .isEqualTo(expected);
+    }
+
+}
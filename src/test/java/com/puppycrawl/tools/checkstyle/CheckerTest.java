@@ -40,6 +40,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -1061,6 +1062,33 @@ public class CheckerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testCacheByContentWithViolation() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig =
+                createRootConfig(createModuleConfig(DummyFileSetViolationCheck.class));
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        checkerConfig.addProperty("cacheByContent", "true");
+
+        final String filePath =
+                File.createTempFile("ViolationFile", ".java", temporaryFolder).getPath();
+        final String[] expected = {"1: test"};
+
+        verify(checkerConfig, filePath, expected);
+        final Properties details = new Properties();
+        try (InputStream input = Files.newInputStream(cacheFile.toPath())) {
+            details.load(input);
+        }
+        assertWithMessage("File with violation should be saved in cache")
+            .that(details.getProperty(filePath))
+            .isEqualTo(PropertyCacheFile.getContentHash(Path.of(filePath)));
+        assertWithMessage("Violations of file should be saved in cache")
+            .that(details.getProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + filePath))
+            .isNotNull();
+
+        verify(checkerConfig, filePath, expected);
+    }
+
     @Test
     public void testHaltOnException() throws Exception {
         final DefaultConfiguration checkConfig =
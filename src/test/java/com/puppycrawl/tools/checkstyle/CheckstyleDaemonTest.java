@@ -0,0 +1,292 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
+import com.puppycrawl.tools.checkstyle.internal.utils.CloseAndFlushTestByteArrayOutputStream;
+
+public class CheckstyleDaemonTest {
+
+    private static final String TOKEN = "secret";
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testServesClients() throws Exception {
+        final File validFile = new File(temporaryFolder, "Valid.java");
+        Files.write(validFile.toPath(),
+                "class Valid {}".getBytes(StandardCharsets.UTF_8));
+        final File directory = new File(temporaryFolder, "dir");
+        assertWithMessage("Directory should be created")
+                .that(directory.mkdir())
+                .isTrue();
+        final File invalidFile = new File(directory, "invalid.java");
+        Files.write(invalidFile.toPath(),
+                "class invalid {}".getBytes(StandardCharsets.UTF_8));
+
+        final Checker checker = createChecker();
+        final CheckstyleDaemon daemon = new CheckstyleDaemon(checker,
+                Main.OutputFormat.PLAIN, Collections::singletonList, TOKEN);
+        final CloseAndFlushTestByteArrayOutputStream outputStream =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final int errorCounter = daemon.process(Collections.singletonList(invalidFile),
+                new DefaultLogger(outputStream, OutputStreamOptions.NONE));
+        assertWithMessage("Invalid number of errors")
+                .that(errorCounter)
+                .isEqualTo(1);
+        assertWithMessage("Violation should be reported to the given listener")
+                .that(outputStream.toString(StandardCharsets.UTF_8))
+                .contains("invalid.java:1:7: ");
+
+        try (ServerSocket serverSocket =
+                new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            final Thread thread = startDaemon(daemon, serverSocket);
+
+            final String violationReport = request(serverSocket.getLocalPort(),
+                    validFile.getPath() + System.lineSeparator()
+                    + invalidFile.getPath() + System.lineSeparator()
+                    + System.lineSeparator());
+            assertWithMessage("Report should contain violation")
+                    .that(violationReport)
+                    .containsMatch("^Starting audit...\\R"
+                            + "\\[ERROR] .*invalid\\.java:1:7: .* \\[TypeName]\\R"
+                            + "Audit done.\\R"
+                            + "Checkstyle ends with 1 errors.\\R$");
+
+            final String report = request(serverSocket.getLocalPort(), validFile.getPath());
+            assertWithMessage("Daemon should serve more than one client")
+                    .that(report)
+                    .matches("^Starting audit...\\RAudit done.\\R$");
+
+            serverSocket.close();
+            thread.join();
+            assertWithMessage("Daemon should stop when socket is closed")
+                    .that(thread.isAlive())
+                    .isFalse();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testReportsException() throws Exception {
+        final File invalidFile = new File(temporaryFolder, "Invalid.java");
+        Files.write(invalidFile.toPath(), "class {".getBytes(StandardCharsets.UTF_8));
+        final File validFile = new File(temporaryFolder, "Valid.java");
+        Files.write(validFile.toPath(),
+                "class Valid {}".getBytes(StandardCharsets.UTF_8));
+
+        final Checker checker = createChecker();
+        final CheckstyleDaemon daemon = new CheckstyleDaemon(checker,
+                Main.OutputFormat.PLAIN, Collections::singletonList, TOKEN);
+        try (ServerSocket serverSocket =
+                new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            final Thread thread = startDaemon(daemon, serverSocket);
+
+            final String exceptionReport =
+                    request(serverSocket.getLocalPort(), invalidFile.getPath());
+            assertWithMessage("Exception should be reported to client")
+                    .that(exceptionReport)
+                    .contains(CheckstyleException.class.getName()
+                            + ": Exception was thrown while processing "
+                            + invalidFile.getPath());
+
+            final String report = request(serverSocket.getLocalPort(), validFile.getPath());
+            assertWithMessage("Daemon should serve clients after exception")
+                    .that(report)
+                    .matches("^Starting audit...\\RAudit done.\\R$");
+
+            serverSocket.close();
+            thread.join();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testSurvivesResetClient() throws Exception {
+        final File validFile = new File(temporaryFolder, "Valid.java");
+        Files.write(validFile.toPath(),
+                "class Valid {}".getBytes(StandardCharsets.UTF_8));
+
+        final Checker checker = createChecker();
+        final CheckstyleDaemon daemon = new CheckstyleDaemon(checker,
+                Main.OutputFormat.PLAIN, Collections::singletonList, TOKEN);
+        try (ServerSocket serverSocket =
+                new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            final Thread thread = startDaemon(daemon, serverSocket);
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                    serverSocket.getLocalPort())) {
+                socket.getOutputStream().write((TOKEN + System.lineSeparator()
+                        + validFile.getPath()).getBytes(StandardCharsets.UTF_8));
+                socket.setSoLinger(true, 0);
+            }
+
+            final String report = request(serverSocket.getLocalPort(), validFile.getPath());
+            assertWithMessage("Daemon should serve clients after a reset connection")
+                    .that(report)
+                    .matches("^Starting audit...\\RAudit done.\\R$");
+
+            serverSocket.close();
+            thread.join();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testPersistsCacheAfterAudit() throws Exception {
+        final File validFile = new File(temporaryFolder, "Valid.java");
+        Files.write(validFile.toPath(),
+                "class Valid {}".getBytes(StandardCharsets.UTF_8));
+        final File cacheFile = new File(temporaryFolder, "cache.properties");
+
+        final Checker checker = createChecker();
+        checker.setCacheFile(cacheFile.getPath());
+        final CheckstyleDaemon daemon = new CheckstyleDaemon(checker,
+                Main.OutputFormat.PLAIN, Collections::singletonList, TOKEN);
+        try {
+            daemon.process(Collections.singletonList(validFile),
+                    new DefaultLogger(new CloseAndFlushTestByteArrayOutputStream(),
+                            OutputStreamOptions.NONE));
+            assertWithMessage("Cache file should be written before the daemon stops")
+                    .that(cacheFile.exists())
+                    .isTrue();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testRejectsWrongToken() throws Exception {
+        final File validFile = new File(temporaryFolder, "Valid.java");
+        Files.write(validFile.toPath(),
+                "class Valid {}".getBytes(StandardCharsets.UTF_8));
+
+        final Checker checker = createChecker();
+        final CheckstyleDaemon daemon = new CheckstyleDaemon(checker,
+                Main.OutputFormat.PLAIN, Collections::singletonList, TOKEN);
+        try (ServerSocket serverSocket =
+                new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            final Thread thread = startDaemon(daemon, serverSocket);
+
+            assertWithMessage("Client with wrong token should not be served")
+                    .that(request(serverSocket.getLocalPort(), "wrong", validFile.getPath()))
+                    .matches("^Invalid token.\\R$");
+            assertWithMessage("Client without token should not be served")
+                    .that(request(serverSocket.getLocalPort(), "", ""))
+                    .matches("^Invalid token.\\R$");
+
+            final String report = request(serverSocket.getLocalPort(), validFile.getPath());
+            assertWithMessage("Daemon should serve clients with the token")
+                    .that(report)
+                    .matches("^Starting audit...\\RAudit done.\\R$");
+
+            serverSocket.close();
+            thread.join();
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+    @Test
+    public void testWritesToken() throws Exception {
+        final String token = CheckstyleDaemon.createToken();
+        assertWithMessage("Token should be random")
+                .that(token)
+                .isNotEqualTo(CheckstyleDaemon.createToken());
+
+        final Path tokenFile = temporaryFolder.toPath().resolve("daemon.token");
+        Files.write(tokenFile, "old".getBytes(StandardCharsets.UTF_8));
+        CheckstyleDaemon.writeToken(tokenFile, token);
+        assertWithMessage("Token should be written to the file")
+                .that(Files.readAllLines(tokenFile, StandardCharsets.UTF_8))
+                .containsExactly(token);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertWithMessage("Only the owner should be able to read the token")
+                    .that(PosixFilePermissions.toString(
+                            Files.getPosixFilePermissions(tokenFile)))
+                    .isEqualTo("rw-------");
+        }
+    }
+
+    private static Thread startDaemon(CheckstyleDaemon daemon, ServerSocket serverSocket) {
+        final Thread thread = new Thread(() -> daemon.serve(serverSocket));
+        thread.start();
+        return thread;
+    }
+
+    private static Checker createChecker() throws Exception {
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+        treeWalkerConfig.addChild(new DefaultConfiguration(TypeNameCheck.class.getName()));
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        return checker;
+    }
+
+    private static String request(int port, String files) throws IOException {
+        return request(port, TOKEN, files);
+    }
+
+    private static String request(int port, String token, String files)
+            throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final OutputStream out = socket.getOutputStream();
+            out.write((token + System.lineSeparator() + files)
+                    .getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+            final InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -98,21 +98,45 @@ public class ConfigurationLoaderTest extends AbstractPathTestSupport {
         final Properties props = new Properties();
         props.setProperty("checkstyle.basedir", "basedir");
 
+        final PropertiesExpander propertiesExpander = new PropertiesExpander(props);
+        final String configPath = getPath("InputConfigurationLoaderChecks.xml");
+        final ThreadModeSettings multiThreadModeSettings =
+            new ThreadModeSettings(4, 1);
+
+        final DefaultConfiguration config =
+            (DefaultConfiguration) ConfigurationLoader.loadConfiguration(
+                configPath, propertiesExpander, multiThreadModeSettings);
+
+        final Properties attributes = new Properties();
+        attributes.setProperty("tabWidth", "4");
+        attributes.setProperty("basedir", "basedir");
+        verifyConfigNode(config, "Checker", 3, attributes);
+        assertWithMessage("Invalid thread mode settings")
+            .that(config.getThreadModeSettings())
+            .isSameInstanceAs(multiThreadModeSettings);
+    }
+
+    @Test
+    public void testResourceLoadConfigurationWithMultiThreadTreeWalker() throws Exception {
+        final Properties props = new Properties();
+        props.setProperty("checkstyle.basedir", "basedir");
+
         final PropertiesExpander propertiesExpander = new PropertiesExpander(props);
         final String configPath = getPath("InputConfigurationLoaderChecks.xml");
         final ThreadModeSettings multiThreadModeSettings =
             new ThreadModeSettings(4, 2);
 
-        try {
-            ConfigurationLoader.loadConfiguration(
+        final Configuration config = ConfigurationLoader.loadConfiguration(
                 configPath, propertiesExpander, multiThreadModeSettings);
-            assertWithMessage("An exception is expected").fail();
-        }
-        catch (IllegalArgumentException ex) {
-            assertWithMessage("Invalid exception message")
-                .that(ex.getMessage())
-                .isEqualTo("Multi thread mode for Checker module is not implemented");
-        }
+
+        final DefaultConfiguration treeWalkerConfig =
+                (DefaultConfiguration) config.getChildren()[0];
+        assertWithMessage("Invalid module name")
+            .that(treeWalkerConfig.getName())
+            .isEqualTo(ThreadModeSettings.MULTI_THREAD_TREE_WALKER_MODULE_NAME);
+        assertWithMessage("Invalid thread mode settings")
+            .that(treeWalkerConfig.getThreadModeSettings())
+            .isSameInstanceAs(multiThreadModeSettings);
     }
 
     @Test
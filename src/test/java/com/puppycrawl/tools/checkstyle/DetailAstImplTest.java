@@ -350,6 +350,23 @@ public class DetailAstImplTest extends AbstractModuleTestSupport {
                 .isFalse();
     }
 
+    @Test
+    public void testBranchContainsAny() {
+        final DetailAstImpl root = createToken(null, TokenTypes.CLASS_DEF);
+        final DetailAstImpl modifiers = createToken(root, TokenTypes.MODIFIERS);
+        createToken(modifiers, TokenTypes.LITERAL_PUBLIC);
+
+        final BitSet tokenTypes = new BitSet();
+        tokenTypes.set(TokenTypes.OBJBLOCK);
+        assertWithMessage("invalid result")
+                .that(root.branchContainsAny(tokenTypes))
+                .isFalse();
+        tokenTypes.set(TokenTypes.LITERAL_PUBLIC);
+        assertWithMessage("invalid result")
+                .that(root.branchContainsAny(tokenTypes))
+                .isTrue();
+    }
+
     private static DetailAstImpl createToken(DetailAstImpl root, int type) {
         final DetailAstImpl result = new DetailAstImpl();
         result.setType(type);
@@ -395,6 +412,30 @@ public class DetailAstImplTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testComputeBranchTokenTypes() {
+        final DetailAstImpl root = new DetailAstImpl();
+        root.setType(TokenTypes.CLASS_DEF);
+        final DetailAstImpl child = new DetailAstImpl();
+        child.setType(TokenTypes.OBJBLOCK);
+        final DetailAstImpl grandChild = new DetailAstImpl();
+        grandChild.setType(TokenTypes.METHOD_DEF);
+        root.addChild(child);
+        child.addChild(grandChild);
+
+        root.computeBranchTokenTypes();
+
+        final BitSet expected = new BitSet();
+        expected.set(TokenTypes.METHOD_DEF);
+        assertWithMessage("Branch token types of descendants should be computed")
+                .that(TestUtil.<BitSet>getInternalState(grandChild, "branchTokenTypes"))
+                .isEqualTo(expected);
+        expected.set(TokenTypes.OBJBLOCK);
+        assertWithMessage("Branch token types of children should be computed")
+                .that(TestUtil.<BitSet>getInternalState(child, "branchTokenTypes"))
+                .isEqualTo(expected);
+    }
+
     @Test
     public void testCacheBranchTokenTypes() {
         final DetailAST root = new DetailAstImpl();
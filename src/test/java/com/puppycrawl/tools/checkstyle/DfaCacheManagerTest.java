@@ -0,0 +1,115 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageLexer;
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
+
+public class DfaCacheManagerTest {
+
+    @Test
+    public void testDefaultStateLimit() {
+        assertWithMessage("Invalid default state limit")
+                .that(new DfaCacheManager().getStateLimit())
+                .isEqualTo(DfaCacheManager.DEFAULT_STATE_LIMIT);
+    }
+
+    @Test
+    public void testNegativeStateLimit() {
+        final DfaCacheManager manager = new DfaCacheManager();
+        final IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> manager.setStateLimit(-1));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("DFA state limit must not be negative: -1");
+    }
+
+    @Test
+    public void testCacheIsClearedAfterStateLimit() {
+        final DfaCacheManager manager = new DfaCacheManager();
+        manager.setStateLimit(1);
+        manager.parse(createParser(), JavaLanguageParser::compilationUnit);
+        assertWithMessage("Cache should be cleared when it exceeds the limit")
+                .that(manager.getClearCount())
+                .isEqualTo(1);
+        assertWithMessage("Cache should be empty after clearing")
+                .that(manager.getStateCount())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testCacheIsNotClearedWithoutStateLimit() {
+        final DfaCacheManager manager = new DfaCacheManager();
+        manager.setStateLimit(0);
+        manager.parse(createParser(), JavaLanguageParser::compilationUnit);
+        assertWithMessage("Cache should not be cleared while the heap is not full")
+                .that(manager.getClearCount())
+                .isEqualTo(0);
+        assertWithMessage("Cache should contain states of the parsed file")
+                .that(manager.getStateCount())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    public void testCacheIsMeasuredAfterInterval() {
+        final DfaCacheManager manager = new DfaCacheManager();
+        manager.setStateLimit(0);
+        manager.parse(createParser(), JavaLanguageParser::compilationUnit);
+        manager.setStateLimit(1);
+        manager.parse(createParser(), JavaLanguageParser::compilationUnit);
+        assertWithMessage("Cache should not be measured after each parse")
+                .that(manager.getClearCount())
+                .isEqualTo(0);
+        for (int index = 0; index < 15; index++) {
+            manager.parse(createParser(), JavaLanguageParser::compilationUnit);
+        }
+        assertWithMessage("Cache should be measured after interval of parses")
+                .that(manager.getClearCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testDeprecatedConstructor() {
+        final JavaLanguageLexer lexer = new JavaLanguageLexer(
+                CharStreams.fromString("class A { }"), true);
+        final JavaLanguageParser parser = new JavaLanguageParser(new CommonTokenStream(lexer),
+                JavaLanguageParser.CLEAR_DFA_LIMIT);
+        assertWithMessage("Parser should share the DFA cache of other parsers")
+                .that(parser.getInterpreter().decisionToDFA)
+                .isSameInstanceAs(createParser().getInterpreter().decisionToDFA);
+        assertWithMessage("Parser should parse the input")
+                .that(parser.compilationUnit().getChildCount())
+                .isGreaterThan(0);
+    }
+
+    private static JavaLanguageParser createParser() {
+        final JavaLanguageLexer lexer = new JavaLanguageLexer(
+                CharStreams.fromString("class A { void m() { int a = 1 + 2; } }"), true);
+        return new JavaLanguageParser(new CommonTokenStream(lexer));
+    }
+
+}
@@ -0,0 +1,142 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+public class FileTextCharStreamTest {
+
+    private static final String BMP_CHARACTERS = "\u00e9\u4e2d";
+
+    private static final String SUPPLEMENTARY_CHARACTER = "\ud83d\ude00";
+
+    @Test
+    public void testSameAsCodePointStream() {
+        final FileText text = new FileText(new File("Test.java"),
+                Arrays.asList("class Test {", "    String s = \"" + BMP_CHARACTERS + "\";", "}"));
+        final CharStream stream = FileTextCharStream.of(text);
+        final CharStream expected = CharStreams.fromString(text.getFullText().toString());
+
+        assertWithMessage("Text without supplementary characters should not be copied")
+                .that(stream)
+                .isInstanceOf(FileTextCharStream.class);
+        assertWithMessage("Source name should be unknown as in streams of ANTLR")
+                .that(stream.getSourceName())
+                .isEqualTo(IntStream.UNKNOWN_SOURCE_NAME);
+        assertStreamsEqual(stream, expected);
+    }
+
+    @Test
+    public void testSupplementaryCharacters() {
+        final List<String> lines = Arrays.asList("class Test {",
+                "    String s = \"" + SUPPLEMENTARY_CHARACTER + "\";", "}");
+        final FileText text = new FileText(new File("Test.java"), lines);
+        final CharStream stream = FileTextCharStream.of(text);
+
+        assertWithMessage("Text with supplementary characters should be read as code points")
+                .that(stream)
+                .isNotInstanceOf(FileTextCharStream.class);
+        assertStreamsEqual(stream, CharStreams.fromString(text.getFullText().toString()));
+    }
+
+    @Test
+    public void testLookAround() {
+        final CharStream stream = FileTextCharStream.of(
+                new FileText(null, Arrays.asList("ab")));
+
+        assertWithMessage("Invalid source name")
+                .that(stream.getSourceName())
+                .isEqualTo(IntStream.UNKNOWN_SOURCE_NAME);
+        assertWithMessage("Invalid look ahead")
+                .that(stream.LA(1))
+                .isEqualTo('a');
+        assertWithMessage("Character before start should be EOF")
+                .that(stream.LA(-1))
+                .isEqualTo(IntStream.EOF);
+        stream.consume();
+        assertWithMessage("Invalid look behind")
+                .that(stream.LA(-1))
+                .isEqualTo('a');
+        assertWithMessage("Look at zero offset is undefined")
+                .that(stream.LA(0))
+                .isEqualTo(0);
+        assertWithMessage("Invalid look ahead")
+                .that(stream.LA(2))
+                .isEqualTo('\n');
+        assertWithMessage("Character after end should be EOF")
+                .that(stream.LA(3))
+                .isEqualTo(IntStream.EOF);
+
+        final int marker = stream.mark();
+        stream.seek(stream.size() + 1);
+        stream.release(marker);
+        assertWithMessage("Seek should stop at the end of the stream")
+                .that(stream.index())
+                .isEqualTo(stream.size());
+        final IllegalStateException ex = assertThrows(IllegalStateException.class,
+                stream::consume);
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("cannot consume EOF");
+        assertWithMessage("Text after end should be empty")
+                .that(stream.getText(Interval.of(stream.size() + 1, stream.size() + 2)))
+                .isEmpty();
+        assertWithMessage("Invalid text of stream")
+                .that(stream.toString())
+                .isEqualTo("ab\n");
+    }
+
+    private static void assertStreamsEqual(CharStream actual, CharStream expected) {
+        assertWithMessage("Invalid size")
+                .that(actual.size())
+                .isEqualTo(expected.size());
+        assertWithMessage("Invalid source name")
+                .that(actual.getSourceName())
+                .isEqualTo(expected.getSourceName());
+        while (expected.LA(1) != IntStream.EOF) {
+            assertWithMessage("Invalid character at %s", expected.index())
+                    .that(actual.LA(1))
+                    .isEqualTo(expected.LA(1));
+            actual.consume();
+            expected.consume();
+        }
+        assertWithMessage("Stream should end")
+                .that(actual.LA(1))
+                .isEqualTo(IntStream.EOF);
+        final Interval interval = Interval.of(2, expected.size() + 1);
+        assertWithMessage("Invalid text")
+                .that(actual.getText(interval))
+                .isEqualTo(expected.getText(interval));
+    }
+
+}
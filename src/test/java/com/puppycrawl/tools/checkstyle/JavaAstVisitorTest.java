@@ -208,7 +208,7 @@ public class JavaAstVisitorTest extends AbstractModuleTestSupport {
     /**
      * This test exists to kill surviving mutation from pitest removing expression AST building
      * optimization in {@link JavaAstVisitor#visitBinOp(JavaLanguageParser.BinOpContext)}.
-     * We do not use {@link JavaParser#parse(FileContents)} here due to DFA clearing hack.
+     * We do not use {@link JavaParser#parse(FileContents)} here due to DFA clearing.
      *
      * <p>
      * Reason: we have iterative expression AST building to avoid stackoverflow
@@ -217,8 +217,8 @@ public class JavaAstVisitorTest extends AbstractModuleTestSupport {
      * rule (eliminating unnecessary recursive calls to hierarchical expression production rules).
      * However, ANTLR's ParserATNSimulator has no such optimization. So, the number of recursive
      * calls to ParserATNSimulator#closure when calling ParserATNSimulator#clearDFA causes a
-     * StackOverflow error. We avoid this by using the single argument constructor (thus not
-     * forcing DFA clearing) in this test.
+     * StackOverflow error. We avoid this by using the parser directly (thus not
+     * forcing DFA clearing by {@link DfaCacheManager}) in this test.
      * </p>
      *
      * @throws Exception if input file does not exist
@@ -253,4 +253,36 @@ public class JavaAstVisitorTest extends AbstractModuleTestSupport {
                 .that(root)
                 .isNotNull();
     }
+
+    @Test
+    public void testTextOfTokensIsShared() throws Exception {
+        final DetailAST root = JavaParser.parseFileText(new FileText(new File("A.java"),
+                Arrays.asList("class A {", "    A field = new A();", "}")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final List<DetailAST> idents = new ArrayList<>();
+        DetailAST node = root;
+        while (node != null) {
+            if (node.getType() == TokenTypes.IDENT) {
+                idents.add(node);
+            }
+            DetailAST next = node.getFirstChild();
+            while (node != null && next == null) {
+                next = node.getNextSibling();
+                node = node.getParent();
+            }
+            node = next;
+        }
+
+        assertWithMessage("Invalid identifiers")
+                .that(idents.stream().map(DetailAST::getText).collect(Collectors.toList()))
+                .containsExactly("A", "A", "field", "A");
+        for (DetailAST ident : idents) {
+            if ("A".equals(ident.getText())) {
+                assertWithMessage("Equal texts of tokens should be the same string")
+                        .that(ident.getText())
+                        .isSameInstanceAs(idents.get(0).getText());
+            }
+        }
+    }
+
 }
@@ -20,6 +20,7 @@
 package com.puppycrawl.tools.checkstyle;
 
 import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -213,6 +214,50 @@ public class JavaParserTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testSllHitAndMissCounts() throws Exception {
+        final long hits = JavaParser.getSllHitCount();
+        final long misses = JavaParser.getSllMissCount();
+        final File input = new File(getNonCompilablePath("InputJavaParser.java"));
+        // each 16 files include a sampled one, which is parsed in SLL mode first
+        for (int index = 0; index < 16; index++) {
+            JavaParser.parseFile(new File(getPath("InputJavaParserHiddenComments.java")),
+                    JavaParser.Options.WITHOUT_COMMENTS);
+        }
+        for (int index = 0; index < 16; index++) {
+            assertThrows(CheckstyleException.class,
+                () -> JavaParser.parseFile(input, JavaParser.Options.WITHOUT_COMMENTS));
+        }
+        assertWithMessage("SLL mode should be tried on a sample of files at least")
+                .that(JavaParser.getSllHitCount())
+                .isGreaterThan(hits);
+        assertWithMessage("SLL mode should fail on file with syntax error")
+                .that(JavaParser.getSllMissCount())
+                .isGreaterThan(misses);
+    }
+
+    @Test
+    public void testIsSllModeWorthTrying() throws Exception {
+        assertWithMessage("SLL mode should be tried during warm up")
+                .that(isSllModeWorthTrying(0, 99, 99))
+                .isTrue();
+        assertWithMessage("SLL mode should be tried while it succeeds on half of files")
+                .that(isSllModeWorthTrying(50, 50, 101))
+                .isTrue();
+        assertWithMessage("SLL mode should not be tried when it fails on most files")
+                .that(isSllModeWorthTrying(49, 51, 101))
+                .isFalse();
+        assertWithMessage("SLL mode should be tried on a sample of files")
+                .that(isSllModeWorthTrying(49, 51, 112))
+                .isTrue();
+    }
+
+    private static boolean isSllModeWorthTrying(long hits, long misses, long parses)
+            throws Exception {
+        return TestUtil.invokeStaticMethod(JavaParser.class, "isSllModeWorthTrying",
+                hits, misses, parses);
+    }
+
     @Test
     public void testComments() throws Exception {
         final DetailAST root =
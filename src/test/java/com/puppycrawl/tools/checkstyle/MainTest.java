@@ -74,12 +74,15 @@ public class MainTest {
             + "Try 'checkstyle --help' for more information.%n");
 
     private static final String USAGE = String.format(Locale.ROOT,
-          "Usage: checkstyle [-dEghjJtTV] [-b=<xpath>] [-c=<configurationFile>] "
-                  + "[-f=<format>]%n"
-                  + "                  [-o=<outputPath>] [-p=<propertiesFile>] "
+          "Usage: checkstyle [-dEghjJmPtTV] [-b=<xpath>] [-c=<configurationFile>] "
+                  + "[-C=<checkerThreadsNumber>]%n"
+                  + "                  [-f=<format>] [-i=<index>] [-l=<port>] [-n=<count>] "
+                  + "[-o=<outputPath>]%n"
+                  + "                  [-p=<propertiesFile>] [-r=<revision>] "
                   + "[-s=<suppressionLineColumnNumber>]%n"
-                  + "                  [-w=<tabWidth>] [-e=<exclude>]... [-x=<excludeRegex>]... "
-                  + "<files>...%n"
+                  + "                  [-S=<limit>] [-u=<diffFile>] [-w=<tabWidth>] "
+                  + "[-W=<treeWalkerThreadsNumber>]%n"
+                  + "                  [-e=<exclude>]... [-x=<excludeRegex>]... <files>...%n"
                   + "Checkstyle verifies that the specified source code files adhere to the"
                   + " specified rules. By default,%n"
                   + "violations are reported to standard out in plain format. Checkstyle requires"
@@ -95,6 +98,9 @@ public class MainTest {
                   + " filesystem location, or a name%n"
                   + "                              passed to the ClassLoader.getResource()"
                   + " method.%n"
+                  + "  -C, --checker-threads-number=<checkerThreadsNumber>%n"
+                  + "                            Sets the number of threads to process files"
+                  + " with. Default value is 1.%n"
                   + "  -d, --debug               Prints all debug logging of CheckStyle utility.%n"
                   + "  -e, --exclude=<exclude>   Directory/file to exclude from CheckStyle. The"
                   + " path can be the full,%n"
@@ -119,6 +125,13 @@ public class MainTest {
                   + " location can be%n"
                   + "                              specified with -o option.%n"
                   + "  -h, --help                Show this help message and exit.%n"
+                  + "  -i, --shard-index=<index> Checks only the shard with the given zero-based"
+                  + " index of the files%n"
+                  + "                              split into the number of shards given by -n"
+                  + " option. Files are split%n"
+                  + "                              deterministically and balanced by size, so that"
+                  + " shards can be checked%n"
+                  + "                              on different machines.%n"
                   + "  -j, --javadocTree         Prints Parse Tree of the Javadoc comment. The"
                   + " file have to contain only%n"
                   + "                              Javadoc comment content without including"
@@ -137,8 +150,35 @@ public class MainTest {
                   + " option cannot be used with%n"
                   + "                              other options and requires exactly one file to"
                   + " run on to be specified.%n"
+                  + "  -l, --daemon=<port>       After checking the specified files, keeps"
+                  + " Checkstyle running and checks%n"
+                  + "                              files which clients send to the given local"
+                  + " port, one path per line%n"
+                  + "                              ended by an empty line. The report is sent"
+                  + " back to the client. Port 0%n"
+                  + "                              means any free port.%n"
+                  + "  -m, --merge-reports       Merges the specified reports of xml or sarif"
+                  + " format, for example of%n"
+                  + "                              shards, into one report of the same format,"
+                  + " instead of checking%n"
+                  + "                              files. The number of errors in the reports is"
+                  + " reported as errors of%n"
+                  + "                              Checkstyle. Output location can be specified"
+                  + " with -o option.%n"
+                  + "  -n, --shard-count=<count> Sets the number of shards to split files to"
+                  + " check into. Used only with%n"
+                  + "                              -i option.%n"
                   + "  -o=<outputPath>           Sets the output file. Defaults to stdout.%n"
                   + "  -p=<propertiesFile>       Sets the property files to load.%n"
+                  + "  -P, --profile             Prints to standard error a table of modules"
+                  + " ranked by the time spent in%n"
+                  + "                              them, with the number of calls.%n"
+                  + "  -r, --diff-base=<revision>%n"
+                  + "                            Checks only files changed in the git working"
+                  + " tree of the current%n"
+                  + "                              directory since the given revision and reports"
+                  + " only violations on%n"
+                  + "                              added or changed lines.%n"
                   + "  -s=<suppressionLineColumnNumber>%n"
                   + "                            Prints xpath suppressions at the file's line and"
                   + " column position.%n"
@@ -158,6 +198,14 @@ public class MainTest {
                   + " but might result in%n"
                   + "                              undesirable matching and suppress other"
                   + " issues.%n"
+                  + "  -S, --dfa-state-limit=<limit>%n"
+                  + "                            Sets the number of states of the DFA cache of the"
+                  + " Java parser to clear%n"
+                  + "                              the cache after. The cache speeds up parsing and"
+                  + " is shared by all%n"
+                  + "                              files, zero means that it is cleared only when"
+                  + " the heap is nearly%n"
+                  + "                              full. Default value is 25000.%n"
                   + "  -t, --tree                Prints Abstract Syntax Tree(AST) of the checked"
                   + " file. The option cannot%n"
                   + "                              be used other options and requires exactly one"
@@ -168,10 +216,19 @@ public class MainTest {
                   + "                              file. The option cannot be used with other"
                   + " options and requires%n"
                   + "                              exactly one file to run on to be specified.%n"
+                  + "  -u, --diff=<diffFile>     Checks only files changed by the given unified"
+                  + " diff file and reports%n"
+                  + "                              only violations on added or changed lines."
+                  + " Paths in the diff are%n"
+                  + "                              resolved against the current directory.%n"
                   + "  -V, --version             Print version information and exit.%n"
                   + "  -w, --tabWidth=<tabWidth> Sets the length of the tab character. Used only"
                   + " with -s option. Default%n"
                   + "                              value is 8.%n"
+                  + "  -W, --tree-walker-threads-number=<treeWalkerThreadsNumber>%n"
+                  + "                            Sets the number of threads to walk the AST of a"
+                  + " file with. Default%n"
+                  + "                              value is 1.%n"
                   + "  -x, --exclude-regexp=<excludeRegex>%n"
                   + "                            Directory/file pattern to exclude from CheckStyle."
                   + " Multiple excludes%n"
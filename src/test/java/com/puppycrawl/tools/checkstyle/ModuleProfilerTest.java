@@ -0,0 +1,186 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.checks.TodoCommentCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
+import com.puppycrawl.tools.checkstyle.filters.SeverityMatchFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathSingleFilter;
+import com.puppycrawl.tools.checkstyle.internal.utils.CloseAndFlushTestByteArrayOutputStream;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class ModuleProfilerTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testReportsAllProfiledModules() throws Exception {
+        final File file = new File(temporaryFolder, "Test.java");
+        Files.write(file.toPath(), ("class Test {" + System.lineSeparator()
+                + "    // TODO: remove" + System.lineSeparator()
+                + "    int Field;" + System.lineSeparator()
+                + "}" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+
+        // SLL mode is always tried first during warm up of the parser
+        TestUtil.<LongAdder>getInternalStaticState(JavaParser.class, "SLL_HITS").reset();
+        TestUtil.<LongAdder>getInternalStaticState(JavaParser.class, "SLL_MISSES").reset();
+        final CloseAndFlushTestByteArrayOutputStream outputStream =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final ModuleProfiler profiler =
+                new ModuleProfiler(outputStream, OutputStreamOptions.NONE);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.setProfiler(profiler);
+        checker.configure(createConfiguration());
+        checker.addListener(profiler);
+        checker.process(Collections.singletonList(file));
+        checker.destroy();
+
+        final String report = outputStream.toString(StandardCharsets.UTF_8);
+        assertWithMessage("Invalid report header")
+                .that(report)
+                .containsMatch("^Audit time: \\d+\\.\\d{3} ms\\R"
+                        + "    Time, ms   Share        Calls  Module\\R");
+        assertWithMessage("Time of fileset checks should be reported")
+                .that(report)
+                .containsMatch("\\s1  TreeWalker\\R");
+        assertWithMessage("Time of parsing should be reported")
+                .that(report)
+                .containsMatch("\\s1  JavaParser.parse\\R");
+        assertWithMessage("Time of adding comment nodes should be reported")
+                .that(report)
+                .containsMatch("\\s1  JavaParser.appendHiddenCommentNodes\\R");
+        assertWithMessage("Check should be reported with its id")
+                .that(report)
+                .containsMatch("\\s\\d+  MemberName\\[memberName]\\R");
+        assertWithMessage("Comment check should be reported")
+                .that(report)
+                .containsMatch("\\s\\d+  TodoComment\\R");
+        assertWithMessage("TreeWalker filter should be called for both violations")
+                .that(report)
+                .containsMatch("\\s2  SuppressionXpathSingleFilter\\R");
+        assertWithMessage("Checker filter should be called for not suppressed violation")
+                .that(report)
+                .containsMatch("\\s1  SeverityMatchFilter\\R");
+        assertWithMessage("SLL hit rate should be reported")
+                .that(report)
+                .containsMatch("\\RSLL parse hit rate: 100\\.0% \\(1 of 1 files\\)\\R");
+        assertWithMessage("Size of DFA cache should be reported")
+                .that(report)
+                .containsMatch("\\RParser DFA cache: \\d+ states, cleared \\d+ times\\R$");
+    }
+
+    @Test
+    public void testAggregatesInstancesOfModule() {
+        final CloseAndFlushTestByteArrayOutputStream outputStream =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final ModuleProfiler profiler =
+                new ModuleProfiler(outputStream, OutputStreamOptions.NONE);
+        final AuditEvent event = new AuditEvent(this);
+        profiler.auditStarted(event);
+        profiler.addTime(new TypeNameCheck(), System.nanoTime());
+        profiler.addTime(new TypeNameCheck(), System.nanoTime());
+        profiler.addTime(ModuleProfiler.PARSE, System.nanoTime());
+        profiler.fileStarted(event);
+        profiler.addError(event);
+        profiler.addException(event, new IllegalStateException("test"));
+        profiler.fileFinished(event);
+        profiler.auditFinished(event);
+
+        final String report = outputStream.toString(StandardCharsets.UTF_8);
+        assertWithMessage("Instances of a module should be reported together")
+                .that(report)
+                .containsMatch("\\s2  TypeName\\R");
+        assertWithMessage("Invalid number of modules and parser statistics")
+                .that(report.split("\\R"))
+                .hasLength(5);
+    }
+
+    @Test
+    public void testCloseStream() {
+        final CloseAndFlushTestByteArrayOutputStream outputStream =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final ModuleProfiler profiler =
+                new ModuleProfiler(outputStream, OutputStreamOptions.CLOSE);
+        profiler.finishLocalSetup();
+        final AuditEvent event = new AuditEvent(this);
+        profiler.auditStarted(event);
+        profiler.auditFinished(event);
+
+        assertWithMessage("Invalid close count")
+                .that(outputStream.getCloseCount())
+                .isEqualTo(1);
+        assertWithMessage("Report without modules should contain only header")
+                .that(outputStream.toString(StandardCharsets.UTF_8).split("\\R"))
+                .hasLength(2);
+    }
+
+    @Test
+    public void testNoCloseStream() {
+        final CloseAndFlushTestByteArrayOutputStream outputStream =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final ModuleProfiler profiler =
+                new ModuleProfiler(outputStream, OutputStreamOptions.NONE);
+        final AuditEvent event = new AuditEvent(this);
+        profiler.auditStarted(event);
+        profiler.auditFinished(event);
+
+        assertWithMessage("Invalid close count")
+                .that(outputStream.getCloseCount())
+                .isEqualTo(0);
+        assertWithMessage("Invalid flush count")
+                .that(outputStream.getFlushCount())
+                .isEqualTo(1);
+    }
+
+    private static DefaultConfiguration createConfiguration() {
+        final DefaultConfiguration memberNameConfig =
+                new DefaultConfiguration(MemberNameCheck.class.getName());
+        memberNameConfig.addProperty("id", "memberName");
+        final DefaultConfiguration xpathFilterConfig =
+                new DefaultConfiguration(SuppressionXpathSingleFilter.class.getName());
+        xpathFilterConfig.addProperty("checks", "TodoComment");
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+        treeWalkerConfig.addChild(memberNameConfig);
+        treeWalkerConfig.addChild(new DefaultConfiguration(TodoCommentCheck.class.getName()));
+        treeWalkerConfig.addChild(xpathFilterConfig);
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(new DefaultConfiguration(SeverityMatchFilter.class.getName()));
+        return checkerConfig;
+    }
+
+}
@@ -0,0 +1,359 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOError;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+import com.puppycrawl.tools.checkstyle.checks.TranslationCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter;
+import com.puppycrawl.tools.checkstyle.internal.testmodules.TestFileSetCheck;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class ParallelFileProcessorTest extends AbstractModuleTestSupport {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/checker";
+    }
+
+    @Test
+    public void testIsSharedBetweenThreads() {
+        assertWithMessage("Stateless check should be shared")
+                .that(ParallelFileProcessor.isSharedBetweenThreads(
+                        new NewlineAtEndOfFileCheck()))
+                .isTrue();
+        assertWithMessage("Global stateful check should be shared")
+                .that(ParallelFileProcessor.isSharedBetweenThreads(new TranslationCheck()))
+                .isTrue();
+        assertWithMessage("File stateful check should not be shared")
+                .that(ParallelFileProcessor.isSharedBetweenThreads(new TreeWalker()))
+                .isFalse();
+        assertWithMessage("Not annotated check should not be shared")
+                .that(ParallelFileProcessor.isSharedBetweenThreads(new TestFileSetCheck()))
+                .isFalse();
+    }
+
+    @Test
+    public void testFiresSameEventsAsSingleThreadMode() throws Exception {
+        final List<File> files = createInputFiles();
+
+        final String singleThreadOutput = processFiles(
+                createChecker(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE, null), files);
+        final String multiThreadOutput =
+                processFiles(createChecker(new ThreadModeSettings(4, 1), null), files);
+
+        assertWithMessage("Violation of last file is expected")
+                .that(singleThreadOutput)
+                .contains("'Field19'");
+        assertWithMessage("Violation of suppressed file is not expected")
+                .that(singleThreadOutput)
+                .doesNotContain("'Field18'");
+        assertWithMessage("Multi thread mode should fire the same events in the same order")
+                .that(multiThreadOutput)
+                .isEqualTo(singleThreadOutput);
+    }
+
+    @Test
+    public void testCacheByContent() throws Exception {
+        final List<File> files = createInputFiles();
+        final String expectedOutput = processFiles(
+                createChecker(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE, null), files);
+        final File cacheFile = new File(temporaryFolder, "cache.properties");
+
+        final List<Integer> processedFilesCounts = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            final Checker checker = createChecker(new ThreadModeSettings(4, 1), cacheFile);
+            final List<FileSetCheck> fileSetChecks =
+                    TestUtil.getInternalState(checker, "fileSetChecks");
+            final GlobalStatefulFileSet check = (GlobalStatefulFileSet) fileSetChecks.stream()
+                    .filter(GlobalStatefulFileSet.class::isInstance)
+                    .findFirst()
+                    .orElseThrow();
+
+            assertWithMessage("Cached violations should be reported the same way")
+                    .that(processFiles(checker, files))
+                    .isEqualTo(expectedOutput);
+            processedFilesCounts.add(check.getProcessedFilesCount());
+        }
+
+        assertWithMessage("Unchanged files should be processed only once")
+                .that(processedFilesCounts)
+                .containsExactly(files.size(), 0)
+                .inOrder();
+    }
+
+    @Test
+    public void testSharesGlobalStatefulCheck() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(4, 1);
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration(ROOT_MODULE_NAME, threadModeSettings);
+        checkerConfig.addChild(new DefaultConfiguration(
+                GlobalStatefulFileSet.class.getName(), threadModeSettings));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        final List<File> files = new ArrayList<>();
+        for (int index = 0; index < 50; index++) {
+            files.add(File.createTempFile("file", ".java", temporaryFolder));
+        }
+        checker.process(files);
+
+        final List<FileSetCheck> fileSetChecks =
+                TestUtil.getInternalState(checker, "fileSetChecks");
+        final GlobalStatefulFileSet check = (GlobalStatefulFileSet) fileSetChecks.get(0);
+        assertWithMessage("All files should be processed by the same instance")
+                .that(check.getProcessedFilesCount())
+                .isEqualTo(files.size());
+    }
+
+    @Test
+    public void testFileSetCheckNotCreatedFromConfiguration() throws Exception {
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(
+                new DefaultConfiguration(ROOT_MODULE_NAME, new ThreadModeSettings(2, 1)));
+        checker.addFileSetCheck(new TestFileSetCheck());
+
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        try {
+            checker.process(Collections.singletonList(file));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Error message is not expected")
+                    .that(ex.getMessage())
+                    .isEqualTo(TestFileSetCheck.class.getName() + " is not thread safe and can"
+                            + " not be used in multi thread mode, as it is not created from a"
+                            + " configuration");
+        }
+    }
+
+    @Test
+    public void testExceptionWithCache() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(2, 1);
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        treeWalkerConfig.addChild(new DefaultConfiguration(
+                CheckerTest.CheckWhichThrowsError.class.getName(), threadModeSettings));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration(ROOT_MODULE_NAME, threadModeSettings);
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        final String filePath = getPath("InputChecker.java");
+        final String otherFilePath = getPath("InputCheckerClearDetailAstLazyLoadCache.java");
+        try {
+            checker.process(Arrays.asList(new File(filePath), new File(otherFilePath)));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Error message is not expected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Exception was thrown while processing " + filePath);
+
+            checker.destroy();
+
+            final Properties cache = new Properties();
+            try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath())) {
+                cache.load(reader);
+            }
+
+            assertWithMessage("Cache has unexpected size")
+                    .that(cache)
+                    .hasSize(1);
+            assertWithMessage("Processed file is not expected in cache")
+                    .that(cache.getProperty(filePath))
+                    .isNull();
+            assertWithMessage("Pending file is not expected in cache")
+                    .that(cache.getProperty(otherFilePath))
+                    .isNull();
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(2, 1);
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration(ROOT_MODULE_NAME, threadModeSettings);
+        checkerConfig.addChild(new DefaultConfiguration(
+                FileSetWhichThrowsError.class.getName(), threadModeSettings));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        try {
+            checker.process(Collections.singletonList(file));
+            assertWithMessage("Error is expected").fail();
+        }
+        catch (Error error) {
+            assertWithMessage("Error cause differs from IOError")
+                    .that(error.getCause())
+                    .isInstanceOf(IOError.class);
+            assertWithMessage("Error message is not expected")
+                    .that(error.getMessage())
+                    .isEqualTo("Error was thrown while processing " + file.getPath());
+        }
+    }
+
+    @Test
+    public void testInterruptedWhileWaiting() throws Exception {
+        final ParallelFileProcessor processor = new ParallelFileProcessor(2,
+                Collections.emptyList(), Collections.emptyMap(), (file, checks) -> {
+                    try {
+                        Thread.sleep(1000);
+                    }
+                    catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Collections.emptyList();
+                }, Collections.emptyList());
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        processor.start(StandardCharsets.UTF_8.name());
+        processor.submit(file, new Checker());
+        Thread.currentThread().interrupt();
+        try {
+            processor.finish(new Checker());
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Interrupted while processing " + file.getPath());
+            assertWithMessage("Thread should stay interrupted")
+                    .that(Thread.interrupted())
+                    .isTrue();
+        }
+        finally {
+            assertWithMessage("Interrupted file should not be reported")
+                    .that(processor.shutdown())
+                    .containsExactly(file);
+        }
+    }
+
+    private List<File> createInputFiles() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            final File file = new File(temporaryFolder, "InputChecker" + index + ".java");
+            String content = "class InputChecker" + index + " {" + System.lineSeparator()
+                    + "    int Field" + index + ";" + System.lineSeparator()
+                    + "}";
+            if (index % 2 == 0) {
+                content = "@SuppressWarnings(\"membername\")" + System.lineSeparator() + content;
+            }
+            Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static Checker createChecker(ThreadModeSettings threadModeSettings,
+            File cacheFile) throws Exception {
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        treeWalkerConfig.addChild(
+                new DefaultConfiguration(MemberNameCheck.class.getName(), threadModeSettings));
+        treeWalkerConfig.addChild(new DefaultConfiguration(
+                SuppressWarningsHolder.class.getName(), threadModeSettings));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration(ROOT_MODULE_NAME, threadModeSettings);
+        checkerConfig.addProperty("charset", StandardCharsets.UTF_8.name());
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(new DefaultConfiguration(
+                NewlineAtEndOfFileCheck.class.getName(), threadModeSettings));
+        checkerConfig.addChild(new DefaultConfiguration(
+                GlobalStatefulFileSet.class.getName(), threadModeSettings));
+        checkerConfig.addChild(new DefaultConfiguration(
+                SuppressWarningsFilter.class.getName(), threadModeSettings));
+        if (cacheFile != null) {
+            checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+            checkerConfig.addProperty("cacheByContent", "true");
+        }
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        return checker;
+    }
+
+    private static String processFiles(Checker checker, List<File> files) throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        checker.addListener(new DefaultLogger(outputStream, OutputStreamOptions.NONE));
+        checker.process(files);
+        checker.destroy();
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    @GlobalStatefulCheck
+    public static final class GlobalStatefulFileSet extends AbstractFileSetCheck {
+
+        private int processedFilesCount;
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            processedFilesCount++;
+        }
+
+        public int getProcessedFilesCount() {
+            return processedFilesCount;
+        }
+
+    }
+
+    public static final class FileSetWhichThrowsError extends AbstractFileSetCheck {
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            throw new IOError(new InternalError("test"));
+        }
+
+    }
+
+}
@@ -31,12 +31,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
@@ -51,6 +56,9 @@ import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -104,6 +112,138 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
                 .isFalse();
     }
 
+    @Test
+    public void testInCacheByContentHash() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final File file = File.createTempFile("myFile", null, temporaryFolder);
+        final String contentHash = PropertyCacheFile.getContentHash(file.toPath());
+        cache.put("myFile", contentHash);
+        assertWithMessage("Should return true when file is in cache")
+                .that(cache.isInCache("myFile", contentHash))
+                .isTrue();
+
+        Files.write(file.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+        assertWithMessage("Should return false when file content is changed")
+                .that(cache.isInCache("myFile", PropertyCacheFile.getContentHash(file.toPath())))
+                .isFalse();
+        assertWithMessage("Should return false when file is not in cache")
+                .that(cache.isInCache("myFile1", contentHash))
+                .isFalse();
+    }
+
+    @Test
+    public void testViolations() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final Violation violation = new Violation(2, 3, 4, TokenTypes.IDENT, null,
+                "name.invalidPattern", new Object[] {"Field", "^[a-z]+$"},
+                SeverityLevel.WARNING, "myId", PropertyCacheFileTest.class,
+                "Name ''{0}'' must match pattern ''{1}''.");
+        cache.put("myFile", "hash");
+        cache.putViolations("myFile", List.of(violation), Locale.ENGLISH);
+
+        final List<Violation> violations =
+                cache.getViolations("myFile", Locale.ENGLISH, getClass().getClassLoader());
+        assertWithMessage("Invalid number of violations")
+                .that(violations)
+                .hasSize(1);
+        final Violation cachedViolation = violations.get(0);
+        assertWithMessage("Invalid violation")
+                .that(cachedViolation.getViolation())
+                .isEqualTo("Name 'Field' must match pattern '^[a-z]+$'.");
+        assertWithMessage("Invalid position")
+                .that(List.of(cachedViolation.getLineNo(), cachedViolation.getColumnNo(),
+                        cachedViolation.getColumnCharIndex(), cachedViolation.getTokenType()))
+                .containsExactly(2, 3, 4, TokenTypes.IDENT)
+                .inOrder();
+        assertWithMessage("Invalid severity level")
+                .that(cachedViolation.getSeverityLevel())
+                .isEqualTo(SeverityLevel.WARNING);
+        assertWithMessage("Invalid module id")
+                .that(cachedViolation.getModuleId())
+                .isEqualTo("myId");
+        assertWithMessage("Invalid key")
+                .that(cachedViolation.getKey())
+                .isEqualTo("name.invalidPattern");
+        assertWithMessage("Invalid source name")
+                .that(cachedViolation.getSourceName())
+                .isEqualTo(PropertyCacheFileTest.class.getName());
+
+        cache.putViolations("myFile", Collections.emptyList(), Locale.ENGLISH);
+        assertWithMessage("Violations should be removed")
+                .that(cache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"))
+                .isNull();
+        assertWithMessage("File without violations should have no violations")
+                .that(cache.getViolations("myFile", Locale.ENGLISH, getClass().getClassLoader()))
+                .isEmpty();
+    }
+
+    @Test
+    public void testViolationsRemovedWithFile() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final Violation violation = new Violation(1, null, "key", new Object[] {"'{x}'"},
+                null, PropertyCacheFileTest.class, "{0}");
+        cache.put("myFile", "hash");
+        cache.putViolations("myFile", List.of(violation), Locale.ENGLISH);
+        assertWithMessage("Quotes and braces should be kept in violation")
+                .that(cache.getViolations("myFile", Locale.ENGLISH, getClass().getClassLoader())
+                        .get(0).getViolation())
+                .isEqualTo("'{x}'");
+
+        cache.remove("myFile");
+
+        assertWithMessage("File should be removed")
+                .that(cache.get("myFile"))
+                .isNull();
+        assertWithMessage("Violations should be removed")
+                .that(cache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile"))
+                .isNull();
+    }
+
+    @Test
+    public void testViolationsOfOtherLocale() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final Violation violation = new Violation(1, null, "key", null,
+                null, PropertyCacheFileTest.class, "message");
+        cache.put("myFile", "hash");
+        cache.putViolations("myFile", List.of(violation), Locale.ENGLISH);
+
+        assertWithMessage("Violations should not be restored with other locale")
+                .that(cache.getViolations("myFile", Locale.GERMAN, getClass().getClassLoader()))
+                .isNull();
+        assertWithMessage("Violations should be restored with same locale")
+                .that(cache.getViolations("myFile", Locale.ENGLISH, getClass().getClassLoader()))
+                .hasSize(1);
+    }
+
+    @Test
+    public void testBrokenViolations() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = File.createTempFile("junit", null, temporaryFolder).getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final Violation violation = new Violation(1, null, "key", null,
+                null, PropertyCacheFileTest.class, "message");
+        cache.putViolations("myFile", List.of(violation), Locale.ENGLISH);
+
+        assertWithMessage("Violations should not be restored without source class")
+                .that(cache.getViolations("myFile", Locale.ENGLISH,
+                        new URLClassLoader(new URL[0], null)))
+                .isNull();
+
+        final Properties details = TestUtil.getInternalState(cache, "details");
+        details.setProperty(PropertyCacheFile.VIOLATIONS_KEY_PREFIX + "myFile", "AAAA");
+        assertWithMessage("Truncated violations should not be restored")
+                .that(cache.getViolations("myFile", Locale.ENGLISH, getClass().getClassLoader()))
+                .isNull();
+    }
+
     @Test
     public void testResetIfFileDoesNotExist() throws IOException {
         final Configuration config = new DefaultConfiguration("myName");
@@ -402,6 +542,27 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         }
     }
 
+    @Test
+    public void testContentHashNoSuchAlgorithmException() throws Exception {
+        final File file = File.createTempFile("junit", null, temporaryFolder);
+
+        try (MockedStatic<MessageDigest> messageDigest = mockStatic(MessageDigest.class)) {
+            messageDigest.when(() -> MessageDigest.getInstance("SHA-1"))
+                    .thenThrow(NoSuchAlgorithmException.class);
+
+            final IllegalStateException ex = assertThrows(IllegalStateException.class,
+                    () -> PropertyCacheFile.getContentHash(file.toPath()));
+            assertWithMessage("Invalid exception cause")
+                .that(ex)
+                    .hasCauseThat()
+                    .isInstanceOf(NoSuchAlgorithmException.class);
+            assertWithMessage("Invalid exception message")
+                .that(ex)
+                    .hasMessageThat()
+                    .isEqualTo("Unable to calculate hash of file content.");
+        }
+    }
+
     /**
      * This test invokes {@code putExternalResources} twice to invalidate cache.
      * And asserts that two different exceptions produces different content,
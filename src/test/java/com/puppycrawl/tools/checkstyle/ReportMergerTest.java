@@ -0,0 +1,207 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.internal.utils.CloseAndFlushTestByteArrayOutputStream;
+
+public class ReportMergerTest {
+
+    private static final String FILE_WITH_VIOLATIONS = "A.java";
+
+    private static final String FILE_WITH_EXCEPTION = "B.java";
+
+    private static final String FILE_WITHOUT_VIOLATIONS = "C.java";
+
+    @TempDir
+    public File temporaryFolder;
+
+    private final IllegalStateException exception = new IllegalStateException("Exception");
+
+    @Test
+    public void testMergeXml() throws Exception {
+        assertMerged(Main.OutputFormat.XML);
+    }
+
+    @Test
+    public void testMergeSarif() throws Exception {
+        assertMerged(Main.OutputFormat.SARIF);
+    }
+
+    @Test
+    public void testMergeEmptySarif() throws Exception {
+        final File report = writeReport(Main.OutputFormat.SARIF, "empty.sarif");
+        final CloseAndFlushTestByteArrayOutputStream out =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final int errorCount = ReportMerger.merge(Arrays.asList(report, report), out,
+                OutputStreamOptions.CLOSE);
+        assertWithMessage("Invalid number of errors")
+                .that(errorCount)
+                .isEqualTo(0);
+        assertWithMessage("Merged report should be equal to report without violations")
+                .that(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(Files.readString(report.toPath(), StandardCharsets.UTF_8));
+        assertWithMessage("Stream should be closed")
+                .that(out.getCloseCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testMergeByUnescapedFileName() throws Exception {
+        // '>' is after '.', but its entity in the XML report is before it
+        final File fullReport = writeReport(Main.OutputFormat.XML, "full",
+                FILE_WITH_VIOLATIONS, "A>.java");
+        final File firstShardReport = writeReport(Main.OutputFormat.XML, "first", "A>.java");
+        final File secondShardReport = writeReport(Main.OutputFormat.XML, "second",
+                FILE_WITH_VIOLATIONS);
+
+        final CloseAndFlushTestByteArrayOutputStream out =
+                new CloseAndFlushTestByteArrayOutputStream();
+        ReportMerger.merge(Arrays.asList(firstShardReport, secondShardReport), out,
+                OutputStreamOptions.NONE);
+        assertWithMessage("Files should be ordered by unescaped name")
+                .that(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(Files.readString(fullReport.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDifferentFormats() throws Exception {
+        final File xmlReport = writeReport(Main.OutputFormat.XML, "report.xml");
+        final File sarifReport = writeReport(Main.OutputFormat.SARIF, "report.sarif");
+        final List<File> reports = Arrays.asList(xmlReport, sarifReport);
+        final CheckstyleException ex = assertThrows(CheckstyleException.class,
+                () -> merge(reports));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Report " + sarifReport + " is not in the format of the first report.");
+    }
+
+    @Test
+    public void testInvalidReports() throws Exception {
+        final File plainReport = writeReport(Main.OutputFormat.PLAIN, "report.txt");
+        assertInvalidReport(plainReport);
+
+        final File unclosedSarifReport = new File(temporaryFolder, "unclosed.sarif");
+        Files.write(unclosedSarifReport.toPath(), Arrays.asList(
+                "{", "  \"runs\": [", "    {", "      \"results\": ["), StandardCharsets.UTF_8);
+        assertInvalidReport(unclosedSarifReport);
+    }
+
+    private void assertMerged(Main.OutputFormat format) throws Exception {
+        final File fullReport = writeReport(format, "full",
+                null, FILE_WITH_VIOLATIONS, FILE_WITH_EXCEPTION, FILE_WITHOUT_VIOLATIONS);
+        final File firstShardReport = writeReport(format, "first",
+                FILE_WITHOUT_VIOLATIONS, FILE_WITH_VIOLATIONS);
+        final File secondShardReport = writeReport(format, "second",
+                null, FILE_WITH_EXCEPTION);
+
+        final CloseAndFlushTestByteArrayOutputStream out =
+                new CloseAndFlushTestByteArrayOutputStream();
+        final int errorCount = ReportMerger.merge(
+                Arrays.asList(firstShardReport, secondShardReport), out, OutputStreamOptions.NONE);
+        assertWithMessage("Errors and exceptions should be counted")
+                .that(errorCount)
+                .isEqualTo(3);
+        assertWithMessage("Merged report should be equal to report of all files")
+                .that(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(Files.readString(fullReport.toPath(), StandardCharsets.UTF_8));
+        assertWithMessage("Stream should be flushed but not closed")
+                .that(out.getCloseCount())
+                .isEqualTo(0);
+    }
+
+    private void assertInvalidReport(File report) {
+        final CheckstyleException ex = assertThrows(CheckstyleException.class,
+                () -> merge(Collections.singletonList(report)));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Report " + report + " is not written by XMLLogger or SarifLogger.");
+    }
+
+    private static int merge(List<File> reports) throws Exception {
+        return ReportMerger.merge(reports, new CloseAndFlushTestByteArrayOutputStream(),
+                OutputStreamOptions.NONE);
+    }
+
+    /**
+     * Writes a report of an audit of the given files. A {@code null} file stands for
+     * an exception without file.
+     *
+     * @param format format of the report
+     * @param name name of the report
+     * @param fileNames the audited files
+     * @return the report
+     * @throws IOException if the report can not be written
+     */
+    private File writeReport(Main.OutputFormat format, String name, String... fileNames)
+            throws IOException {
+        final File report = new File(temporaryFolder, name);
+        final AuditListener logger = format.createListener(
+                Files.newOutputStream(report.toPath()), OutputStreamOptions.CLOSE);
+        logger.auditStarted(null);
+        for (String fileName : fileNames) {
+            if (fileName == null) {
+                logger.addException(new AuditEvent(this, null), exception);
+            }
+            else {
+                final AuditEvent fileEvent = new AuditEvent(this, fileName);
+                logger.fileStarted(fileEvent);
+                if (FILE_WITH_VIOLATIONS.equals(fileName)) {
+                    logger.addError(new AuditEvent(this, fileName,
+                            createViolation(SeverityLevel.ERROR)));
+                    logger.addError(new AuditEvent(this, fileName,
+                            createViolation(SeverityLevel.WARNING)));
+                }
+                else if (FILE_WITH_EXCEPTION.equals(fileName)) {
+                    logger.addException(fileEvent, exception);
+                }
+                logger.fileFinished(fileEvent);
+            }
+        }
+        logger.auditFinished(null);
+        return report;
+    }
+
+    private Violation createViolation(SeverityLevel severityLevel) {
+        return new Violation(2, severityLevel.ordinal() + 1, "messages", "key", null,
+                severityLevel, null, getClass(),
+                "Message \"" + severityLevel + "\" <'{'&amp;'}'>");
+    }
+
+}
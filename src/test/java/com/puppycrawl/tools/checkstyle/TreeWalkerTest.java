@@ -36,6 +36,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -54,6 +55,8 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+import com.puppycrawl.tools.checkstyle.checks.TodoCommentCheck;
 import com.puppycrawl.tools.checkstyle.checks.blocks.LeftCurlyCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
@@ -66,6 +69,7 @@ import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAfterCheck;
 import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAroundCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressWithNearbyCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathFilter;
@@ -645,6 +649,167 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         verify(checkerConfig, filePath, expected);
     }
 
+    @Test
+    public void testMultiThreadMode() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(1, 3);
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        treeWalkerConfig.addChild(createModuleConfig(ConstantNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TypeNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(SuppressWarningsHolder.class));
+        treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(CommentsIndentationCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(SuppressWarningsFilter.class));
+
+        final String[] expected = {
+            "4:30: " + getCheckMessage(ConstantNameCheck.class,
+                    MSG_INVALID_PATTERN, "constant", "^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$"),
+            "6:17: " + getCheckMessage(MemberNameCheck.class,
+                    MSG_INVALID_PATTERN, "Field", "^[a-z][a-zA-Z0-9]*$"),
+            "11:7: " + getCheckMessage(TodoCommentCheck.class,
+                    TodoCommentCheck.MSG_KEY, "TODO:"),
+            "12:11: " + getCheckMessage(TypeNameCheck.class,
+                    MSG_INVALID_PATTERN, "inner", "^[A-Z][a-zA-Z0-9]*$"),
+        };
+        verify(checkerConfig, getPath("InputTreeWalkerMultiThread.java"), expected);
+    }
+
+    @Test
+    public void testSkipSubtrees() throws Exception {
+        verifyWithProperty(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE, "skipSubtrees");
+    }
+
+    @Test
+    public void testSkipSubtreesInMultiThreadMode() throws Exception {
+        verifyWithProperty(new ThreadModeSettings(1, 3), "skipSubtrees");
+    }
+
+    private void verifyWithProperty(ThreadModeSettings threadModeSettings, String property)
+            throws Exception {
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        treeWalkerConfig.addProperty(property, "true");
+        treeWalkerConfig.addChild(createModuleConfig(ConstantNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TypeNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(SuppressWarningsHolder.class));
+        treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(CommentsIndentationCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(SuppressWarningsFilter.class));
+
+        final String[] expected = {
+            "4:30: " + getCheckMessage(ConstantNameCheck.class,
+                    MSG_INVALID_PATTERN, "constant", "^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$"),
+            "6:17: " + getCheckMessage(MemberNameCheck.class,
+                    MSG_INVALID_PATTERN, "Field", "^[a-z][a-zA-Z0-9]*$"),
+            "11:7: " + getCheckMessage(TodoCommentCheck.class,
+                    TodoCommentCheck.MSG_KEY, "TODO:"),
+            "12:11: " + getCheckMessage(TypeNameCheck.class,
+                    MSG_INVALID_PATTERN, "inner", "^[A-Z][a-zA-Z0-9]*$"),
+        };
+        verify(checkerConfig, getPath("InputTreeWalkerMultiThread.java"), expected);
+    }
+
+    @Test
+    public void testMultiThreadModeWithExceptionInOtherThread() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(1, 2);
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings);
+        final DefaultConfiguration firstCheckConfig = createModuleConfig(FailingCheck.class);
+        firstCheckConfig.addProperty("id", "first");
+        treeWalkerConfig.addChild(firstCheckConfig);
+        final DefaultConfiguration secondCheckConfig = createModuleConfig(FailingCheck.class);
+        secondCheckConfig.addProperty("id", "second");
+        secondCheckConfig.addProperty("fail", "true");
+        treeWalkerConfig.addChild(secondCheckConfig);
+
+        final String filePath = getPath("InputTreeWalkerMultiThread.java");
+        try {
+            verify(treeWalkerConfig, filePath, CommonUtil.EMPTY_STRING_ARRAY);
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Exception was thrown while processing " + filePath);
+            assertWithMessage("Failure of check should be rethrown as is")
+                    .that(ex.getCause())
+                    .isInstanceOf(IllegalStateException.class);
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getCause().getMessage())
+                    .isEqualTo("second");
+        }
+    }
+
+    @Test
+    public void testMultiThreadModeInterrupted() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(1, 2);
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.setModuleFactory(new PackageObjectFactory(
+                new HashSet<>(), Thread.currentThread().getContextClassLoader()));
+        treeWalker.configure(
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings));
+        final DefaultConfiguration firstCheckConfig = createModuleConfig(SleepingCheck.class);
+        firstCheckConfig.addProperty("id", "first");
+        treeWalker.setupChild(firstCheckConfig);
+        final DefaultConfiguration secondCheckConfig = createModuleConfig(SleepingCheck.class);
+        secondCheckConfig.addProperty("id", "second");
+        secondCheckConfig.addProperty("sleep", "true");
+        treeWalker.setupChild(secondCheckConfig);
+        final File file = new File(getPath("InputTreeWalkerMultiThread.java"));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+        treeWalker.setFileContents(new FileContents(fileText));
+
+        Thread.currentThread().interrupt();
+        try {
+            treeWalker.processFiltered(file, fileText);
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Error message is unexpected")
+                    .that(ex.getMessage())
+                    .isEqualTo("Interrupted while walking AST");
+            assertWithMessage("Thread should stay interrupted")
+                    .that(Thread.interrupted())
+                    .isTrue();
+        }
+        finally {
+            treeWalker.destroy();
+        }
+    }
+
+    @Test
+    public void testMultiThreadModeUsesDaemonThreads() throws Exception {
+        final ThreadModeSettings threadModeSettings = new ThreadModeSettings(1, 2);
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.setModuleFactory(new PackageObjectFactory(
+                new HashSet<>(), Thread.currentThread().getContextClassLoader()));
+        treeWalker.configure(
+                new DefaultConfiguration(TreeWalker.class.getName(), threadModeSettings));
+        final DefaultConfiguration firstCheckConfig = createModuleConfig(SleepingCheck.class);
+        firstCheckConfig.addProperty("id", "first");
+        treeWalker.setupChild(firstCheckConfig);
+        final DefaultConfiguration secondCheckConfig = createModuleConfig(SleepingCheck.class);
+        secondCheckConfig.addProperty("id", "second");
+        treeWalker.setupChild(secondCheckConfig);
+        final File file = new File(getPath("InputTreeWalkerMultiThread.java"));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+        treeWalker.setFileContents(new FileContents(fileText));
+
+        treeWalker.processFiltered(file, fileText);
+        final ExecutorService executor = TestUtil.getInternalState(treeWalker, "executor");
+        assertWithMessage("Threads of executor should not keep JVM running")
+                .that(executor.submit(() -> Thread.currentThread().isDaemon()).get())
+                .isTrue();
+        treeWalker.finishProcessing();
+        assertWithMessage("Executor should be shut down after audit")
+                .that(executor.isShutdown())
+                .isTrue();
+    }
+
     public static class BadJavaDocCheck extends AbstractCheck {
 
         @Override
@@ -739,6 +904,75 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
 
     }
 
+    public static final class FailingCheck extends AbstractCheck {
+
+        private boolean fail;
+
+        public void setFail(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public int[] getDefaultTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            if (fail) {
+                throw new IllegalStateException(getId());
+            }
+        }
+
+    }
+
+    public static final class SleepingCheck extends AbstractCheck {
+
+        private boolean sleep;
+
+        public void setSleep(boolean sleep) {
+            this.sleep = sleep;
+        }
+
+        @Override
+        public int[] getDefaultTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getRequiredTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            if (sleep) {
+                try {
+                    Thread.sleep(10_000);
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+    }
+
     public static class RequiredTokenIsEmptyIntArray extends AbstractCheck {
 
         @Override
@@ -255,6 +255,40 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
                 .isEqualTo("Must specify 'config'.");
     }
 
+    @Test
+    public final void testInvalidShardIndex() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setShardIndex(1);
+        final BuildException ex = assertThrows(BuildException.class,
+                antTask::execute,
+                "BuildException is expected");
+        assertWithMessage("Error message is unexpected")
+                .that(ex.getMessage())
+                .isEqualTo("Attribute 'shardIndex' must be between 0 and 'shardCount' - 1.");
+    }
+
+    @Test
+    public final void testShard() throws IOException {
+        TestRootModuleChecker.reset();
+        final CheckstyleAntTask antTask = getCheckstyleAntTask(CUSTOM_ROOT_CONFIG_FILE);
+        antTask.setFile(new File(getPath(VIOLATED_INPUT)));
+        final FileSet examinationFileSet = new FileSet();
+        examinationFileSet.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.addFileset(examinationFileSet);
+        antTask.setShardIndex(1);
+        antTask.setShardCount(2);
+        antTask.execute();
+
+        final List<File> filesToCheck = TestRootModuleChecker.getFilesToCheck();
+        assertWithMessage("Only the smaller file should be in the second shard")
+                .that(filesToCheck)
+                .hasSize(1);
+        assertWithMessage("The path of file differs from expected")
+                .that(filesToCheck.get(0).getAbsolutePath())
+                .isEqualTo(getPath(FLAWLESS_INPUT));
+    }
+
     @Test
     public final void testNonExistentConfig() throws IOException {
         final CheckstyleAntTask antTask = new CheckstyleAntTask();
@@ -266,6 +266,29 @@ public class AbstractCheckTest extends AbstractModuleTestSupport {
                 .isEqualTo(lines);
     }
 
+    @Test
+    public void testAnalysisIsSharedByChecks() {
+        final AnalysisCheck check = new AnalysisCheck();
+        final AnalysisCheck otherCheck = new AnalysisCheck();
+        final FileContents fileContents = new FileContents(
+                new FileText(new File("filename"), Collections.singletonList("test")));
+        final DetailAST rootAst = new DetailAstImpl();
+        check.setFileContents(fileContents);
+        otherCheck.setFileContents(fileContents);
+        check.beginTree(rootAst);
+        otherCheck.beginTree(rootAst);
+
+        assertWithMessage("Model should be computed once for the file")
+                .that(otherCheck.model)
+                .isSameInstanceAs(check.model);
+
+        check.setFileContents(new FileContents(fileContents.getText()));
+        check.beginTree(rootAst);
+        assertWithMessage("Model should be computed for the next file")
+                .that(check.model)
+                .isNotSameInstanceAs(otherCheck.model);
+    }
+
     @Test
     public void testGetAcceptableTokens() {
         final int[] defaultTokens = {TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF};
@@ -428,6 +451,34 @@ public class AbstractCheckTest extends AbstractModuleTestSupport {
 
     }
 
+    private static final class AnalysisCheck extends AbstractCheck {
+
+        private static final AnalysisPass<Object> PASS = rootAst -> new Object();
+
+        private Object model;
+
+        @Override
+        public int[] getDefaultTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            model = getAnalysis(PASS, rootAST);
+        }
+
+    }
+
     public static final class VisitCounterCheck extends AbstractCheck {
 
         private int count;
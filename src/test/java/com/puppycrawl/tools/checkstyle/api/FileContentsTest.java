@@ -27,9 +27,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import com.puppycrawl.tools.checkstyle.DetailAstImpl;
 import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 
 public class FileContentsTest {
@@ -255,6 +257,51 @@ public class FileContentsTest {
                 .isEqualTo(new Comment(new String[] {"/** *"}, 2, 1, 6).toString());
     }
 
+    @Test
+    public void testGetAnalysis() {
+        final FileContents fileContents = new FileContents(
+                new FileText(new File("filename"), Collections.singletonList("    ")));
+        final DetailAstImpl rootAst = new DetailAstImpl();
+        final AtomicInteger count = new AtomicInteger();
+        final AnalysisPass<Integer> pass = ast -> count.incrementAndGet();
+        final AnalysisPass<Integer> dependentPass = ast -> fileContents.getAnalysis(pass, ast);
+
+        assertWithMessage("Model should be computed by dependent pass")
+                .that(fileContents.getAnalysis(dependentPass, rootAst))
+                .isEqualTo(1);
+        assertWithMessage("Model should be computed once")
+                .that(fileContents.getAnalysis(pass, rootAst))
+                .isEqualTo(1);
+        assertWithMessage("Model should be computed once per file")
+                .that(new FileContents(fileContents.getText()).getAnalysis(pass, rootAst))
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void testGetAnalysisKeepsFirstModel() {
+        final FileContents fileContents = new FileContents(
+                new FileText(new File("filename"), Collections.singletonList("    ")));
+        final AtomicInteger count = new AtomicInteger();
+        final AnalysisPass<Integer> pass = new AnalysisPass<>() {
+            @Override
+            public Integer analyze(DetailAST rootAst) {
+                final int model = count.incrementAndGet();
+                if (model == 1) {
+                    // model of the same pass is stored meanwhile, as by another thread
+                    fileContents.getAnalysis(this, rootAst);
+                }
+                return model;
+            }
+        };
+
+        assertWithMessage("Model stored first should be returned")
+                .that(fileContents.getAnalysis(pass, null))
+                .isEqualTo(2);
+        assertWithMessage("Model stored first should be kept")
+                .that(fileContents.getAnalysis(pass, null))
+                .isEqualTo(2);
+    }
+
     /*
      * This method is deprecated due to usage of deprecated FileContents#inPackageInfo
      * we keep this method until https://github.com/checkstyle/checkstyle/issues/11723
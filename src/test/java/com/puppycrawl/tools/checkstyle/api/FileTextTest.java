@@ -26,11 +26,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
 import com.puppycrawl.tools.checkstyle.internal.utils.CheckUtil;
@@ -38,6 +40,12 @@ import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 
 public class FileTextTest extends AbstractPathTestSupport {
 
+    /** A supplementary character, which is encoded as two surrogates. */
+    private static final String SUPPLEMENTARY_CHARACTER = "\ud83d\ude00";
+
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/api/filetext";
@@ -110,9 +118,9 @@ public class FileTextTest extends AbstractPathTestSupport {
         final String filepath = getPath("InputFileTextImportControl.xml");
         final FileText fileText = new FileText(new File(filepath), charset.name());
         final FileText copy = new FileText(fileText);
-        assertWithMessage("LineBreaks not null")
+        assertWithMessage("LineBreaks should be indexed when the file is read")
                 .that(TestUtil.<int[]>getInternalState(copy, "lineBreaks"))
-                .isNull();
+                .isNotNull();
         final LineColumn lineColumn = copy.lineColumn(100);
         assertWithMessage("Invalid line")
                 .that(lineColumn.getLine())
@@ -154,6 +162,105 @@ public class FileTextTest extends AbstractPathTestSupport {
                 .isEqualTo(new String[] {"abc"});
     }
 
+    @Test
+    public void testLinesAreCreatedWhenRequested() throws IOException {
+        final File file = new File(temporaryFolder, "lines.txt");
+        Files.write(file.toPath(), "a\r\n\rb\n\nc".getBytes(StandardCharsets.US_ASCII));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertWithMessage("Lines should not be created before they are requested")
+                .that(TestUtil.<String[]>getInternalState(fileText, "lines"))
+                .asList()
+                .containsExactly(null, null, null, null, null);
+        assertWithMessage("Invalid line")
+                .that(fileText.get(1))
+                .isEmpty();
+        assertWithMessage("Only the requested line should be created")
+                .that(TestUtil.<String[]>getInternalState(fileText, "lines"))
+                .asList()
+                .containsExactly(null, "", null, null, null);
+        assertWithMessage("Invalid lines")
+                .that(fileText.toLinesArray())
+                .asList()
+                .containsExactly("a", "", "b", "", "c")
+                .inOrder();
+        assertWithMessage("Invalid line column")
+                .that(fileText.lineColumn(5))
+                .isEqualTo(new LineColumn(3, 1));
+    }
+
+    @Test
+    public void testTerminatedLastLine() throws IOException {
+        final File file = new File(temporaryFolder, "terminated.txt");
+        Files.write(file.toPath(), "a\nb\r".getBytes(StandardCharsets.US_ASCII));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertWithMessage("Terminator of the last line should not start a line")
+                .that(fileText.toLinesArray())
+                .asList()
+                .containsExactly("a", "b")
+                .inOrder();
+
+        final File emptyFile = new File(temporaryFolder, "empty.txt");
+        Files.write(emptyFile.toPath(), new byte[0]);
+        assertWithMessage("Empty file should have no lines")
+                .that(new FileText(emptyFile, StandardCharsets.UTF_8.name()).size())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testNonAsciiText() throws IOException {
+        final File file = new File(temporaryFolder, "nonAscii.txt");
+        final byte[] text = {'a', (byte) 0xC3, (byte) 0xA9, '\n', (byte) 0xFF};
+        Files.write(file.toPath(), text);
+
+        assertWithMessage("Text should be decoded and malformed input replaced")
+                .that(new FileText(file, StandardCharsets.UTF_8.name()).toLinesArray())
+                .asList()
+                .containsExactly(new String(text, 0, 3, StandardCharsets.UTF_8), "\ufffd")
+                .inOrder();
+        assertWithMessage("Text should be decoded in the given charset")
+                .that(new FileText(file, StandardCharsets.ISO_8859_1.name()).get(0))
+                .isEqualTo(new String(text, 0, 3, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testSurrogates() throws IOException {
+        final String content = "a" + SUPPLEMENTARY_CHARACTER + "\n";
+        final File file = new File(temporaryFolder, "surrogates.txt");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        final File asciiFile = new File(temporaryFolder, "ascii.txt");
+        Files.write(asciiFile.toPath(), "a\n".getBytes(StandardCharsets.UTF_8));
+        final File utf16File = new File(temporaryFolder, "utf16.txt");
+        Files.write(utf16File.toPath(), content.getBytes(StandardCharsets.UTF_16));
+
+        final FileText text = new FileText(file, StandardCharsets.UTF_8.name());
+        assertWithMessage("Text with supplementary character should have surrogates")
+                .that(text.hasSurrogates())
+                .isTrue();
+        assertWithMessage("Copy should have surrogates")
+                .that(new FileText(text).hasSurrogates())
+                .isTrue();
+        assertWithMessage("Text in single byte charset should not have surrogates")
+                .that(new FileText(file, StandardCharsets.ISO_8859_1.name()).hasSurrogates())
+                .isFalse();
+        assertWithMessage("ASCII text should not have surrogates")
+                .that(new FileText(asciiFile, StandardCharsets.UTF_8.name()).hasSurrogates())
+                .isFalse();
+        assertWithMessage("Text in UTF-16 should have surrogates")
+                .that(new FileText(utf16File, StandardCharsets.UTF_16.name()).hasSurrogates())
+                .isTrue();
+        assertWithMessage("Text in UTF-16 without supplementary character")
+                .that(new FileText(asciiFile, StandardCharsets.UTF_16.name()).hasSurrogates())
+                .isFalse();
+        assertWithMessage("Text of lines should have surrogates")
+                .that(new FileText(file, Arrays.asList(SUPPLEMENTARY_CHARACTER)).hasSurrogates())
+                .isTrue();
+        assertWithMessage("Text of lines should not have surrogates")
+                .that(new FileText(file, Arrays.asList("\u00e9")).hasSurrogates())
+                .isFalse();
+    }
+
     @Test
     public void testFindLineBreaks() throws Exception {
         final FileText fileText = new FileText(new File("fileName"), Arrays.asList("1", "2"));
@@ -0,0 +1,169 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.api;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.DetailAstImpl;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+public class TokenTypeIndexTest {
+
+    private static final List<String> SOURCE = Arrays.asList(
+            "// comment",
+            "package a;",
+            "class A {",
+            "    /** Javadoc. */",
+            "    void a() {",
+            "        if (true) {",
+            "            int b = 1;",
+            "        }",
+            "    }",
+            "    class B {",
+            "        void b() { }",
+            "    }",
+            "}",
+            "interface C {",
+            "    void c();",
+            "}");
+
+    @Test
+    public void testGetNodes() throws Exception {
+        final DetailAST rootAst = parse(JavaParser.Options.WITHOUT_COMMENTS);
+        final TokenTypeIndex index = new TokenTypeIndex(rootAst);
+        assertWithMessage("All nodes of type should be found in document order")
+                .that(index.getNodes(TokenTypes.METHOD_DEF))
+                .containsExactlyElementsIn(findSubtreeNodes(rootAst, TokenTypes.METHOD_DEF, true))
+                .inOrder();
+        assertWithMessage("Top level nodes should be found")
+                .that(index.getNodes(TokenTypes.INTERFACE_DEF))
+                .hasSize(1);
+        assertWithMessage("No nodes of unknown type should be found")
+                .that(index.getNodes(Integer.MAX_VALUE))
+                .isEmpty();
+        assertWithMessage("No nodes of negative type should be found")
+                .that(index.getNodes(-1))
+                .isEmpty();
+    }
+
+    @Test
+    public void testGetSubtreeNodes() throws Exception {
+        final DetailAST rootAst = parse(JavaParser.Options.WITHOUT_COMMENTS);
+        final TokenTypeIndex index = new TokenTypeIndex(rootAst);
+        final DetailAST classDef = index.getNodes(TokenTypes.CLASS_DEF).get(0);
+        for (int type : Arrays.asList(TokenTypes.METHOD_DEF, TokenTypes.CLASS_DEF,
+                TokenTypes.IDENT, TokenTypes.RCURLY)) {
+            assertWithMessage("Invalid nodes of type " + TokenUtil.getTokenName(type))
+                    .that(index.getSubtreeNodes(classDef, type))
+                    .containsExactlyElementsIn(findSubtreeNodes(classDef, type, false))
+                    .inOrder();
+        }
+        assertWithMessage("No nodes of unknown type should be found")
+                .that(index.getSubtreeNodes(classDef, Integer.MAX_VALUE))
+                .isEmpty();
+    }
+
+    @Test
+    public void testCountSubtreeNodes() throws Exception {
+        final DetailAST rootAst = parse(JavaParser.Options.WITHOUT_COMMENTS);
+        final TokenTypeIndex index = new TokenTypeIndex(rootAst);
+        final DetailAST classDef = index.getNodes(TokenTypes.CLASS_DEF).get(0);
+        assertWithMessage("Node itself and all descendants should be counted")
+                .that(index.countSubtreeNodes(classDef, TokenTypes.CLASS_DEF, 0,
+                        Integer.MAX_VALUE))
+                .isEqualTo(2);
+        assertWithMessage("Only descendants should be counted")
+                .that(index.countSubtreeNodes(classDef, TokenTypes.CLASS_DEF, 1,
+                        Integer.MAX_VALUE))
+                .isEqualTo(1);
+        assertWithMessage("Only descendants up to maximum depth should be counted")
+                .that(index.countSubtreeNodes(classDef, TokenTypes.METHOD_DEF, 0, 2))
+                .isEqualTo(1);
+        assertWithMessage("No nodes of unknown type should be counted")
+                .that(index.countSubtreeNodes(classDef, -1, 0, Integer.MAX_VALUE))
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testCommentNodesAreNotIndexed() throws Exception {
+        final DetailAST rootAst = parse(JavaParser.Options.WITH_COMMENTS);
+        final DetailAST commentAst = rootAst.getFirstChild();
+        assertWithMessage("First node should be comment")
+                .that(commentAst.getType())
+                .isEqualTo(TokenTypes.SINGLE_LINE_COMMENT);
+        final TokenTypeIndex index = new TokenTypeIndex(commentAst);
+        assertWithMessage("Comment node should not be indexed")
+                .that(index.contains(commentAst))
+                .isFalse();
+        assertWithMessage("Comment nodes should not be indexed")
+                .that(index.getNodes(TokenTypes.BLOCK_COMMENT_BEGIN))
+                .isEmpty();
+        assertWithMessage("Nodes after comments should be indexed")
+                .that(index.getNodes(TokenTypes.METHOD_DEF))
+                .hasSize(3);
+        assertThrows(IllegalArgumentException.class,
+                () -> index.getSubtreeNodes(commentAst, TokenTypes.METHOD_DEF));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.countSubtreeNodes(new DetailAstImpl(), TokenTypes.METHOD_DEF, 0, 1));
+    }
+
+    @Test
+    public void testEmptyAst() {
+        final TokenTypeIndex index = new TokenTypeIndex(null);
+        assertWithMessage("No nodes should be found")
+                .that(index.getNodes(0))
+                .isEmpty();
+    }
+
+    private static DetailAST parse(JavaParser.Options options) throws Exception {
+        return JavaParser.parseFileText(new FileText(new File("A.java"), SOURCE), options);
+    }
+
+    private static List<DetailAST> findSubtreeNodes(DetailAST ast, int type,
+            boolean withSiblings) {
+        final List<DetailAST> result = new ArrayList<>();
+        DetailAST node = ast;
+        while (node != null) {
+            if (node.getType() == type) {
+                result.add(node);
+            }
+            if (node.hasChildren()) {
+                result.addAll(findSubtreeNodes(node.getFirstChild(), type, true));
+            }
+            if (withSiblings) {
+                node = node.getNextSibling();
+            }
+            else {
+                node = null;
+            }
+        }
+        return result;
+    }
+
+}
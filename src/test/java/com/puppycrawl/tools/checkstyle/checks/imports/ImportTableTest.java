@@ -0,0 +1,83 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.checks.imports;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+public class ImportTableTest {
+
+    @Test
+    public void testCollectsImportsInDeclarationOrder() throws Exception {
+        final ImportTable table = ImportTable.PASS.analyze(parse(
+                "// comment",
+                "package a.b;",
+                "import java.util.List;",
+                "import static java.util.Arrays.*;",
+                "import module;",
+                "class A {",
+                "}"));
+
+        assertWithMessage("Package definition should be found")
+                .that(table.getPackageDef().getLineNo())
+                .isEqualTo(2);
+        assertWithMessage("Imports should be in declaration order")
+                .that(table.getImports().stream()
+                        .map(entry -> entry.getName().getText())
+                        .collect(Collectors.toList()))
+                .containsExactly("java.util.List", "java.util.Arrays.*", "module")
+                .inOrder();
+        assertWithMessage("Only the second import should be static")
+                .that(table.getImports().stream()
+                        .map(ImportTable.Entry::isStatic)
+                        .collect(Collectors.toList()))
+                .containsExactly(false, true, false)
+                .inOrder();
+    }
+
+    @Test
+    public void testUnnamedPackageWithoutImports() throws Exception {
+        final ImportTable table = ImportTable.PASS.analyze(parse("class A {", "}"));
+
+        assertWithMessage("Unnamed package should have no definition")
+                .that(table.getPackageDef())
+                .isNull();
+        assertWithMessage("Imports should be empty")
+                .that(table.getImports())
+                .isEmpty();
+    }
+
+    private static DetailAST parse(String... lines) throws Exception {
+        final List<String> source = Arrays.asList(lines);
+        return JavaParser.parseFileText(new FileText(new File("A.java"), source),
+                JavaParser.Options.WITH_COMMENTS);
+    }
+
+}
@@ -0,0 +1,156 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAroundCheck;
+
+public class SuppressFilterSetTest {
+
+    @Test
+    public void testRequiredLiteral() {
+        assertLiteral("Test", "Test");
+        assertLiteral("[\\\\/]generated[\\\\/]", "generated");
+        assertLiteral("src/test/.*\\.java", "src/test/");
+        assertLiteral(".*Tests?\\.java$", ".java");
+        assertLiteral("abc*de", "ab");
+        assertLiteral("ab{2}cdef", "cdef");
+        assertLiteral("a\\dbc\\sdef", "def");
+        assertLiteral("x[]a]abc", "abc");
+        assertLiteral("[^a[bc]]abc", "abc");
+        assertLiteral("ab*?cd", "cd");
+        assertLiteral(".*", "");
+        assertLiteral("Test|Main", "");
+        assertLiteral("(Test)", "");
+        assertLiteral("\\QTest\\E", "");
+        assertLiteral("Test\\u0041", "");
+        assertWithMessage("Patterns with flags are not indexed")
+                .that(SuppressFilterSet.getRequiredLiteral(
+                        Pattern.compile("Test", Pattern.CASE_INSENSITIVE)))
+                .isEmpty();
+    }
+
+    @Test
+    public void testAcceptIsSameAsFilterSet() {
+        final List<Filter> filters = Arrays.asList(
+                new SuppressFilterElement("[\\\\/]generated[\\\\/]", null, null, null, null,
+                        null),
+                new SuppressFilterElement("Input\\.java", "WhitespaceAround", null, null, "2",
+                        null),
+                new SuppressFilterElement(".*", "FileTab", null, null, null, null),
+                new SuppressFilterElement((String) null, null, null, "tabs", null, null),
+                new SuppressFilterElement((String) null, null, "message", null, null, null),
+                new SuppressFilterElement("a|b", null, null, null, "3", null),
+                new SeverityMatchFilter());
+        final FilterSet expected = new FilterSet();
+        final FilterSet actual = new SuppressFilterSet();
+        for (Filter filter : filters) {
+            expected.addFilter(filter);
+            actual.addFilter(filter);
+        }
+
+        for (String fileName : Arrays.asList("src/generated/Input.java", "src/Input.java",
+                "src/Other.java", "a.txt", "c.txt")) {
+            for (int line = 1; line <= 3; line++) {
+                assertSameResult(expected, actual, fileName, line);
+            }
+        }
+    }
+
+    @Test
+    public void testEventsWithoutViolation() {
+        final FilterSet filterSet = new SuppressFilterSet();
+        filterSet.addFilter(new SuppressFilterElement("Test", null, null, null, null, null));
+        assertWithMessage("Event without violation should be accepted")
+                .that(filterSet.accept(new AuditEvent(this, "Test.java")))
+                .isTrue();
+        assertWithMessage("Event without file should be accepted")
+                .that(filterSet.accept(new AuditEvent(this, null,
+                        new Violation(1, 0, "", "", null, null, getClass(), null))))
+                .isTrue();
+    }
+
+    @Test
+    public void testIndexIsRebuiltOnChange() {
+        final AuditEvent event = new AuditEvent(this, "Test.java",
+                new Violation(1, 0, "", "", null, null, getClass(), null));
+        final Filter filter = new SuppressFilterElement("Test", null, null, null, null, null);
+        final FilterSet filterSet = new SuppressFilterSet();
+        assertWithMessage("Event should be accepted without filters")
+                .that(filterSet.accept(event))
+                .isTrue();
+
+        filterSet.addFilter(filter);
+        assertWithMessage("Event should be suppressed by added filter")
+                .that(filterSet.accept(event))
+                .isFalse();
+
+        filterSet.removeFilter(filter);
+        assertWithMessage("Event should be accepted after filter is removed")
+                .that(filterSet.accept(event))
+                .isTrue();
+
+        filterSet.addFilter(filter);
+        assertWithMessage("Event should be suppressed by added filter")
+                .that(filterSet.accept(event))
+                .isFalse();
+
+        filterSet.clear();
+        assertWithMessage("Event should be accepted after filters are cleared")
+                .that(filterSet.accept(event))
+                .isTrue();
+    }
+
+    private void assertSameResult(FilterSet expected, FilterSet actual, String fileName,
+            int line) {
+        for (String moduleId : Arrays.asList(null, "tabs", "other")) {
+            for (Class<?> check : Arrays.asList(WhitespaceAroundCheck.class,
+                    FileTabCharacterCheck.class)) {
+                for (String message : Arrays.asList("message", "text")) {
+                    final AuditEvent event = new AuditEvent(this, fileName,
+                            new Violation(line, 0, "", "", null, moduleId, check, message));
+                    assertWithMessage("Invalid result for %s, %s, %s, %s, %s",
+                            fileName, line, moduleId, check.getSimpleName(), message)
+                            .that(actual.accept(event))
+                            .isEqualTo(expected.accept(event));
+                }
+            }
+        }
+    }
+
+    private static void assertLiteral(String regex, String expected) {
+        assertWithMessage("Invalid literal of " + regex)
+                .that(SuppressFilterSet.getRequiredLiteral(Pattern.compile(regex)))
+                .isEqualTo(expected);
+    }
+
+}
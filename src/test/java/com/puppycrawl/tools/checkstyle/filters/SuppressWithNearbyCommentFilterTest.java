@@ -26,6 +26,7 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 
@@ -760,6 +761,27 @@ public class SuppressWithNearbyCommentFilterTest
             .isEmpty();
     }
 
+    @Test
+    public void testOverlappingTags() {
+        final SuppressWithNearbyCommentFilter filter = new SuppressWithNearbyCommentFilter();
+        filter.setCommentFormat(Pattern.compile("SUPPRESS (\\w+) (\\d+)"));
+        filter.setCheckFormat("$1");
+        filter.setInfluenceFormat("$2");
+        final FileContents contents = new FileContents(new FileText(new File("filename"),
+                Arrays.asList("//SUPPRESS Object 5", "//SUPPRESS Other 1", "", "", "", "",
+                        "")));
+        contents.reportSingleLineComment(1, 0);
+        contents.reportSingleLineComment(2, 0);
+        assertWithMessage("Event in scope of tag, which ends after next tag, is suppressed")
+                .that(filter.accept(new TreeWalkerAuditEvent(contents, "filename",
+                        new Violation(5, null, null, null, null, Object.class, null), null)))
+                .isFalse();
+        assertWithMessage("Event after scope of all tags is accepted")
+                .that(filter.accept(new TreeWalkerAuditEvent(contents, "filename",
+                        new Violation(7, null, null, null, null, Object.class, null), null)))
+                .isTrue();
+    }
+
     /**
      * Calls the filter with a minimal set of inputs and returns a list of
      * {@link SuppressWithNearbyCommentFilter} internal type {@code Tag}.
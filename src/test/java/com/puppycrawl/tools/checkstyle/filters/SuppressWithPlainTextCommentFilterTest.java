@@ -26,15 +26,23 @@ import static com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocMethodCheck.
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_CONTAINS_TAB;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_FILE_CONTAINS_TAB;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
@@ -52,6 +60,9 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
 
     private static final String MSG_REGEXP_EXCEEDED = "regexp.exceeded";
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/filters/suppresswithplaintextcommentfilter";
@@ -657,6 +668,82 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
                 .isTrue();
     }
 
+    @Test
+    public void testSuppressionsAreCreatedOncePerFile() throws IOException {
+        final File file = new File(temporaryFolder, "Input.txt");
+        Files.write(file.toPath(), Arrays.asList("on", "// CHECKSTYLE:OFF", "off"),
+                StandardCharsets.UTF_8);
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        final String fileName = file.getPath();
+
+        assertWithMessage("Violation before suppression should be accepted")
+                .that(filter.accept(createEvent(fileName, 1)))
+                .isTrue();
+        final ThreadLocal<?> fileSuppressions =
+                TestUtil.getInternalState(filter, "fileSuppressions");
+        final Object suppressions = fileSuppressions.get();
+        assertWithMessage("Violation after suppression should not be accepted")
+                .that(filter.accept(createEvent(fileName, 3)))
+                .isFalse();
+        assertWithMessage("Suppressions should be created once per file")
+                .that(fileSuppressions.get())
+                .isSameInstanceAs(suppressions);
+
+        final String equalFileName = file.getParent() + File.separator + file.getName();
+        assertWithMessage("Suppressions should be reused for an equal file name")
+                .that(filter.accept(createEvent(equalFileName, 3)))
+                .isFalse();
+        assertWithMessage("Suppressions should be created once per file")
+                .that(fileSuppressions.get())
+                .isSameInstanceAs(suppressions);
+
+        Files.write(file.toPath(), Collections.singletonList("on"), StandardCharsets.UTF_8);
+        filter.auditStarted(null);
+        assertWithMessage("Suppressions should be created again when file is audited again")
+                .that(filter.accept(createEvent(fileName, 3)))
+                .isTrue();
+    }
+
+    @Test
+    public void testOtherAuditEventsAreIgnored() throws IOException {
+        final File file = new File(temporaryFolder, "Input.txt");
+        Files.write(file.toPath(), Arrays.asList("// CHECKSTYLE:OFF", "off"),
+                StandardCharsets.UTF_8);
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        final AuditEvent event = createEvent(file.getPath(), 2);
+
+        filter.auditFinished(event);
+        filter.fileStarted(event);
+        filter.fileFinished(event);
+        filter.addError(event);
+        filter.addException(event, new IllegalStateException("exception"));
+        assertWithMessage("Suppressions should not be affected by other audit events")
+                .that(filter.accept(event))
+                .isFalse();
+    }
+
+    @Test
+    public void testFilterIsAuditListenerOfChecker() {
+        final Checker checker = new Checker();
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+
+        checker.addFilter(filter);
+        final List<AuditListener> listeners = TestUtil.getInternalState(checker, "listeners");
+        assertWithMessage("Filter should be added as listener of checker")
+                .that(listeners)
+                .contains(filter);
+
+        checker.removeFilter(filter);
+        assertWithMessage("Filter should be removed as listener of checker")
+                .that(listeners)
+                .doesNotContain(filter);
+    }
+
+    private AuditEvent createEvent(String fileName, int line) {
+        return new AuditEvent(this, fileName, new Violation(line, 1,
+                "bundle", "key", null, SeverityLevel.ERROR, null, getClass(), "message"));
+    }
+
     private void verifySuppressed(String fileNameWithExtension, String[] violationMessages,
                                   Configuration... childConfigs) throws Exception {
         final DefaultConfiguration checkerConfig = createRootConfig(null);
@@ -25,6 +25,7 @@ import static com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck.MS
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 
@@ -620,6 +621,27 @@ public class SuppressionCommentFilterTest
             .isEmpty();
     }
 
+    @Test
+    public void testFindNearestMatchSkipsNotMatchingTags() {
+        final SuppressionCommentFilter filter = new SuppressionCommentFilter();
+        filter.setOffCommentFormat(Pattern.compile("CSOFF (\\w+)"));
+        filter.setOnCommentFormat(Pattern.compile("CSON (\\w+)"));
+        filter.setCheckFormat("$1");
+        final FileContents contents = new FileContents(new FileText(new File("filename"),
+                Arrays.asList("//CSOFF Object", "//CSOFF Other", "//CSON Other", "line4")));
+        contents.reportSingleLineComment(1, 0);
+        contents.reportSingleLineComment(2, 0);
+        contents.reportSingleLineComment(3, 0);
+        assertWithMessage("Event should be suppressed by tag before not matching tags")
+                .that(filter.accept(new TreeWalkerAuditEvent(contents, "filename",
+                        new Violation(4, null, null, null, null, Object.class, null), null)))
+                .isFalse();
+        assertWithMessage("Event before all tags should be accepted")
+                .that(filter.accept(new TreeWalkerAuditEvent(contents, "filename",
+                        new Violation(0, null, null, null, null, Object.class, null), null)))
+                .isTrue();
+    }
+
     private static List<Comparable<Object>> getTagsAfterExecutionOnDefaultFilter(String... lines) {
         return getTagsAfterExecution(new SuppressionCommentFilter(), "filename", lines);
     }
@@ -23,6 +23,7 @@ import static com.google.common.truth.Truth.assertWithMessage;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -31,10 +32,12 @@ import org.junit.jupiter.api.Test;
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import net.sf.saxon.Configuration;
 import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
@@ -343,6 +346,33 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testQueryIsEvaluatedOncePerFile() throws Exception {
+        final String xpath = "//METHOD_DEF[./IDENT[@text='countTokens']]";
+        final XpathFilterElement filter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null, xpath);
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        assertWithMessage("Event on matching node should be rejected")
+                .that(filter.accept(getEvent(4, 4, TokenTypes.METHOD_DEF, rootAst)))
+                .isFalse();
+        final AtomicReference<?> lastFileMatches =
+                TestUtil.getInternalState(filter, "lastFileMatches");
+        final Object fileMatches = lastFileMatches.get();
+        assertWithMessage("Event on other node should be accepted")
+                .that(filter.accept(getEvent(3, 0, TokenTypes.CLASS_DEF, rootAst)))
+                .isTrue();
+        assertWithMessage("Query should be evaluated once per file")
+                .that(lastFileMatches.get())
+                .isSameInstanceAs(fileMatches);
+
+        assertWithMessage("Event on matching node of other file should be rejected")
+                .that(filter.accept(getEvent(4, 4, TokenTypes.METHOD_DEF)))
+                .isFalse();
+        assertWithMessage("Query should be evaluated again for other file")
+                .that(lastFileMatches.get())
+                .isNotSameInstanceAs(fileMatches);
+    }
+
     @Test
     public void testEqualsAndHashCode() throws Exception {
         final XPathEvaluator xpathEvaluator = new XPathEvaluator(Configuration.newConfiguration());
@@ -352,7 +382,7 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
                 xpathEvaluator.createExpression("//VARIABLE_DEF"))
                 .usingGetClass()
                 .withIgnoredFields("fileRegexp", "checkRegexp", "messageRegexp",
-                    "xpathExpression", "isEmptyConfig")
+                    "xpathExpression", "isEmptyConfig", "lastFileMatches")
                 .report();
         assertWithMessage("Error: " + ev.getMessage())
                 .that(ev.isSuccessful())
@@ -361,11 +391,16 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
 
     private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType)
             throws Exception {
+        return getEvent(line, column, tokenType,
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+    }
+
+    private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType,
+            DetailAST rootAst) {
         final Violation message =
                 new Violation(line, column, tokenType, "", "", null, null, null,
                         getClass(), null);
-        return new TreeWalkerAuditEvent(fileContents, file.getName(), message,
-                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        return new TreeWalkerAuditEvent(fileContents, file.getName(), message, rootAst);
     }
 
 }
@@ -0,0 +1,344 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.internal;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.AbstractPathTestSupport.addEndOfLine;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.itsallcode.io.Capturable;
+import org.itsallcode.junit.sysextensions.SystemErrGuard;
+import org.itsallcode.junit.sysextensions.SystemErrGuard.SysErr;
+import org.itsallcode.junit.sysextensions.SystemOutGuard;
+import org.itsallcode.junit.sysextensions.SystemOutGuard.SysOut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import com.puppycrawl.tools.checkstyle.Definitions;
+import com.puppycrawl.tools.checkstyle.Main;
+import com.puppycrawl.tools.checkstyle.XMLLogger;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+@ExtendWith({SystemErrGuard.class, SystemOutGuard.class})
+public class MainOptionsTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    private final Violation auditStartMessage = new Violation(1,
+            Definitions.CHECKSTYLE_BUNDLE, "DefaultLogger.auditStarted", null, null,
+            getClass(), null);
+
+    private final Violation auditFinishMessage = new Violation(1,
+            Definitions.CHECKSTYLE_BUNDLE, "DefaultLogger.auditFinished", null, null,
+            getClass(), null);
+
+    private static String getPath(String filename) {
+        return "src/test/resources/com/puppycrawl/tools/checkstyle/main/" + filename;
+    }
+
+    private static String getFilePath(String filename) throws IOException {
+        return new File(getPath(filename)).getCanonicalPath();
+    }
+
+    @BeforeEach
+    public void setUp(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        systemErr.captureMuted();
+        systemOut.captureMuted();
+    }
+
+    @Test
+    public void testCheckerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(0, "-c", getPath("InputMainConfig-classname.xml"),
+                "-C", "4", getPath("InputMain.java"), getPath("InputMain1.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()));
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testInvalidCheckerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-c", getPath("InputMainConfig-classname.xml"),
+                "--checker-threads-number", "0", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Checker threads number must be greater than zero."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testTreeWalkerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(0, "-c", getPath("InputMainConfig-classname.xml"),
+                "-W", "4", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()));
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testInvalidTreeWalkerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-c", getPath("InputMainConfig-classname.xml"),
+                "--tree-walker-threads-number", "0", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("TreeWalker threads number must be greater than zero."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testProfile(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        assertMainReturnCode(0, "-c", getPath("InputMainConfig-classname.xml"),
+                "-P", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo(addEndOfLine(auditStartMessage.getViolation(),
+                auditFinishMessage.getViolation()));
+        final String report = systemErr.getCapturedData();
+        assertWithMessage("Profile report should start with audit time")
+            .that(report)
+            .startsWith("Audit time: ");
+        assertWithMessage("Profile report should contain modules")
+            .that(report)
+            .containsMatch("\\s1  TreeWalker\\R");
+        assertWithMessage("Profile report should contain parsing")
+            .that(report)
+            .containsMatch("\\s1  JavaParser.parse\\R");
+        assertWithMessage("Profile report should contain checks")
+            .that(report)
+            .containsMatch("\\s\\d+  TypeName\\R");
+    }
+
+    @Test
+    public void testInvalidDaemonOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-c", getPath("InputMainConfig-classname.xml"),
+                "-l", "65536", "-g", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Daemon port must be between 0 and 65535." + System.lineSeparator()
+                + "Option '-l' cannot be used with option '-g'."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testInvalidDiffOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String diffFile = getPath("InputMainNonExistent.diff");
+        assertMainReturnCode(-1, "-c", getPath("InputMainConfig-classname.xml"),
+                "-u", diffFile, "-r", "HEAD", "-l", "0", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Could not find diff file '" + diffFile + "'." + System.lineSeparator()
+                + "Option '-u' cannot be used with option '-r'." + System.lineSeparator()
+                + "Options '-u' and '-r' cannot be used with option '-l'."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testDiffFile(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        final String expectedPath = getFilePath("InputMain.java");
+        final File diffFile = new File(temporaryFolder, "changes.diff");
+        Files.write(diffFile.toPath(), Arrays.asList(
+                "--- " + expectedPath,
+                "+++ " + expectedPath,
+                "@@ -4,0 +5,2 @@",
+                "+class InputMainInner {",
+                "+}"), StandardCharsets.UTF_8);
+        assertMainReturnCode(1, "-c", getPath("InputMainConfig-classname2-error.xml"),
+                "-u", diffFile.getPath(),
+                getPath("InputMain.java"), getPath("InputMain1.java"));
+        final Violation errorCounterOneMessage = new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, Main.ERROR_COUNTER,
+                new String[] {String.valueOf(1)}, null, getClass(), null);
+        final Violation invalidPatternMessageMainInner = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMainInner", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        assertWithMessage("Only violations on changed lines should be reported")
+            .that(systemOut.getCapturedData())
+            .isEqualTo(addEndOfLine(auditStartMessage.getViolation(),
+                    "[ERROR] " + expectedPath + ":5:7: "
+                        + invalidPatternMessageMainInner.getViolation() + " [TypeName]",
+                    auditFinishMessage.getViolation()));
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo(addEndOfLine(errorCounterOneMessage.getViolation()));
+    }
+
+    @Test
+    public void testInvalidShardOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        final String config = getPath("InputMainConfig-classname.xml");
+        final String file = getPath("InputMain.java");
+        assertMainReturnCode(-1, "-c", config, "-i", "0", file);
+        assertMainReturnCode(-1, "-c", config, "-i", "0", "-n", "0", file);
+        assertMainReturnCode(-1, "-c", config, "-i", "2", "-n", "2", file);
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Options '-i' and '-n' must be used together." + System.lineSeparator()
+                + "Shard count must be greater than zero." + System.lineSeparator()
+                + "Shard index must be between 0 and 1." + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testInvalidDfaStateLimit(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-c", getPath("InputMainConfig-classname.xml"),
+                "-S", "-1", getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("DFA state limit must not be negative." + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testShards(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        final String config = getPath("InputMainConfig-classname2-error.xml");
+        final String largerFile = getPath("InputMain.java");
+        final String smallerFile = getPath("InputMain1.java");
+        assertMainReturnCode(2, "-c", config, "-i", "0", "-n", "2", smallerFile, largerFile);
+        assertMainReturnCode(1, "-c", config, "-i", "1", "-n", "2", smallerFile, largerFile);
+        assertWithMessage("Each file should be checked in one shard")
+            .that(systemOut.getCapturedData())
+            .containsMatch("^" + auditStartMessage.getViolation() + "\\R"
+                + "\\[ERROR] .*InputMain\\.java:3:14: .*\\R"
+                + "\\[ERROR] .*InputMain\\.java:5:7: .*\\R"
+                + auditFinishMessage.getViolation() + "\\R"
+                + auditStartMessage.getViolation() + "\\R"
+                + "\\[ERROR] .*InputMain1\\.java:3:14: .*\\R"
+                + auditFinishMessage.getViolation() + "\\R$");
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .contains("Checkstyle ends with 1 errors.");
+    }
+
+    @Test
+    public void testMergeReports(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        final File firstReport = new File(temporaryFolder, "first.xml");
+        Files.write(firstReport.toPath(), Arrays.asList(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<checkstyle version=\"1.0\">",
+                "<file name=\"B.java\">",
+                "<error line=\"1\" severity=\"error\" message=\"b\" source=\"B\"/>",
+                "</file>",
+                "</checkstyle>"), StandardCharsets.UTF_8);
+        final File secondReport = new File(temporaryFolder, "second.xml");
+        Files.write(secondReport.toPath(), Arrays.asList(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<checkstyle version=\"2.0\">",
+                "<file name=\"A.java\">",
+                "<error line=\"1\" severity=\"error\" message=\"a\" source=\"A\"/>",
+                "</file>",
+                "</checkstyle>"), StandardCharsets.UTF_8);
+        final File merged = new File(temporaryFolder, "merged.xml");
+        assertMainReturnCode(2, "-m", "-o", merged.getPath(),
+                firstReport.getPath(), secondReport.getPath());
+        assertWithMessage("Reports should be merged")
+            .that(Files.readAllLines(merged.toPath(), StandardCharsets.UTF_8))
+            .containsExactly(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<checkstyle version=\""
+                    + XMLLogger.class.getPackage().getImplementationVersion() + "\">",
+                "<file name=\"A.java\">",
+                "<error line=\"1\" severity=\"error\" message=\"a\" source=\"A\"/>",
+                "</file>",
+                "<file name=\"B.java\">",
+                "<error line=\"1\" severity=\"error\" message=\"b\" source=\"B\"/>",
+                "</file>",
+                "</checkstyle>")
+            .inOrder();
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("");
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("Checkstyle ends with 2 errors." + System.lineSeparator());
+    }
+
+    @Test
+    public void testInvalidMergeReportsOptions(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-m", "-c", getPath("InputMainConfig-classname.xml"),
+                getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-m' cannot be used with options '-c', '-p' and '-f'."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    private static void assertMainReturnCode(int expectedExitCode, String... arguments) {
+        final Runtime mock = mock(Runtime.class);
+        try (MockedStatic<Runtime> runtime = mockStatic(Runtime.class)) {
+            runtime.when(Runtime::getRuntime)
+                    .thenReturn(mock);
+            Main.main(arguments);
+        }
+        catch (IOException exception) {
+            assertWithMessage("Unexpected exception: %s", exception).fail();
+        }
+        verify(mock).exit(expectedExitCode);
+    }
+
+}
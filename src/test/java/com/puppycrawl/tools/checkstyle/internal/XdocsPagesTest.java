@@ -125,8 +125,10 @@ public class XdocsPagesTest {
             "Checker.classloader",
             "Checker.moduleClassLoader",
             "Checker.moduleFactory",
+            "Checker.profiler",
             "TreeWalker.classLoader",
             "TreeWalker.moduleFactory",
+            "TreeWalker.profiler",
             "TreeWalker.cacheFile",
             "TreeWalker.upChild",
             "SuppressWithNearbyCommentFilter.fileContents",
@@ -0,0 +1,122 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.utils;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.isUtilsClassHasPrivateConstructor;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ShardUtilTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testIsProperUtilsClass() throws ReflectiveOperationException {
+        assertWithMessage("Constructor is not private")
+                .that(isUtilsClassHasPrivateConstructor(ShardUtil.class))
+                .isTrue();
+    }
+
+    @Test
+    public void testShardsAreBalancedBySize() throws Exception {
+        final File large = createFile("Large.java", 100);
+        final File medium = createFile("Medium.java", 60);
+        final File small = createFile("Small.java", 30);
+        final File tiny = createFile("Tiny.java", 10);
+        final List<File> files = Arrays.asList(tiny, large, small, medium);
+
+        assertWithMessage("Largest file should be in first shard")
+                .that(ShardUtil.getShard(files, 0, 2))
+                .containsExactly(large)
+                .inOrder();
+        assertWithMessage("Other files should be in second shard in the given order")
+                .that(ShardUtil.getShard(files, 1, 2))
+                .containsExactly(tiny, small, medium)
+                .inOrder();
+    }
+
+    @Test
+    public void testShardsDoNotDependOnOrderOfFiles() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            files.add(createFile("File" + index + ".java", index % 3));
+        }
+        final List<File> reversed = new ArrayList<>(files);
+        Collections.reverse(reversed);
+
+        final List<File> allShards = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            final List<File> shardFiles = ShardUtil.getShard(files, shard, 3);
+            assertWithMessage("Shards of files of similar size should have similar number "
+                    + "of files")
+                    .that(shardFiles.size())
+                    .isAtLeast(3);
+            final List<File> reversedShardFiles = new ArrayList<>(shardFiles);
+            Collections.reverse(reversedShardFiles);
+            assertWithMessage("Shard should not depend on order of files")
+                    .that(ShardUtil.getShard(reversed, shard, 3))
+                    .containsExactlyElementsIn(reversedShardFiles)
+                    .inOrder();
+            allShards.addAll(shardFiles);
+        }
+        assertWithMessage("Each file should be in exactly one shard")
+                .that(allShards)
+                .containsExactlyElementsIn(files);
+    }
+
+    @Test
+    public void testSingleShard() {
+        final List<File> files = Arrays.asList(new File("B.java"), new File("A.java"));
+        assertWithMessage("Single shard should contain all files")
+                .that(ShardUtil.getShard(files, 0, 1))
+                .containsExactlyElementsIn(files)
+                .inOrder();
+    }
+
+    @Test
+    public void testInvalidShardIndex() {
+        final List<File> files = Collections.singletonList(new File("A.java"));
+        final IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ShardUtil.getShard(files, 2, 2));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Shard index 2 is not between 0 and shard count 2");
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardUtil.getShard(files, -1, 2));
+    }
+
+    private File createFile(String name, int size) throws Exception {
+        final File file = new File(temporaryFolder, name);
+        Files.write(file.toPath(), new byte[size]);
+        return file;
+    }
+
+}
@@ -0,0 +1,86 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getInternalStaticState;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.isUtilsClassHasPrivateConstructor;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.saxon.sxpath.XPathExpression;
+import net.sf.saxon.trans.XPathException;
+
+public class XpathEngineTest {
+
+    @Test
+    public void testIsProperUtilsClass() throws ReflectiveOperationException {
+        assertWithMessage("Constructor is not private")
+                .that(isUtilsClassHasPrivateConstructor(XpathEngine.class))
+                .isTrue();
+    }
+
+    @Test
+    public void testExpressionIsCompiledOnce() throws Exception {
+        final String query = "//CLASS_DEF[./IDENT[@text='XpathEngineTest']]";
+        final long missesBefore = XpathEngine.getCacheMissCount();
+        final XPathExpression expression = XpathEngine.getExpression(query);
+        final long hitsBefore = XpathEngine.getCacheHitCount();
+
+        assertWithMessage("New query should be compiled")
+                .that(XpathEngine.getCacheMissCount())
+                .isEqualTo(missesBefore + 1);
+        assertWithMessage("Compiled expression should be cached")
+                .that(XpathEngine.getExpression(query))
+                .isSameInstanceAs(expression);
+        assertWithMessage("Cached query should be counted as hit")
+                .that(XpathEngine.getCacheHitCount())
+                .isAtLeast(hitsBefore + 1);
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsed() throws Exception {
+        final int maxExpressions = getInternalStaticState(XpathEngine.class, "MAX_EXPRESSIONS");
+        final String query = "//CLASS_DEF[./IDENT[@text='Recent']]";
+        final XPathExpression expression = XpathEngine.getExpression(query);
+        for (int index = 0; index < maxExpressions; index++) {
+            XpathEngine.getExpression(query);
+            XpathEngine.getExpression("//METHOD_DEF[./IDENT[@text='m" + index + "']]");
+        }
+        final Map<String, XPathExpression> expressions =
+                getInternalStaticState(XpathEngine.class, "EXPRESSIONS");
+
+        assertWithMessage("Cache should not grow over its limit")
+                .that(expressions)
+                .hasSize(maxExpressions);
+        assertWithMessage("Recently used expression should stay cached")
+                .that(XpathEngine.getExpression(query))
+                .isSameInstanceAs(expression);
+    }
+
+    @Test
+    public void testIncorrectQuery() {
+        assertThrows(XPathException.class, () -> XpathEngine.getExpression("\\//CLASS_DEF"));
+    }
+
+}
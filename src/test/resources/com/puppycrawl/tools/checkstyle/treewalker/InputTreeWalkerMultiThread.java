@@ -0,0 +1,14 @@
+package com.puppycrawl.tools.checkstyle.treewalker;
+
+public class InputTreeWalkerMultiThread {
+    private static final int constant = 1;
+
+    private int Field;
+
+    @SuppressWarnings("membername")
+    private int SuppressedField;
+
+    // TODO: rename class
+    class inner {
+    }
+}